@@ -0,0 +1,108 @@
+package io.zhc1.realworld.diagnostics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the database round trips made by the current thread, JDBC statements and MongoDB commands apart.
+ *
+ * <p>The persistence adapters record every statement or command they send, and whoever wants to know how many a unit of
+ * work makes opens a scope around it, such as an HTTP request or a test. Scopes nest and a round trip counts in every
+ * open scope of the thread. Work handed off to other threads is only counted when it {@link #join(Scope) joins} the
+ * scope it was handed off from.
+ */
+public final class RoundTripCounter {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private RoundTripCounter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated!");
+    }
+
+    /**
+     * Starts counting the round trips of the current thread, until the returned scope is closed.
+     *
+     * @return Returns the new scope
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get(), CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Get the innermost open scope of the current thread, to be passed along with work handed off to another thread.
+     *
+     * @return Returns the current scope, or null when none is open
+     */
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts counting the round trips of the current thread in a scope opened on another thread, and in its enclosing
+     * scopes, until the returned scope is closed.
+     *
+     * @param origin the scope the work was handed off from, or null to count in the scopes of this thread instead
+     * @return Returns the new scope
+     */
+    public static Scope join(Scope origin) {
+        Scope scope = new Scope(origin != null ? origin : CURRENT.get(), CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /** Counts one JDBC statement in every open scope. */
+    public static void recordStatement() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements.incrementAndGet();
+        }
+    }
+
+    /** Counts one MongoDB command in every open scope. */
+    public static void recordCommand() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.commands.incrementAndGet();
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Scope previous;
+        // Note: Joined scopes count on other threads.
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicInteger commands = new AtomicInteger();
+
+        private Scope(Scope parent, Scope previous) {
+            this.parent = parent;
+            this.previous = previous;
+        }
+
+        public int statements() {
+            return statements.get();
+        }
+
+        public int commands() {
+            return commands.get();
+        }
+
+        public int total() {
+            return statements() + commands();
+        }
+
+        /** Stops counting and makes the scope that was current before this one, if any, current again. */
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "statements=%d, commands=%d".formatted(statements(), commands());
+        }
+    }
+}
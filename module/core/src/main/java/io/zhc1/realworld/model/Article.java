@@ -1,7 +1,11 @@
 package io.zhc1.realworld.model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -15,6 +19,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Transient;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -22,6 +27,7 @@ import lombok.NoArgsConstructor;
 
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 @Entity
 @Document(collection = "articles") // Added for MongoDB
@@ -55,6 +61,20 @@ public class Article {
     @DBRef // Added for MongoDB, implies ArticleTag will be a separate document collection
     private Set<ArticleTag> articleTags = new HashSet<>();
 
+    // Tag names embedded in the article document when the Mongo adapter stores tags inline. The JPA @Transient only
+    // keeps it out of the articles table: Spring Data MongoDB ignores it and maps the field as the tagList array.
+    @Transient
+    @Field("tagList")
+    private List<String> tagList = new ArrayList<>();
+
+    // Denormalized counter. Persistence adapters keep it in sync with atomic increments, never through entity saves.
+    @Column(name = "favorites_count", insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int favoritesCount;
+
+    // Bumped with every change of the counter, so that two changes cancelling out still tell the articles apart.
+    @Column(name = "favorites_version", insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long favoritesVersion;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -127,6 +147,39 @@ public class Article {
         this.articleTags = articleTags;
     }
 
+    /**
+     * Returns the tags of this article.
+     *
+     * <p>When the tags are stored as embedded names rather than join entities, transient {@link ArticleTag}s are built
+     * from them, so callers see the same model either way.
+     */
+    public Set<ArticleTag> getArticleTags() {
+        if (!articleTags.isEmpty() || tagList == null || tagList.isEmpty() || id == null) {
+            return articleTags;
+        }
+
+        Set<ArticleTag> embeddedTags = new LinkedHashSet<>();
+        for (String name : tagList) {
+            embeddedTags.add(new ArticleTag(this, new Tag(name)));
+        }
+        return embeddedTags;
+    }
+
+    public void setTagList(Collection<Tag> tags) {
+        this.tagList = tags.stream().map(Tag::getName).distinct().toList();
+    }
+
+    public void setFavoritesCount(int favoritesCount) {
+        if (favoritesCount < 0) {
+            throw new IllegalArgumentException("favorites count must be greater than or equal to 0.");
+        }
+
+        if (this.favoritesCount != favoritesCount) {
+            this.favoritesCount = favoritesCount;
+            this.favoritesVersion++;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         return o instanceof Article other && Objects.equals(this.getId(), other.getId());
@@ -2,6 +2,8 @@ package io.zhc1.realworld.model;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface ArticleCommentRepository {
     ArticleComment save(ArticleComment articleComment);
@@ -10,5 +12,22 @@ public interface ArticleCommentRepository {
 
     List<ArticleComment> findByArticle(Article article);
 
+    /**
+     * Reads the comments of an article newest first, as they are fetched. The reader may take as long as a slow client,
+     * so no database connection is held while it runs between fetches.
+     *
+     * @param article article
+     * @param reader reads the comments, which are only available until it returns
+     */
+    void streamByArticle(Article article, Consumer<Stream<ArticleComment>> reader);
+
+    /**
+     * Reads the version of the comments of an article in one query, without reading the comments.
+     *
+     * @param article article
+     * @return Returns the version, {@link ArticleCommentsVersion#NONE} if the article has no comments
+     */
+    ArticleCommentsVersion findVersionByArticle(Article article);
+
     void delete(ArticleComment articleComment);
 }
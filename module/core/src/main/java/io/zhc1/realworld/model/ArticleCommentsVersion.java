@@ -0,0 +1,16 @@
+package io.zhc1.realworld.model;
+
+/**
+ * The version of the comments of an article, as shown to a reader who follows nobody.
+ *
+ * <p>Comments are only ever added or deleted, and ids are assigned in creation order, so any change to the comments
+ * changes the count or the latest id. Profile versions only ever increase, so any edit to a commenter's profile
+ * increases their sum.
+ *
+ * @param count the number of comments
+ * @param latestId the id of the latest comment, or {@code null} if there is none
+ * @param authorsProfileVersion the sum of the profile versions of the comments' authors
+ */
+public record ArticleCommentsVersion(long count, Integer latestId, long authorsProfileVersion) {
+    public static final ArticleCommentsVersion NONE = new ArticleCommentsVersion(0, null, 0);
+}
@@ -0,0 +1,69 @@
+package io.zhc1.realworld.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The {@code ArticleCursor} class represents a position in article lists, which are ordered by creation date and then
+ * by id, both descending.
+ *
+ * <p>A page requested with a cursor holds the articles that come strictly after it, so pages neither shift when new
+ * articles are written nor get slower the deeper they are.
+ *
+ * @param createdAt The creation date of the last article of the previous page.
+ * @param id The id of the last article of the previous page.
+ * @see ArticleCursor#decode(String)
+ */
+public record ArticleCursor(LocalDateTime createdAt, int id) {
+    private static final char SEPARATOR = '|';
+
+    public ArticleCursor {
+        if (createdAt == null) {
+            throw new IllegalArgumentException("cursor creation date is null.");
+        }
+    }
+
+    /**
+     * Get the cursor positioned at the given article.
+     *
+     * @param article article
+     * @return Returns the cursor of the article
+     */
+    public static ArticleCursor of(Article article) {
+        if (article == null || article.getId() == null) {
+            throw new IllegalArgumentException("article is null or unknown article.");
+        }
+
+        return new ArticleCursor(article.getCreatedAt(), article.getId());
+    }
+
+    /**
+     * Decode a cursor encoded with {@link #encode()}.
+     *
+     * @param value encoded cursor
+     * @return Returns the decoded cursor
+     */
+    public static ArticleCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new ArticleCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Integer.parseInt(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("cursor is invalid.");
+        }
+    }
+
+    /**
+     * Encode the cursor as an opaque, URL-safe string.
+     *
+     * @return Returns the encoded cursor
+     */
+    public String encode() {
+        String value = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,30 @@
+package io.zhc1.realworld.model;
+
+/**
+ * The {@code ArticleEvent} class represents a change to an article that has been stored, published so that copies of
+ * the article or of lists holding it can be dropped.
+ *
+ * @param kind The kind of change.
+ * @param article The article as it is after the change.
+ * @param slug The slug the article had before the change, which differs from its current one once the title is edited.
+ * @param user The user who made the change, who is the favoriting user for favorites.
+ */
+public record ArticleEvent(Kind kind, Article article, String slug, User user) {
+    public ArticleEvent {
+        if (kind == null || article == null || user == null) {
+            throw new IllegalArgumentException("kind, article or user is null.");
+        }
+    }
+
+    public ArticleEvent(Kind kind, Article article, User user) {
+        this(kind, article, article.getSlug(), user);
+    }
+
+    public enum Kind {
+        WRITTEN,
+        EDITED,
+        DELETED,
+        FAVORITED,
+        UNFAVORITED
+    }
+}
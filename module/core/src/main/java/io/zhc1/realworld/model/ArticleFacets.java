@@ -4,16 +4,17 @@ package io.zhc1.realworld.model;
  * The {@code ArticleFacets} class represents a set of facets for querying articles, including tag, author, favorited
  * status, page, and size.
  *
- * <p>Note: The {@code page} parameter is 0-based, i.e., it starts from 0.
+ * <p>Note: The {@code page} parameter is 0-based, i.e., it starts from 0. It is ignored when a {@code cursor} is given.
  *
  * @param tag The tag for filtering articles.
  * @param author The author for filtering articles.
  * @param favorited The favorited status for filtering articles.
  * @param page The 0-based page number for paginated results.
  * @param size The size of the result set, limited to a range between 0 and 50.
+ * @param cursor The position after which the result set starts, or {@code null} to paginate by {@code page}.
  * @see ArticleFacets#ArticleFacets(int, int)
  */
-public record ArticleFacets(String tag, String author, String favorited, int page, int size) {
+public record ArticleFacets(String tag, String author, String favorited, int page, int size, ArticleCursor cursor) {
     public ArticleFacets {
         if (page < 0) {
             throw new IllegalArgumentException("page must be greater than 0.");
@@ -23,7 +24,53 @@ public record ArticleFacets(String tag, String author, String favorited, int pag
         }
     }
 
+    public ArticleFacets(String tag, String author, String favorited, int page, int size) {
+        this(tag, author, favorited, page, size, null);
+    }
+
     public ArticleFacets(int page, int size) {
         this(null, null, null, page, size);
     }
+
+    public boolean hasCursor() {
+        return cursor != null;
+    }
+
+    /**
+     * Get the facets in the form equal queries share: blank filters are no filters, and the page is ignored when a
+     * cursor is given.
+     *
+     * @return Returns the normalized facets
+     */
+    public ArticleFacets normalized() {
+        return new ArticleFacets(
+                blankToNull(tag), blankToNull(author), blankToNull(favorited), hasCursor() ? 0 : page, size, cursor);
+    }
+
+    /**
+     * Check whether any of tag, author or favorited filters the articles.
+     *
+     * @return Returns true if a filter is given
+     */
+    public boolean isFiltered() {
+        return hasText(tag) || hasText(author) || hasText(favorited);
+    }
+
+    /**
+     * Get the normalized filters without page, size or cursor, which all the pages of one listing share and which its
+     * total count depends on alone.
+     *
+     * @return Returns the facets of the whole listing
+     */
+    public ArticleFacets filters() {
+        return new ArticleFacets(blankToNull(tag), blankToNull(author), blankToNull(favorited), 0, 0, null);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return hasText(value) ? value : null;
+    }
 }
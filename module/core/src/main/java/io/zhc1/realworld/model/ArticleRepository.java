@@ -11,6 +11,15 @@ public interface ArticleRepository {
 
     List<Article> findAll(ArticleFacets facets);
 
+    /**
+     * Counts the articles matching the filters of the facets, on every page. The count may be stale by up to a bound
+     * the adapter is configured with, or estimated when nothing is filtered.
+     *
+     * @param facets article facets, of which page, size and cursor are ignored
+     * @return Returns the number of matching articles
+     */
+    long count(ArticleFacets facets);
+
     Optional<Article> findBySlug(String slug);
 
     List<Article> findByAuthors(Collection<User> authors, ArticleFacets facets);
@@ -19,6 +28,10 @@ public interface ArticleRepository {
 
     ArticleDetails findArticleDetails(User requester, Article article);
 
+    List<ArticleDetails> findArticleDetails(List<Article> articles);
+
+    List<ArticleDetails> findArticleDetails(User requester, List<Article> articles);
+
     void delete(Article article);
 
     boolean existsBy(String title);
@@ -0,0 +1,16 @@
+package io.zhc1.realworld.model;
+
+/**
+ * The {@code ProfileEvent} class represents a change to a user's profile that has been stored, published so that
+ * copies of the profile shown along with the user's articles can be dropped.
+ *
+ * @param user The user as they are after the change.
+ * @param username The username the user had before the change, which differs from their current one once it is edited.
+ */
+public record ProfileEvent(User user, String username) {
+    public ProfileEvent {
+        if (user == null || username == null) {
+            throw new IllegalArgumentException("user or username is null.");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.zhc1.realworld.model;
+
+import java.util.List;
+
+/**
+ * Personal feed of each user, the articles of the authors they follow, newest first.
+ *
+ * <p>Implementations may materialize the feed when articles are written (fan-out-on-write) or assemble it when it is
+ * read (fan-out-on-read). The write-side methods are notifications and may do nothing for the latter.
+ */
+public interface TimelineRepository {
+    /** Adds a newly written article to the feeds of its author's followers. */
+    void publish(Article article);
+
+    /** Removes a deleted article from every feed. */
+    void withdraw(Article article);
+
+    /** Adds the recent articles of a newly followed author to the follower's feed. */
+    void follow(User follower, User following);
+
+    /** Removes the articles of an unfollowed author from the follower's feed. */
+    void unfollow(User follower, User following);
+
+    List<Article> findFeed(User user, ArticleFacets facets);
+
+    /**
+     * Counts the articles of the authors the user follows, on every page of the feed. The count may be stale by up to
+     * a bound the adapter is configured with.
+     *
+     * @param user user whose feed is counted
+     * @return Returns the number of articles in the feed
+     */
+    long countFeed(User user);
+}
@@ -47,6 +47,10 @@ public class User {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Getter(AccessLevel.NONE)
+    @Column(name = "profile_version", nullable = false, columnDefinition = "bigint default 0")
+    private long profileVersion;
+
     public User(UserRegistry registry) {
         this(registry.email(), registry.username(), registry.password());
         // Generate UUID for MongoDB
@@ -74,6 +78,56 @@ public class User {
         this.createdAt = LocalDateTime.now();  // Set createdAt in constructor
     }
 
+    /**
+     * Creates a stand-in for a user known only from the claims of their auth token, without reading the user. It
+     * carries the id and username and nothing else, so it may be passed to reads that look users up by id but must
+     * never be saved.
+     *
+     * @param id user id
+     * @param username user name
+     * @return Returns the stand-in
+     */
+    public static User reference(UUID id, String username) {
+        if (id == null) {
+            throw new IllegalArgumentException("id must not be null.");
+        }
+
+        User user = new User();
+        user.id = id;
+        user.username = username;
+        return user;
+    }
+
+    /**
+     * Creates a detached copy of the user, carrying the same id, profile and profile version. Changing either one
+     * leaves the other as it was, so a copy may be handed to readers the original must not be changed by.
+     *
+     * @return Returns the copy
+     */
+    public User copy() {
+        User copy = new User();
+        copy.id = this.id;
+        copy.email = this.email;
+        copy.username = this.username;
+        copy.password = this.password;
+        copy.bio = this.bio;
+        copy.imageUrl = this.imageUrl;
+        copy.createdAt = this.createdAt;
+        copy.profileVersion = this.profileVersion;
+        return copy;
+    }
+
+    /**
+     * Returns the version of the profile, which is stored with it and incremented whenever the email, username,
+     * password, bio or image changes. Tokens and validators carrying it go stale as soon as the profile changes, and it
+     * reveals nothing of the profile itself.
+     *
+     * @return Returns the profile version
+     */
+    public long profileVersion() {
+        return profileVersion;
+    }
+
     // Add a setter for createdAt to allow MongoDB to set it during deserialization
     public void setCreatedAt(LocalDateTime createdAt) {
        this.createdAt = createdAt;
@@ -95,6 +149,7 @@ public class User {
 
         // Note: You can add some more validations here if you want. (ex. regex)
         this.email = email;
+        this.profileVersion++;
     }
 
     public void setUsername(String username) {
@@ -105,6 +160,7 @@ public class User {
 
         // Note: You can add some more validations here if you want. (ex. regex)
         this.username = username;
+        this.profileVersion++;
     }
 
     public void encryptPassword(PasswordEncoder passwordEncoder, String plainPassword) {
@@ -124,6 +180,7 @@ public class User {
 
         // Note: You can add some more validations here if you want. (ex. regex)
         this.password = passwordEncoder.encode(plainPassword);
+        this.profileVersion++;
     }
 
     public void setBio(String bio) {
@@ -132,7 +189,10 @@ public class User {
             return;
         }
 
-        this.bio = bio;
+        if (!Objects.equals(this.bio, bio)) {
+            this.bio = bio;
+            this.profileVersion++;
+        }
     }
 
     public void setImageUrl(String imageUrl) {
@@ -141,7 +201,10 @@ public class User {
             return;
         }
 
-        this.imageUrl = imageUrl;
+        if (!Objects.equals(this.imageUrl, imageUrl)) {
+            this.imageUrl = imageUrl;
+            this.profileVersion++;
+        }
     }
 
     @Override
@@ -1,6 +1,8 @@
 package io.zhc1.realworld.model;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface UserRelationshipRepository {
     void save(UserFollow userFollow);
@@ -10,4 +12,6 @@ public interface UserRelationshipRepository {
     void deleteBy(User follower, User following);
 
     boolean existsBy(User follower, User following);
+
+    Set<User> findFollowingAmong(User follower, Collection<User> candidates);
 }
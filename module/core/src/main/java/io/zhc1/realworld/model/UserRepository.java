@@ -6,6 +6,15 @@ import java.util.UUID;
 public interface UserRepository {
     User save(User user);
 
+    /**
+     * Inserts a new user in a single write, relying on the unique email and username indexes to refuse duplicates
+     * rather than checking for them first.
+     *
+     * @param user the new user
+     * @return Returns the user, or empty if the email or username is taken already
+     */
+    Optional<User> insert(User user);
+
     Optional<User> findById(UUID id);
 
     Optional<User> findByEmail(String email);
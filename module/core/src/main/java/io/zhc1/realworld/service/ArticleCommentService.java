@@ -2,6 +2,8 @@ package io.zhc1.realworld.service;
 
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
@@ -10,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleComment;
 import io.zhc1.realworld.model.ArticleCommentRepository;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
 import io.zhc1.realworld.model.User;
 
 @Service
@@ -39,6 +42,26 @@ public class ArticleCommentService {
         return articleCommentRepository.findByArticle(article);
     }
 
+    /**
+     * Read all comments by article as they are fetched, without holding them all in memory.
+     *
+     * @param article article
+     * @param reader reads the comments, newest first, which are only available until it returns
+     */
+    public void streamComments(Article article, Consumer<Stream<ArticleComment>> reader) {
+        articleCommentRepository.streamByArticle(article, reader);
+    }
+
+    /**
+     * Get the version of the comments of an article and of their authors' profiles, without reading the comments.
+     *
+     * @param article article
+     * @return Returns the version of the comments
+     */
+    public ArticleCommentsVersion getCommentsVersion(Article article) {
+        return articleCommentRepository.findVersionByArticle(article);
+    }
+
     /**
      * Write a comment.
      *
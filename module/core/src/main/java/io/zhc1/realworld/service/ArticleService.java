@@ -6,6 +6,7 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -13,22 +14,23 @@ import lombok.extern.slf4j.Slf4j;
 
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleDetails;
+import io.zhc1.realworld.model.ArticleEvent;
 import io.zhc1.realworld.model.ArticleFacets;
 import io.zhc1.realworld.model.ArticleFavorite;
 import io.zhc1.realworld.model.ArticleFavoriteRepository;
 import io.zhc1.realworld.model.ArticleRepository;
 import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.TimelineRepository;
 import io.zhc1.realworld.model.User;
-import io.zhc1.realworld.model.UserFollow;
-import io.zhc1.realworld.model.UserRelationshipRepository;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ArticleService {
-    private final UserRelationshipRepository userRelationshipRepository;
     private final ArticleRepository articleRepository;
     private final ArticleFavoriteRepository articleFavoriteRepository;
+    private final TimelineRepository timelineRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get article by slug.
@@ -47,9 +49,7 @@ public class ArticleService {
      * @return Returns articles with information
      */
     public List<ArticleDetails> getArticles(ArticleFacets facets) {
-        return articleRepository.findAll(facets).stream()
-                .map(articleRepository::findArticleDetails)
-                .toList();
+        return articleRepository.findArticleDetails(articleRepository.findAll(facets));
     }
 
     /**
@@ -60,9 +60,17 @@ public class ArticleService {
      * @return Returns articles with information
      */
     public List<ArticleDetails> getArticles(User requester, ArticleFacets facets) {
-        return articleRepository.findAll(facets).stream()
-                .map(article -> articleRepository.findArticleDetails(requester, article))
-                .toList();
+        return articleRepository.findArticleDetails(requester, articleRepository.findAll(facets));
+    }
+
+    /**
+     * Count the articles of all pages of a listing, for clients to paginate with.
+     *
+     * @param facets article facets
+     * @return Returns the number of articles, possibly a little out of date
+     */
+    public long countArticles(ArticleFacets facets) {
+        return articleRepository.count(facets.filters());
     }
 
     /**
@@ -73,13 +81,17 @@ public class ArticleService {
      * @return Returns articles with information
      */
     public List<ArticleDetails> getFeeds(User user, ArticleFacets facets) {
-        List<User> following = userRelationshipRepository.findByFollower(user).stream()
-                .map(UserFollow::getFollowing)
-                .toList();
+        return articleRepository.findArticleDetails(user, timelineRepository.findFeed(user, facets));
+    }
 
-        return articleRepository.findByAuthors(following, facets).stream()
-                .map(article -> articleRepository.findArticleDetails(user, article))
-                .toList();
+    /**
+     * Count the articles of all pages of my feed, for clients to paginate with.
+     *
+     * @param user user who requested
+     * @return Returns the number of articles, possibly a little out of date
+     */
+    public long countFeeds(User user) {
+        return timelineRepository.countFeed(user);
     }
 
     /**
@@ -96,7 +108,11 @@ public class ArticleService {
             throw new IllegalArgumentException("title is already exists.");
         }
         log.info("Article title '{}' is unique. Proceeding to save.", article.getTitle());
-        return articleRepository.save(article, Objects.requireNonNullElseGet(tags, Set::of));
+        Article savedArticle = articleRepository.save(article, Objects.requireNonNullElseGet(tags, Set::of));
+        timelineRepository.publish(savedArticle);
+        eventPublisher.publishEvent(
+                new ArticleEvent(ArticleEvent.Kind.WRITTEN, savedArticle, savedArticle.getAuthor()));
+        return savedArticle;
     }
 
     /**
@@ -116,8 +132,9 @@ public class ArticleService {
             throw new IllegalArgumentException("title is already exists.");
         }
 
+        var previousSlug = article.getSlug();
         article.setTitle(title);
-        return articleRepository.save(article);
+        return edited(requester, articleRepository.save(article), previousSlug);
     }
 
     /**
@@ -134,7 +151,7 @@ public class ArticleService {
         }
 
         article.setDescription(description);
-        return articleRepository.save(article);
+        return edited(requester, articleRepository.save(article), article.getSlug());
     }
 
     /**
@@ -151,7 +168,12 @@ public class ArticleService {
         }
 
         article.setContent(content);
-        return articleRepository.save(article);
+        return edited(requester, articleRepository.save(article), article.getSlug());
+    }
+
+    private Article edited(User requester, Article article, String previousSlug) {
+        eventPublisher.publishEvent(new ArticleEvent(ArticleEvent.Kind.EDITED, article, previousSlug, requester));
+        return article;
     }
 
     /**
@@ -166,6 +188,8 @@ public class ArticleService {
         }
 
         articleRepository.delete(article);
+        timelineRepository.withdraw(article);
+        eventPublisher.publishEvent(new ArticleEvent(ArticleEvent.Kind.DELETED, article, requester));
     }
 
     /**
@@ -191,6 +215,7 @@ public class ArticleService {
         }
 
         articleFavoriteRepository.save(new ArticleFavorite(requester, article));
+        eventPublisher.publishEvent(new ArticleEvent(ArticleEvent.Kind.FAVORITED, article, requester));
     }
 
     /**
@@ -205,6 +230,7 @@ public class ArticleService {
         }
 
         articleFavoriteRepository.deleteBy(requester, article);
+        eventPublisher.publishEvent(new ArticleEvent(ArticleEvent.Kind.UNFAVORITED, article, requester));
     }
 
     /**
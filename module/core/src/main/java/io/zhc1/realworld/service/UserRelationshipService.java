@@ -1,9 +1,13 @@
 package io.zhc1.realworld.service;
 
+import java.util.Collection;
+import java.util.Set;
+
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
 
+import io.zhc1.realworld.model.TimelineRepository;
 import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.model.UserFollow;
 import io.zhc1.realworld.model.UserRelationshipRepository;
@@ -12,6 +16,7 @@ import io.zhc1.realworld.model.UserRelationshipRepository;
 @RequiredArgsConstructor
 public class UserRelationshipService {
     private final UserRelationshipRepository userRelationshipRepository;
+    private final TimelineRepository timelineRepository;
 
     /**
      * Check if the follower is following the following.
@@ -22,6 +27,19 @@ public class UserRelationshipService {
         return userRelationshipRepository.existsBy(follower, following);
     }
 
+    /**
+     * Check which of the candidates the follower is following, with one lookup for all of them.
+     *
+     * @return Returns the candidates already followed
+     */
+    public Set<User> getFollowingAmong(User follower, Collection<User> candidates) {
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        return userRelationshipRepository.findFollowingAmong(follower, candidates);
+    }
+
     /** Follow user. */
     public void follow(User follower, User following) {
         if (this.isFollowing(follower, following)) {
@@ -29,12 +47,14 @@ public class UserRelationshipService {
         }
 
         userRelationshipRepository.save(new UserFollow(follower, following));
+        timelineRepository.follow(follower, following);
     }
 
     /** Unfollow user. */
     public void unfollow(User follower, User following) {
         if (this.isFollowing(follower, following)) {
             userRelationshipRepository.deleteBy(follower, following);
+            timelineRepository.unfollow(follower, following);
         }
     }
 }
@@ -3,11 +3,13 @@ package io.zhc1.realworld.service;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
 
 import io.zhc1.realworld.model.PasswordEncoder;
+import io.zhc1.realworld.model.ProfileEvent;
 import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.model.UserRegistry;
 import io.zhc1.realworld.model.UserRepository;
@@ -17,6 +19,7 @@ import io.zhc1.realworld.model.UserRepository;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get user by id.
@@ -44,14 +47,12 @@ public class UserService {
      */
     @SuppressWarnings("UnusedReturnValue")
     public User signup(UserRegistry registry) {
-        if (userRepository.existsBy(registry.email(), registry.username())) {
-            throw new IllegalArgumentException("email or username is already exists.");
-        }
-
         var requester = new User(registry);
         requester.encryptPassword(passwordEncoder, registry.password());
 
-        return userRepository.save(requester);
+        return userRepository
+                .insert(requester)
+                .orElseThrow(() -> new IllegalArgumentException("email or username is already exists."));
     }
 
     /**
@@ -92,6 +93,10 @@ public class UserService {
             throw new IllegalArgumentException("user id is required.");
         }
 
-        return userRepository.updateUserDetails(userId, passwordEncoder, email, username, password, bio, imageUrl);
+        String previousUsername = this.getUser(userId).getUsername();
+        User user =
+                userRepository.updateUserDetails(userId, passwordEncoder, email, username, password, bio, imageUrl);
+        eventPublisher.publishEvent(new ProfileEvent(user, previousUsername));
+        return user;
     }
 }
@@ -0,0 +1,82 @@
+package io.zhc1.realworld.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Round Trip Counter - Scoped Statement and Command Counting")
+class RoundTripCounterTest {
+    @Test
+    @DisplayName("Round trips count in every open scope of the thread")
+    void whenScopesAreNested_thenRoundTripsShouldCountInEveryOpenScope() {
+        // given
+        try (RoundTripCounter.Scope outer = RoundTripCounter.open()) {
+            RoundTripCounter.recordStatement();
+
+            // when
+            try (RoundTripCounter.Scope inner = RoundTripCounter.open()) {
+                RoundTripCounter.recordCommand();
+                RoundTripCounter.recordCommand();
+
+                // then
+                assertEquals(0, inner.statements());
+                assertEquals(2, inner.commands());
+            }
+            RoundTripCounter.recordStatement();
+
+            // then
+            assertEquals(2, outer.statements());
+            assertEquals(2, outer.commands());
+            assertEquals(4, outer.total());
+        }
+    }
+
+    @Test
+    @DisplayName("Round trips outside of any scope are not counted")
+    void whenNoScopeIsOpen_thenRoundTripsShouldNotBeCounted() {
+        // given
+        RoundTripCounter.Scope closed = RoundTripCounter.open();
+        closed.close();
+
+        // when
+        RoundTripCounter.recordStatement();
+        RoundTripCounter.recordCommand();
+
+        // then
+        assertEquals(0, closed.total());
+    }
+
+    @Test
+    @DisplayName("Round trips of work handed off to another thread count in the scope it joins")
+    void whenOtherThreadJoinsScope_thenRoundTripsShouldCountInIt() {
+        try (RoundTripCounter.Scope origin = RoundTripCounter.open()) {
+            // given
+            RoundTripCounter.recordStatement();
+
+            // when
+            CompletableFuture.runAsync(() -> {
+                        try (RoundTripCounter.Scope joined = RoundTripCounter.join(origin)) {
+                            RoundTripCounter.recordStatement();
+                            RoundTripCounter.recordCommand();
+                        }
+                        RoundTripCounter.recordCommand();
+                    })
+                    .join();
+
+            // then
+            assertEquals(2, origin.statements());
+            assertEquals(1, origin.commands());
+            assertEquals(origin, RoundTripCounter.current());
+        }
+    }
+
+    @Test
+    @RoundTripBudget(1)
+    @DisplayName("A test within its round trip budget passes")
+    void whenTestStaysWithinBudget_thenShouldPass() {
+        RoundTripCounter.recordCommand();
+    }
+}
@@ -0,0 +1,40 @@
+package io.zhc1.realworld.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("Article Cursor - Encoding and Validation")
+class ArticleCursorTest {
+    @Test
+    @DisplayName("Decoding an encoded cursor should return the same position")
+    void whenEncodeAndDecode_thenShouldReturnSamePosition() {
+        // given
+        var cursor = new ArticleCursor(LocalDateTime.of(2024, 5, 17, 9, 30, 15, 123_456_000), 42);
+
+        // when
+        var decoded = ArticleCursor.decode(cursor.encode());
+
+        // then
+        assertEquals(cursor, decoded);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not-a-cursor", "MjAyNC0wNS0xN1QwOTozMA", "MjAyNC0wNS0xN1QwOTozMHxhYmM"})
+    @DisplayName("Decoding a malformed cursor should throw exception")
+    void whenDecodeMalformedCursor_thenShouldThrowException(String value) {
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursor.decode(value));
+    }
+
+    @Test
+    @DisplayName("Creating cursor without creation date should throw exception")
+    void whenCreateCursorWithoutCreatedAt_thenShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new ArticleCursor(null, 1));
+    }
+}
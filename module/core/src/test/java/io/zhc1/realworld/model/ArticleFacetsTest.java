@@ -1,6 +1,11 @@
 package io.zhc1.realworld.model;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,4 +29,28 @@ class ArticleFacetsTest {
     void whenCreateFacetsWithPageSizeGreaterThan50_thenShouldThrowException() {
         assertThrows(IllegalArgumentException.class, () -> new ArticleFacets(null, null, null, 0, 51));
     }
+
+    @Test
+    @DisplayName("Normalizing facets should drop blank filters and the page of cursor queries")
+    void whenNormalizeFacets_thenShouldMatchEqualQueries() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 10);
+
+        assertEquals(
+                new ArticleFacets(null, "author", null, 0, 20, cursor),
+                new ArticleFacets(" ", "author", "", 40, 20, cursor).normalized());
+        assertEquals(
+                new ArticleFacets("tag", null, null, 40, 20), new ArticleFacets("tag", "", null, 40, 20).normalized());
+    }
+
+    @Test
+    @DisplayName("Filters of facets should be shared by every page of the same listing")
+    void whenGetFilters_thenShouldDropPageSizeAndCursor() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 10);
+
+        assertEquals(
+                new ArticleFacets(" ", "author", null, 0, 20).filters(),
+                new ArticleFacets(null, "author", "", 3, 5, cursor).filters());
+        assertTrue(new ArticleFacets(null, "author", null, 0, 20).isFiltered());
+        assertFalse(new ArticleFacets(" ", "", null, 0, 20).isFiltered());
+    }
 }
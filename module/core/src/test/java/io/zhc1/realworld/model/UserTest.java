@@ -226,4 +226,54 @@ class UserTest {
         // then
         assertTrue(isEquals);
     }
+
+    @Test
+    @DisplayName("When the profile changes, then the profile version should change with it")
+    void whenProfileChanges_thenProfileVersionShouldChange() {
+        // given
+        User sut = new User("email", "username", "password");
+        long before = sut.profileVersion();
+
+        // when
+        sut.setBio("bio");
+        long afterBio = sut.profileVersion();
+        sut.setBio("bio");
+
+        // then
+        assertThat(afterBio).isGreaterThan(before);
+        assertThat(sut.profileVersion()).isEqualTo(afterBio);
+        assertThat(new User("email", "username", "password").profileVersion()).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("When referencing a user by the claims of a token, then it should equal the user with the same ID")
+    void whenReferencingUser_thenShouldEqualUserWithSameId() {
+        // given
+        User user = new User("email", "username", "password");
+
+        // when
+        User reference = User.reference(user.getId(), "username");
+
+        // then
+        assertThat(reference).isEqualTo(user);
+        assertTrue(reference.equalsUsername("username"));
+    }
+
+    @Test
+    @DisplayName("When copying a user, then changing the copy should leave the original unchanged")
+    void whenCopyingUser_thenChangingCopyShouldLeaveOriginalUnchanged() {
+        // given
+        User user = new User("email", "username", "password");
+        user.setBio("bio");
+
+        // when
+        User copy = user.copy();
+        copy.setUsername("other");
+
+        // then
+        assertThat(copy).isEqualTo(user).isNotSameAs(user);
+        assertThat(copy.getBio()).isEqualTo("bio");
+        assertThat(user.getUsername()).isEqualTo("username");
+        assertThat(copy.profileVersion()).isGreaterThan(user.profileVersion());
+    }
 }
@@ -3,13 +3,18 @@ package io.zhc1.realworld.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -122,4 +127,26 @@ class ArticleCommentServiceTest {
         assertThat(result.size()).isEqualTo(comments.size());
         assertThat(result).containsExactlyInAnyOrder(comment1, comment2);
     }
+
+    @Test
+    @DisplayName("Stream comments should hand the comments read from the repository to the reader")
+    void whenStreamComments_thenShouldPassCommentsToReader() {
+        // given
+        ArticleComment comment1 = new ArticleComment(article, commenter, "comment1");
+        ArticleComment comment2 = new ArticleComment(article, commenter, "comment2");
+        doAnswer(invocation -> {
+                    Consumer<Stream<ArticleComment>> reader = invocation.getArgument(1);
+                    reader.accept(Stream.of(comment2, comment1));
+                    return null;
+                })
+                .when(articleCommentRepository)
+                .streamByArticle(any(), any());
+
+        // when
+        List<ArticleComment> result = new ArrayList<>();
+        sut.streamComments(article, comments -> comments.forEach(result::add));
+
+        // then
+        assertThat(result).containsExactly(comment2, comment1);
+    }
 }
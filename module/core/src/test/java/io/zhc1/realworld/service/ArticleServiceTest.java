@@ -27,9 +27,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleDetails;
+import io.zhc1.realworld.model.ArticleEvent;
 import io.zhc1.realworld.model.ArticleFacets;
 import io.zhc1.realworld.model.ArticleFavorite;
 import io.zhc1.realworld.model.ArticleFavoriteRepository;
@@ -37,9 +39,8 @@ import io.zhc1.realworld.model.ArticleRepository;
 import io.zhc1.realworld.model.Tag;
 import io.zhc1.realworld.model.TestArticle;
 import io.zhc1.realworld.model.TestUser;
+import io.zhc1.realworld.model.TimelineRepository;
 import io.zhc1.realworld.model.User;
-import io.zhc1.realworld.model.UserFollow;
-import io.zhc1.realworld.model.UserRelationshipRepository;
 
 @SuppressWarnings("unchecked")
 @ExtendWith(MockitoExtension.class)
@@ -48,15 +49,18 @@ class ArticleServiceTest {
     @InjectMocks
     ArticleService sut;
 
-    @Mock
-    UserRelationshipRepository userRelationshipRepository;
-
     @Mock
     ArticleRepository articleRepository;
 
     @Mock
     ArticleFavoriteRepository articleFavoriteRepository;
 
+    @Mock
+    TimelineRepository timelineRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     User testUser1;
     User testUser2;
 
@@ -105,7 +109,7 @@ class ArticleServiceTest {
         ArticleDetails expectedDetails = ArticleDetails.unauthenticated(article, 0);
         List<ArticleDetails> expectedDetailsList = List.of(expectedDetails);
         when(articleRepository.findAll(facets)).thenReturn(List.of(article));
-        when(articleRepository.findArticleDetails(article)).thenReturn(expectedDetails);
+        when(articleRepository.findArticleDetails(List.of(article))).thenReturn(expectedDetailsList);
 
         // when
         List<ArticleDetails> actualArticleDetailsList = sut.getArticles(facets);
@@ -124,7 +128,7 @@ class ArticleServiceTest {
         ArticleDetails expectedDetails = ArticleDetails.unauthenticated(article, 0);
         List<ArticleDetails> expectedDetailsList = List.of(expectedDetails);
         when(articleRepository.findAll(facets)).thenReturn(List.of(article));
-        when(articleRepository.findArticleDetails(requester, article)).thenReturn(expectedDetails);
+        when(articleRepository.findArticleDetails(requester, List.of(article))).thenReturn(expectedDetailsList);
 
         // when
         List<ArticleDetails> actualArticleDetailsList = sut.getArticles(requester, facets);
@@ -142,7 +146,7 @@ class ArticleServiceTest {
         ArticleDetails articleDetails = ArticleDetails.unauthenticated(article, 0);
         List<ArticleDetails> expectedArticleDetailsList = List.of(articleDetails);
         when(articleRepository.findAll(facets)).thenReturn(List.of(article));
-        when(articleRepository.findArticleDetails(article)).thenReturn(articleDetails);
+        when(articleRepository.findArticleDetails(List.of(article))).thenReturn(expectedArticleDetailsList);
 
         // when
         List<ArticleDetails> actualArticleDetailsList = sut.getArticles(facets);
@@ -150,7 +154,21 @@ class ArticleServiceTest {
         // then
         assertEquals(expectedArticleDetailsList, actualArticleDetailsList);
         verify(articleRepository).findAll(facets);
-        verify(articleRepository).findArticleDetails(article);
+        verify(articleRepository).findArticleDetails(List.of(article));
+    }
+
+    @Test
+    @DisplayName("Count articles should count every page of the listing, whichever page is read")
+    void whenCountArticles_thenShouldCountByFiltersOnly() {
+        // given
+        ArticleFacets facets = new ArticleFacets("java", "", null, 3, 10);
+        when(articleRepository.count(new ArticleFacets("java", null, null, 0, 0))).thenReturn(42L);
+
+        // when
+        long count = sut.countArticles(facets);
+
+        // then
+        assertEquals(42L, count);
     }
 
     @Test
@@ -175,10 +193,8 @@ class ArticleServiceTest {
         Article article = new Article(testUser1, "title", "desc", "content");
         ArticleDetails expectedDetails = ArticleDetails.unauthenticated(article, 0);
         List<ArticleDetails> expectedDetailsList = List.of(expectedDetails);
-        when(userRelationshipRepository.findByFollower(testUser2))
-                .thenReturn(List.of(new UserFollow(testUser2, testUser1)));
-        when(articleRepository.findByAuthors(List.of(testUser1), facets)).thenReturn(List.of(article));
-        when(articleRepository.findArticleDetails(testUser2, article)).thenReturn(expectedDetails);
+        when(timelineRepository.findFeed(testUser2, facets)).thenReturn(List.of(article));
+        when(articleRepository.findArticleDetails(testUser2, List.of(article))).thenReturn(expectedDetailsList);
 
         // when
         List<ArticleDetails> actualArticleDetailsList = sut.getFeeds(testUser2, facets);
@@ -187,14 +203,26 @@ class ArticleServiceTest {
         assertEquals(expectedDetailsList, actualArticleDetailsList);
     }
 
+    @Test
+    @DisplayName("Count feeds should count the whole feed of the user")
+    void whenCountFeeds_thenShouldCountTheWholeFeed() {
+        // given
+        when(timelineRepository.countFeed(testUser2)).thenReturn(7L);
+
+        // when
+        long count = sut.countFeeds(testUser2);
+
+        // then
+        assertEquals(7L, count);
+    }
+
     @Test
     @DisplayName("Get feeds should return empty list when user has no followings")
     void whenGetFeedsWithEmptyFollowings_thenShouldReturnEmptyList() {
         // given
         User user = new User("email", "username", "password");
         ArticleFacets facets = new ArticleFacets(1, 10);
-        when(userRelationshipRepository.findByFollower(user)).thenReturn(List.of());
-        when(articleRepository.findByAuthors(List.of(), facets)).thenReturn(List.of());
+        when(timelineRepository.findFeed(user, facets)).thenReturn(List.of());
 
         // when
         List<ArticleDetails> actualArticleDetailsList = sut.getFeeds(user, facets);
@@ -218,6 +246,7 @@ class ArticleServiceTest {
         // then
         assertEquals(article, returnedArticle);
         verify(articleRepository).save(article, tags);
+        verify(timelineRepository).publish(article);
     }
 
     @Test
@@ -249,6 +278,7 @@ class ArticleServiceTest {
 
         // then
         verify(articleRepository, never()).save(any(Article.class), any(Collection.class));
+        verify(timelineRepository, never()).publish(any(Article.class));
     }
 
     @Test
@@ -318,6 +348,7 @@ class ArticleServiceTest {
         // when & then
         assertDoesNotThrow(() -> sut.delete(testUser1, article));
         verify(articleRepository).delete(article);
+        verify(timelineRepository).withdraw(article);
     }
 
     @Test
@@ -329,6 +360,7 @@ class ArticleServiceTest {
         // when & then
         assertThrows(IllegalArgumentException.class, () -> sut.delete(testUser2, article));
         verify(articleRepository, never()).delete(article);
+        verify(timelineRepository, never()).withdraw(article);
     }
 
     @Test
@@ -373,6 +405,7 @@ class ArticleServiceTest {
         assertDoesNotThrow(() -> sut.favorite(testUser1, article));
         verify(articleFavoriteRepository).existsBy(testUser1, article);
         verify(articleFavoriteRepository).save(new ArticleFavorite(testUser1, article));
+        verify(eventPublisher).publishEvent(new ArticleEvent(ArticleEvent.Kind.FAVORITED, article, testUser1));
     }
 
     @Test
@@ -386,6 +419,7 @@ class ArticleServiceTest {
         assertThrows(IllegalArgumentException.class, () -> sut.favorite(testUser1, article));
         verify(articleFavoriteRepository).existsBy(testUser1, article);
         verify(articleFavoriteRepository, never()).save(new ArticleFavorite(testUser1, article));
+        verify(eventPublisher, never()).publishEvent(any(ArticleEvent.class));
     }
 
     @Test
@@ -463,6 +497,7 @@ class ArticleServiceTest {
         // then
         assertEquals(newTitle, updatedArticle.getTitle());
         verify(articleRepository).save(article);
+        verify(eventPublisher).publishEvent(new ArticleEvent(ArticleEvent.Kind.EDITED, article, "title", testUser1));
     }
 
     @Test
@@ -1,13 +1,17 @@
 package io.zhc1.realworld.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +23,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import io.zhc1.realworld.model.TestUser;
+import io.zhc1.realworld.model.TimelineRepository;
 import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.model.UserFollow;
 import io.zhc1.realworld.model.UserRelationshipRepository;
@@ -32,6 +37,9 @@ class UserRelationshipServiceTest {
     @Mock
     UserRelationshipRepository userRelationshipRepository;
 
+    @Mock
+    TimelineRepository timelineRepository;
+
     User follower;
     User following;
 
@@ -55,6 +63,33 @@ class UserRelationshipServiceTest {
         assertFalse(sut.isFollowing(follower, following));
     }
 
+    @Test
+    @DisplayName("Get following among candidates should return the followed candidates from one lookup")
+    void whenGetFollowingAmongCandidates_thenShouldReturnFollowedCandidates() {
+        // given
+        User other = new TestUser(UUID.randomUUID(), "other@example.com", "Other", "passother");
+        when(userRelationshipRepository.findFollowingAmong(follower, List.of(following, other)))
+                .thenReturn(Set.of(following));
+
+        // when
+        Set<User> actual = sut.getFollowingAmong(follower, List.of(following, other));
+
+        // then
+        assertEquals(Set.of(following), actual);
+        verify(userRelationshipRepository, never()).existsBy(any(User.class), any(User.class));
+    }
+
+    @Test
+    @DisplayName("Get following among no candidates should not query relationships")
+    void whenGetFollowingAmongNoCandidates_thenShouldNotQueryRelationships() {
+        // when
+        Set<User> actual = sut.getFollowingAmong(follower, List.of());
+
+        // then
+        assertTrue(actual.isEmpty());
+        verify(userRelationshipRepository, never()).findFollowingAmong(any(User.class), any());
+    }
+
     @Test
     @DisplayName("Follow user should save relationship when not already following")
     void whenFollowUserNotAlreadyFollowing_thenShouldSaveRelationship() {
@@ -68,6 +103,7 @@ class UserRelationshipServiceTest {
 
         // then
         verify(userRelationshipRepository, times(1)).save(any(UserFollow.class));
+        verify(timelineRepository, times(1)).follow(follower, following);
     }
 
     @Test
@@ -82,6 +118,7 @@ class UserRelationshipServiceTest {
 
         // then
         verify(userRelationshipRepository, times(0)).save(any(UserFollow.class));
+        verify(timelineRepository, times(0)).follow(any(User.class), any(User.class));
     }
 
     @Test
@@ -97,6 +134,7 @@ class UserRelationshipServiceTest {
 
         // then
         verify(userRelationshipRepository, times(1)).deleteBy(any(User.class), any(User.class));
+        verify(timelineRepository, times(1)).unfollow(follower, following);
     }
 
     @Test
@@ -111,5 +149,6 @@ class UserRelationshipServiceTest {
 
         // then
         verify(userRelationshipRepository, times(0)).deleteBy(any(User.class), any(User.class));
+        verify(timelineRepository, times(0)).unfollow(any(User.class), any(User.class));
     }
 }
@@ -3,6 +3,8 @@ package io.zhc1.realworld.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.NoSuchElementException;
@@ -17,8 +19,10 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import io.zhc1.realworld.model.PasswordEncoder;
+import io.zhc1.realworld.model.ProfileEvent;
 import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.model.UserRegistry;
 import io.zhc1.realworld.model.UserRepository;
@@ -35,6 +39,9 @@ class UserServiceTest {
     @Mock
     PasswordEncoder passwordEncoder;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @Test
     @DisplayName("Get user by ID should return user when user exists")
     void whenGetUserByIdWithValidId_thenShouldReturnUser() {
@@ -92,11 +99,11 @@ class UserServiceTest {
     void whenSignupWithExistingUser_thenShouldThrowException() {
         // given
         UserRegistry testRegistry = new UserRegistry("email", "username", "password");
-        when(userRepository.existsBy(testRegistry.email(), testRegistry.username()))
-                .thenReturn(true);
+        when(userRepository.insert(any(User.class))).thenReturn(Optional.empty());
 
         // when & then
-        assertThrows(IllegalArgumentException.class, () -> sut.signup(testRegistry));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sut.signup(testRegistry));
+        assertEquals("email or username is already exists.", e.getMessage());
     }
 
     @Test
@@ -104,18 +111,14 @@ class UserServiceTest {
     void whenSignupWithValidUserInfo_thenShouldSucceed() {
         // given
         UserRegistry testRegistry = new UserRegistry("email", "username", "password");
-        when(userRepository.existsBy(testRegistry.email(), testRegistry.username()))
-                .thenReturn(false);
-
-        User testUser = new User(testRegistry);
-        testUser.encryptPassword(passwordEncoder, testRegistry.password());
-        when(userRepository.save(testUser)).thenReturn(testUser);
+        when(userRepository.insert(any(User.class))).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
 
         // when
         User result = sut.signup(testRegistry);
 
         // then
-        assertEquals(testUser, result);
+        assertEquals("username", result.getUsername());
+        verify(userRepository, never()).existsBy(any(), any());
     }
 
     @Test
@@ -190,6 +193,8 @@ class UserServiceTest {
         initialUser.setBio(testBio);
         initialUser.setImageUrl(testImageUrl);
 
+        when(userRepository.findById(testUuid))
+                .thenReturn(Optional.of(new User(testEmail, "previousUsername", testPassword)));
         when(userRepository.updateUserDetails(any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(initialUser);
 
@@ -198,6 +203,7 @@ class UserServiceTest {
 
         // then
         assertEquals(initialUser, result);
+        verify(eventPublisher).publishEvent(new ProfileEvent(initialUser, "previousUsername"));
     }
 
     @Test
@@ -0,0 +1,20 @@
+package io.zhc1.realworld.diagnostics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Fails the annotated test when its body makes more database round trips than declared. Fixtures set up in
+ * {@code @BeforeEach} methods are not counted, and only round trips made on the test's own thread are.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(RoundTripBudgetExtension.class)
+public @interface RoundTripBudget {
+    /** Maximum number of JDBC statements and MongoDB commands together. */
+    int value();
+}
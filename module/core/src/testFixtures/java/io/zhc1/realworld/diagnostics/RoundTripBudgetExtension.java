@@ -0,0 +1,40 @@
+package io.zhc1.realworld.diagnostics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/** Counts the round trips of each test body and compares them with its {@link RoundTripBudget}. */
+public final class RoundTripBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(RoundTripBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), RoundTripCounter.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        RoundTripCounter.Scope scope =
+                context.getStore(NAMESPACE).remove(context.getUniqueId(), RoundTripCounter.Scope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+
+        int budget = budget(context);
+        if (scope.total() > budget) {
+            throw new AssertionError("%s made %d database round trips (%s), over its budget of %d"
+                    .formatted(context.getDisplayName(), scope.total(), scope, budget));
+        }
+    }
+
+    private static int budget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), RoundTripBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), RoundTripBudget.class))
+                .map(RoundTripBudget::value)
+                .orElse(Integer.MAX_VALUE);
+    }
+}
@@ -9,4 +9,9 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-mongodb")
 
     implementation(libs.cache.caffeine)
+    implementation(libs.micrometer.core)
+
+    testImplementation(testFixtures(project(":module:core")))
+    testImplementation(libs.testcontainers.junit.jupiter)
+    testImplementation(libs.testcontainers.mongodb)
 }
@@ -1,25 +1,85 @@
 package io.zhc1.realworld.config;
 
+import java.time.Duration;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
+    private static final Set<String> USER_CACHES = Set.of(CacheName.USERS_BY_ID, CacheName.USERS_BY_USERNAME);
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheName.ALL_TAGS);
-        cacheManager.setCaffeine(
-                Caffeine.newBuilder().expireAfterWrite(1, TimeUnit.MINUTES).maximumSize(500));
+    public CacheManager cacheManager(
+            @Value("${realworld.article-counts.max-staleness:PT1M}") Duration articleCountsMaxStaleness,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheName.ALL_TAGS) {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                org.springframework.cache.Cache adapted = super.adaptCaffeineCache(name, cache);
+                if (!USER_CACHES.contains(name)) {
+                    return adapted;
+                }
+
+                // Boot binds the cache.* meters of CaffeineCache only, which the copying decorator hides from it.
+                meterRegistry.ifAvailable(registry ->
+                        CaffeineCacheMetrics.monitor(registry, cache, name, "cache.manager", "cacheManager"));
+                return new TransactionAwareCacheDecorator(new UserCopyingCache(adapted));
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(1, TimeUnit.MINUTES)
+                .maximumSize(500)
+                .recordStats());
+
+        cacheManager.registerCustomCache(CacheName.USERS_BY_ID, userCache());
+        cacheManager.registerCustomCache(CacheName.USERS_BY_USERNAME, userCache());
+        cacheManager.registerCustomCache(CacheName.ARTICLE_COUNTS, articleCountsCache(articleCountsMaxStaleness));
 
         return cacheManager;
     }
+
+    /**
+     * Users are read on nearly every authenticated request. The adapters evict them on every write, so the expiry only
+     * bounds how long a write made by another instance of the application goes unseen.
+     *
+     * <p>The caches hold copies of the users and hand out copies, as the services change the users they read. Their
+     * evictions wait for the transaction to commit, so a read racing a write cannot cache what the write replaces once
+     * the eviction is done, and a rolled back write evicts nothing.
+     */
+    private static Cache<Object, Object> userCache() {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .maximumSize(10_000)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Totals of article listings, keyed by their filters, and of feeds, keyed by their reader's id. Counting every
+     * match on every list request would double the query load, so they are not evicted on writes and the expiry is how
+     * stale a total may get. Only the reader's own follows and unfollows evict the total of their feed.
+     */
+    private static Cache<Object, Object> articleCountsCache(Duration maxStaleness) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(maxStaleness)
+                .maximumSize(10_000)
+                .recordStats()
+                .build();
+    }
 }
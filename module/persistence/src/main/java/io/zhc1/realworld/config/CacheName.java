@@ -6,4 +6,7 @@ public final class CacheName {
     }
 
     public static final String ALL_TAGS = "all-tags";
+    public static final String ARTICLE_COUNTS = "article-counts";
+    public static final String USERS_BY_ID = "users-by-id";
+    public static final String USERS_BY_USERNAME = "users-by-username";
 }
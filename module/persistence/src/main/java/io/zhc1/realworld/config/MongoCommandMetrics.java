@@ -0,0 +1,273 @@
+package io.zhc1.realworld.config;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the latency of every MongoDB command, the mongodb profile's counterpart of the P6Spy query log.
+ *
+ * <p>Latencies are kept in a fixed-bucket histogram per collection and command name, and recorded in the
+ * {@value #TIMER} Micrometer timer tagged with the collection, command and status, whose service level objectives are
+ * the same buckets, so that they reach the actuator metrics and whatever the registry publishes to.
+ *
+ * <p>Commands slower than {@code realworld.mongodb.commands.slow-threshold} are logged with the application method that
+ * issued them. The synchronous driver notifies listeners on the calling thread when a command completes too, so the
+ * stack is only walked for those slow commands, once they are known to be slow.
+ */
+@Slf4j
+public final class MongoCommandMetrics implements CommandListener {
+    /** Name of the Micrometer timer commands are recorded in. */
+    public static final String TIMER = "realworld.mongodb.commands";
+
+    /** Upper bounds of the histogram buckets. Slower commands fall in one more, unbounded, bucket. */
+    public static final List<Duration> BUCKET_BOUNDS = List.of(
+            Duration.ofMicros(250),
+            Duration.ofMicros(500),
+            Duration.ofMillis(1),
+            Duration.ofMillis(2),
+            Duration.ofMillis(5),
+            Duration.ofMillis(10),
+            Duration.ofMillis(25),
+            Duration.ofMillis(50),
+            Duration.ofMillis(100),
+            Duration.ofMillis(250),
+            Duration.ofMillis(500),
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(5));
+
+    private static final long[] BUCKET_BOUND_NANOS =
+            BUCKET_BOUNDS.stream().mapToLong(Duration::toNanos).toArray();
+    private static final String GET_MORE = "getMore";
+    private static final String GET_MORE_COLLECTION = "collection";
+    private static final String APPLICATION_PACKAGE = "io.zhc1.realworld.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Duration slowThreshold;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Integer, Key> inFlight = new ConcurrentHashMap<>();
+
+    public MongoCommandMetrics(Duration slowThreshold, MeterRegistry meterRegistry) {
+        this.slowThreshold = slowThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Key key = new Key(collection(event.getCommand(), event.getCommandName()), event.getCommandName());
+        inFlight.put(event.getRequestId(), key);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+    }
+
+    /**
+     * Returns the statistics of every collection and command seen so far.
+     *
+     * @return Returns the statistics, ordered by collection and command
+     */
+    public List<CommandStats> snapshot() {
+        return histograms.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing(CommandStats::collection).thenComparing(CommandStats::command))
+                .toList();
+    }
+
+    /**
+     * Returns the statistics of one command on one collection.
+     *
+     * @param collection collection name, empty for commands that do not target a collection
+     * @param command command name, as sent to the server
+     * @return Returns the statistics, if the command was seen
+     */
+    public Optional<CommandStats> stats(String collection, String command) {
+        Key key = new Key(collection, command);
+        return Optional.ofNullable(histograms.get(key)).map(histogram -> histogram.snapshot(key));
+    }
+
+    /** Forgets every recorded command. The Micrometer timers keep counting, as meters do. */
+    public void reset() {
+        histograms.clear();
+    }
+
+    private void record(int requestId, long elapsedNanos, boolean failed) {
+        Key key = inFlight.remove(requestId);
+        if (key == null) {
+            return;
+        }
+
+        histograms.computeIfAbsent(key, ignored -> new Histogram()).record(elapsedNanos, failed);
+        timers.computeIfAbsent(new TimerKey(key, failed), this::timer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (elapsedNanos >= slowThreshold.toNanos()) {
+            log.warn(
+                    "Slow MongoDB command {} on {} took {} ms{}, issued by {}",
+                    key.command(),
+                    key.collection().isEmpty() ? "<none>" : key.collection(),
+                    Duration.ofNanos(elapsedNanos).toMillis(),
+                    failed ? " and failed" : "",
+                    origin());
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder(TIMER)
+                .description("Latency of the MongoDB commands")
+                .tag("collection", key.key().collection().isEmpty() ? "none" : key.key().collection())
+                .tag("command", key.key().command())
+                .tag("status", key.failed() ? "FAILED" : "SUCCESS")
+                .serviceLevelObjectives(BUCKET_BOUNDS.toArray(Duration[]::new))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the collection a command targets. Collection commands carry the collection name as the value of the
+     * command name, database commands such as {@code hello} or {@code aggregate: 1} carry something else. A
+     * {@code getMore} carries the cursor id there and the collection of the cursor in its {@code collection} field.
+     */
+    private static String collection(BsonDocument command, String commandName) {
+        BsonValue target = command.get(GET_MORE.equals(commandName) ? GET_MORE_COLLECTION : commandName);
+        return target != null && target.isString() ? target.asString().getValue() : "";
+    }
+
+    /** Returns the innermost application frame of the calling thread, the adapter method that issued the command. */
+    private static String origin() {
+        return STACK_WALKER.walk(frames -> frames.filter(
+                        frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+                .filter(frame -> !frame.getClassName().startsWith(MongoCommandMetrics.class.getName()))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(MongoCommandMetrics::describe)
+                .orElse("<driver>"));
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return "%s.%s:%d"
+                .formatted(
+                        className.substring(className.lastIndexOf('.') + 1),
+                        frame.getMethodName(),
+                        frame.getLineNumber());
+    }
+
+    private record Key(String collection, String command) {}
+
+    private record TimerKey(Key key, boolean failed) {}
+
+    /**
+     * Latency statistics of one command on one collection.
+     *
+     * @param collection collection name, empty for commands that do not target a collection
+     * @param command command name
+     * @param count number of commands completed, failed ones included
+     * @param failures number of commands that failed
+     * @param total sum of the latencies
+     * @param max highest latency
+     * @param buckets number of commands per bucket of {@link #BUCKET_BOUNDS}, plus one for the slower ones
+     */
+    public record CommandStats(
+            String collection,
+            String command,
+            long count,
+            long failures,
+            Duration total,
+            Duration max,
+            long[] buckets) {
+
+        public Duration mean() {
+            return count == 0 ? Duration.ZERO : total.dividedBy(count);
+        }
+
+        /**
+         * Returns an upper estimate of a latency percentile, the bound of the bucket it falls in.
+         *
+         * @param percentile percentile between 0 and 100
+         * @return Returns the bucket bound, or the highest latency for the unbounded bucket
+         */
+        public Duration percentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100.");
+            }
+
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return i < BUCKET_BOUNDS.size() ? BUCKET_BOUNDS.get(i) : max;
+                }
+            }
+            return max;
+        }
+    }
+
+    private static final class Histogram {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUND_NANOS.length + 1);
+
+        void record(long elapsedNanos, boolean failed) {
+            count.increment();
+            if (failed) {
+                failures.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            buckets.incrementAndGet(bucket(elapsedNanos));
+        }
+
+        CommandStats snapshot(Key key) {
+            long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return new CommandStats(
+                    key.collection(),
+                    key.command(),
+                    count.sum(),
+                    failures.sum(),
+                    Duration.ofNanos(totalNanos.sum()),
+                    Duration.ofNanos(maxNanos.get()),
+                    counts);
+        }
+
+        private static int bucket(long elapsedNanos) {
+            for (int i = 0; i < BUCKET_BOUND_NANOS.length; i++) {
+                if (elapsedNanos <= BUCKET_BOUND_NANOS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUND_NANOS.length;
+        }
+    }
+}
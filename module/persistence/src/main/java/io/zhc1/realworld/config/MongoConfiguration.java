@@ -1,5 +1,8 @@
 package io.zhc1.realworld.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
@@ -8,9 +11,15 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @Profile("mongodb")
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties(MongoPersistenceProperties.class)
 @EnableMongoRepositories(
     basePackages = "io.zhc1.realworld.persistence",
     includeFilters = @Filter(type = FilterType.REGEX, pattern = ".*MongoRepository")
@@ -21,4 +30,22 @@ class MongoConfiguration {
     MongoTransactionManager transactionManager(MongoDatabaseFactory dbFactory) {
         return new MongoTransactionManager(dbFactory);
     }
+
+    @Bean
+    MongoCommandMetrics mongoCommandMetrics(
+            MongoPersistenceProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MongoCommandMetrics(
+                properties.commands().slowThreshold(), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoCommandListenersCustomizer(
+            MongoCommandMetrics mongoCommandMetrics, MongoPersistenceProperties properties) {
+        return settings -> {
+            settings.addCommandListener(new RoundTripCommandListener());
+            if (properties.commands().instrument()) {
+                settings.addCommandListener(mongoCommandMetrics);
+            }
+        };
+    }
 }
@@ -0,0 +1,76 @@
+package io.zhc1.realworld.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Storage options of the MongoDB persistence adapters, bound from {@code realworld.mongodb.*}.
+ *
+ * @param tagStorage how article tags are stored
+ * @param indexes how the collection indexes are managed
+ * @param sequences how generated ids are reserved
+ * @param timelines how the personal feeds are materialized
+ * @param commands how the commands sent to the server are measured
+ */
+@ConfigurationProperties(prefix = "realworld.mongodb")
+public record MongoPersistenceProperties(
+        @DefaultValue("referenced") TagStorage tagStorage,
+        @DefaultValue Indexes indexes,
+        @DefaultValue Sequences sequences,
+        @DefaultValue Timelines timelines,
+        @DefaultValue Commands commands) {
+
+    public enum TagStorage {
+        /** One {@code article_tags} join document per tag, referenced from the article with {@code @DBRef}. */
+        REFERENCED,
+
+        /** Tag names embedded in the article document as a multikey-indexed {@code tagList} array. */
+        EMBEDDED
+    }
+
+    /**
+     * Index management options, bound from {@code realworld.mongodb.indexes.*}.
+     *
+     * @param manage whether the declared indexes are created on startup
+     * @param background whether missing indexes are built in the background
+     * @param dropUnknown whether indexes that are not declared are dropped instead of only being reported
+     */
+    public record Indexes(
+            @DefaultValue("true") boolean manage,
+            @DefaultValue("true") boolean background,
+            @DefaultValue("false") boolean dropUnknown) {}
+
+    /**
+     * Id sequence options, bound from {@code realworld.mongodb.sequences.*}.
+     *
+     * @param blockSize number of ids reserved per round trip to the {@code database_sequences} collection
+     */
+    public record Sequences(@DefaultValue("100") int blockSize) {}
+
+    /**
+     * Feed timeline options, bound from {@code realworld.mongodb.timelines.*}.
+     *
+     * @param capacity number of entries kept in each user's timeline, older entries are trimmed on write
+     * @param celebrityFollowers follower count above which an author's articles are read at feed time instead of being
+     *     written to every follower's timeline
+     * @param backfill number of an author's latest articles added to a timeline when the author is followed
+     */
+    public record Timelines(
+            @DefaultValue("800") int capacity,
+            @DefaultValue("10000") int celebrityFollowers,
+            @DefaultValue("100") int backfill) {}
+
+    /**
+     * Command instrumentation options, bound from {@code realworld.mongodb.commands.*}.
+     *
+     * @param instrument whether the latency of every command is recorded by {@link MongoCommandMetrics}
+     * @param slowThreshold latency from which a command is logged with the method that issued it
+     */
+    public record Commands(@DefaultValue("true") boolean instrument, @DefaultValue("100ms") Duration slowThreshold) {}
+
+    public boolean embedsTags() {
+        return tagStorage == TagStorage.EMBEDDED;
+    }
+}
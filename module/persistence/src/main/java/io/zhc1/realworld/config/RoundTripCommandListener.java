@@ -0,0 +1,17 @@
+package io.zhc1.realworld.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import io.zhc1.realworld.diagnostics.RoundTripCounter;
+
+/**
+ * Counts every MongoDB command in the {@link RoundTripCounter} scopes of the thread that sends it, which the
+ * synchronous driver notifies listeners on.
+ */
+public final class RoundTripCommandListener implements CommandListener {
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        RoundTripCounter.recordCommand();
+    }
+}
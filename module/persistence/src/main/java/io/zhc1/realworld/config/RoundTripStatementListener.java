@@ -0,0 +1,24 @@
+package io.zhc1.realworld.config;
+
+import java.sql.SQLException;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+
+import io.zhc1.realworld.diagnostics.RoundTripCounter;
+
+/**
+ * Counts every executed JDBC statement in the {@link RoundTripCounter} scopes of the current thread. The P6Spy
+ * datasource decorator picks up listener beans on its own.
+ */
+@Profile("h2")
+@Component
+class RoundTripStatementListener extends JdbcEventListener {
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        RoundTripCounter.recordStatement();
+    }
+}
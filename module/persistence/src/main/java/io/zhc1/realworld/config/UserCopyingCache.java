@@ -0,0 +1,85 @@
+package io.zhc1.realworld.config;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import io.zhc1.realworld.model.User;
+
+/**
+ * Keeps its own copies of the users it caches and hands every reader a copy of its own.
+ *
+ * <p>Users are mutable, and the services change the users they read before saving them. Sharing the cached instance
+ * would let one request see, or keep, what another one changed but never committed.
+ */
+final class UserCopyingCache implements Cache {
+    private final Cache delegate;
+
+    UserCopyingCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        return wrapper == null ? null : new SimpleValueWrapper(copy(wrapper.get()));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return type.cast(copy(delegate.get(key, type)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) copy(delegate.get(key, () -> copy(valueLoader.call())));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, copy(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, copy(value));
+        return existing == null ? null : new SimpleValueWrapper(copy(existing.get()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T value) {
+        return value instanceof User user ? (T) user.copy() : value;
+    }
+}
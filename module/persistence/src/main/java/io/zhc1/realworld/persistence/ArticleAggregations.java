@@ -0,0 +1,207 @@
+package io.zhc1.realworld.persistence;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+
+import io.zhc1.realworld.model.ArticleCursor;
+import io.zhc1.realworld.model.ArticleFacets;
+
+/**
+ * Aggregation pipelines and raw filters backing {@link ArticleMongoRepositoryAdapter}.
+ *
+ * <p>Filtered listings run as a single pipeline against the {@code articles} collection, which resolves the facets on
+ * the server. Filters on fields of the articles themselves, the embedded tag names, are matched there. The facets
+ * held by other collections, the author, the favoriting user and the referenced tags, are joined in with
+ * {@code $unionWith}, each starting from its own indexed {@code $match}, so that no ids travel to the client and back.
+ */
+final class ArticleAggregations {
+    static final String ARTICLES = "articles";
+    static final String TOTAL = "total";
+    static final String COUNT = "count";
+
+    private static final Document NEWEST_FIRST = new Document("createdAt", -1).append("_id", -1);
+    /* Note: Matches no article from the empty bounds of the _id index, when every facet is joined in. */
+    private static final Document NONE = new Document("_id", new Document("$in", List.of()));
+
+    private ArticleAggregations() {}
+
+    /**
+     * Builds the pipeline returning one page of a filtered listing, sorted by creation date and id, newest first.
+     *
+     * @param facets article facets, at least one of which filters
+     * @param embedsTags whether the articles embed their tag names
+     * @return Returns the aggregation to run against the {@code articles} collection
+     */
+    static Aggregation findPage(ArticleFacets facets, boolean embedsTags) {
+        List<AggregationOperation> stages = match(facets, embedsTags);
+        page(facets).forEach(stage -> stages.add(context -> stage));
+        return Aggregation.newAggregation(stages);
+    }
+
+    /**
+     * Builds the pipeline returning the first page of a filtered listing together with its number of matches.
+     *
+     * <p>The matches are read once and returned as a single document holding the requested page under
+     * {@value #ARTICLES} and the number of matches under {@value #TOTAL}. The page is sorted by creation date and id,
+     * newest first, inside its own branch, where the sort and limit coalesce into a top-k sort bounded by the page.
+     *
+     * @param facets article facets, at least one of which filters
+     * @param embedsTags whether the articles embed their tag names
+     * @return Returns the aggregation to run against the {@code articles} collection
+     */
+    static Aggregation findPageWithTotal(ArticleFacets facets, boolean embedsTags) {
+        List<AggregationOperation> stages = match(facets, embedsTags);
+        stages.add(stage(
+                "$facet",
+                new Document(ARTICLES, page(facets)).append(TOTAL, List.of(new Document("$count", COUNT)))));
+        return Aggregation.newAggregation(stages);
+    }
+
+    /**
+     * Builds the pipeline counting the matches of a filtered listing. It returns a single document holding the number
+     * under {@value #COUNT}, or no document when nothing matches.
+     *
+     * @param facets article facets, at least one of which filters
+     * @param embedsTags whether the articles embed their tag names
+     * @return Returns the aggregation to run against the {@code articles} collection
+     */
+    static Aggregation count(ArticleFacets facets, boolean embedsTags) {
+        List<AggregationOperation> stages = match(facets, embedsTags);
+        stages.add(stage("$count", COUNT));
+        return Aggregation.newAggregation(stages);
+    }
+
+    /**
+     * Builds the stages producing each article matching any of the facets once, past the cursor if there is one.
+     *
+     * <p>Every join reads its facet from the index of its own collection and then the matching articles by id, or by
+     * the author index. Articles matching several facets are only grouped by id when more than one facet filters.
+     */
+    private static List<AggregationOperation> match(ArticleFacets facets, boolean embedsTags) {
+        Document after = facets.hasCursor() ? after(facets.cursor()) : null;
+        List<AggregationOperation> stages = new ArrayList<>();
+        Document own = hasText(facets.tag()) && embedsTags ? new Document("tagList", facets.tag()) : NONE;
+        stages.add(stage("$match", after == null ? own : new Document("$and", List.of(own, after))));
+        int filters = own == NONE ? 0 : 1;
+
+        if (hasText(facets.tag()) && !embedsTags) {
+            List<Document> pipeline = new ArrayList<>();
+            pipeline.add(new Document("$match", new Document("tag.$id", facets.tag())));
+            pipeline.addAll(joinArticles("article.$id", "_id", after));
+            stages.add(unionWith("article_tags", pipeline));
+            filters++;
+        }
+
+        if (hasText(facets.author())) {
+            List<Document> pipeline = new ArrayList<>();
+            pipeline.add(new Document("$match", new Document("username", facets.author())));
+            pipeline.addAll(joinArticles("_id", "author.$id", after));
+            stages.add(unionWith("users", pipeline));
+            filters++;
+        }
+
+        if (hasText(facets.favorited())) {
+            List<Document> pipeline = new ArrayList<>();
+            pipeline.add(new Document("$match", new Document("username", facets.favorited())));
+            pipeline.add(new Document(
+                    "$lookup",
+                    new Document("from", "article_favorites")
+                            .append("localField", "_id")
+                            .append("foreignField", "user.$id")
+                            .append("as", "favorite")));
+            pipeline.add(new Document("$unwind", "$favorite"));
+            pipeline.addAll(joinArticles("favorite.article.$id", "_id", after));
+            stages.add(unionWith("users", pipeline));
+            filters++;
+        }
+
+        if (filters > 1) {
+            stages.add(stage(
+                    "$group", new Document("_id", "$_id").append("article", new Document("$first", "$$ROOT"))));
+            stages.add(stage("$replaceWith", "$article"));
+        }
+        return stages;
+    }
+
+    /** Builds the stages replacing each input document with the articles whose foreign field equals its local one. */
+    private static List<Document> joinArticles(String localField, String foreignField, Document after) {
+        Document lookup = new Document("from", "articles")
+                .append("localField", localField)
+                .append("foreignField", foreignField)
+                .append("as", "article");
+        if (after != null) {
+            lookup.append("pipeline", List.of(new Document("$match", after)));
+        }
+
+        return List.of(
+                new Document("$lookup", lookup),
+                new Document("$unwind", "$article"),
+                new Document("$replaceWith", "$article"));
+    }
+
+    private static AggregationOperation unionWith(String collection, List<Document> pipeline) {
+        return stage("$unionWith", new Document("coll", collection).append("pipeline", pipeline));
+    }
+
+    private static List<Document> page(ArticleFacets facets) {
+        List<Document> page = new ArrayList<>();
+        page.add(new Document("$sort", NEWEST_FIRST));
+        if (!facets.hasCursor()) {
+            page.add(new Document("$skip", (long) facets.page() * facets.size()));
+        }
+        page.add(new Document("$limit", facets.size()));
+        return page;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Builds a pipeline over the {@code article_favorites} collection that counts favorites per article.
+     *
+     * <p>Each output document holds an article id under {@code _id} and its number of favorites under {@code count}.
+     * Articles without favorites produce no document.
+     *
+     * @param articleIds ids of the articles to count favorites for
+     * @return Returns the aggregation to run against the {@code article_favorites} collection
+     */
+    static Aggregation countFavorites(Collection<Integer> articleIds) {
+        return Aggregation.newAggregation(
+                stage("$match", new Document("article.$id", new Document("$in", articleIds))),
+                stage("$group", new Document("_id", "$article.$id").append("count", new Document("$sum", 1))));
+    }
+
+    /**
+     * Builds the filter matching the articles that come after the cursor in (createdAt, _id) descending order.
+     *
+     * @param cursor article cursor
+     * @return Returns a range filter served by the {@code createdAt, _id} index
+     */
+    static Document after(ArticleCursor cursor) {
+        Date createdAt = toDate(cursor.createdAt());
+        return new Document(
+                "$or",
+                List.of(
+                        new Document("createdAt", new Document("$lt", createdAt)),
+                        new Document("createdAt", createdAt).append("_id", new Document("$lt", cursor.id()))));
+    }
+
+    /** Converts the date the way the mapping layer stores {@link LocalDateTime}, which raw stages bypass. */
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static AggregationOperation stage(String operator, Object body) {
+        Document stage = new Document(operator, body);
+        return context -> stage;
+    }
+}
@@ -1,14 +1,51 @@
 package io.zhc1.realworld.persistence;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
 
 interface ArticleCommentJpaRepository extends JpaRepository<ArticleComment, Integer> {
     List<ArticleComment> findByArticleOrderByCreatedAtDesc(Article article);
 
+    /** Authors are fetched along, rather than one query per comment. Ties of the creation date are broken by id. */
+    @Query(
+            """
+            select c from ArticleComment c join fetch c.author
+            where c.article = :article
+            order by c.createdAt desc, c.id desc
+            """)
+    List<ArticleComment> findPageByArticle(@Param("article") Article article, Pageable page);
+
+    /** Reads the page following the given comment, in the order of {@link #findPageByArticle}. */
+    @Query(
+            """
+            select c from ArticleComment c join fetch c.author
+            where c.article = :article
+                and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id))
+            order by c.createdAt desc, c.id desc
+            """)
+    List<ArticleComment> findPageByArticleAfter(
+            @Param("article") Article article,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") int id,
+            Pageable page);
+
+    @Query(
+            """
+            select new io.zhc1.realworld.model.ArticleCommentsVersion(
+                    count(c), max(c.id), coalesce(sum(u.profileVersion), 0L))
+            from ArticleComment c join c.author u
+            where c.article = :article
+            """)
+    ArticleCommentsVersion findVersionByArticle(@Param("article") Article article);
+
     void deleteByArticle(Article article);
 }
@@ -2,8 +2,12 @@ package io.zhc1.realworld.persistence;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.context.annotation.Profile; // Added import
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,11 +16,15 @@ import lombok.RequiredArgsConstructor;
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleComment;
 import io.zhc1.realworld.model.ArticleCommentRepository;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
 
 @Profile("h2") // Added annotation
 @Repository
 @RequiredArgsConstructor
 class ArticleCommentJpaRepositoryAdapter implements ArticleCommentRepository { // Changed class name
+    private static final int PAGE_SIZE = 500;
+    private static final Pageable PAGE = PageRequest.of(0, PAGE_SIZE);
+
     private final ArticleCommentJpaRepository articleCommentJpaRepository;
 
     @Override
@@ -34,6 +42,32 @@ class ArticleCommentJpaRepositoryAdapter implements ArticleCommentRepository { /
         return articleCommentJpaRepository.findByArticleOrderByCreatedAtDesc(article);
     }
 
+    /**
+     * Reads the comments in pages of {@value #PAGE_SIZE}, each page after the last comment of the one before, and each
+     * in a transaction of its own. The reader writes them to the client as they come, which takes as long as the client
+     * does, so no connection is held while it reads.
+     */
+    @Override
+    public void streamByArticle(Article article, Consumer<Stream<ArticleComment>> reader) {
+        List<ArticleComment> first = articleCommentJpaRepository.findPageByArticle(article, PAGE);
+        reader.accept(Stream.iterate(first, page -> !page.isEmpty(), page -> nextPage(article, page))
+                .flatMap(List::stream));
+    }
+
+    private List<ArticleComment> nextPage(Article article, List<ArticleComment> page) {
+        if (page.size() < PAGE_SIZE) {
+            return List.of();
+        }
+
+        ArticleComment last = page.getLast();
+        return articleCommentJpaRepository.findPageByArticleAfter(article, last.getCreatedAt(), last.getId(), PAGE);
+    }
+
+    @Override
+    public ArticleCommentsVersion findVersionByArticle(Article article) {
+        return articleCommentJpaRepository.findVersionByArticle(article);
+    }
+
     @Override
     @Transactional
     public void delete(ArticleComment articleComment) {
@@ -0,0 +1,53 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.ArticleCommentRepository;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
+
+@Profile("memory")
+@Component("articleCommentMemoryRepositoryAdapter")
+@RequiredArgsConstructor
+class ArticleCommentMemoryRepositoryAdapter implements ArticleCommentRepository {
+    private final MemoryStore memoryStore;
+
+    @Override
+    public ArticleComment save(ArticleComment articleComment) {
+        return memoryStore.saveComment(articleComment);
+    }
+
+    @Override
+    public Optional<ArticleComment> findById(int commentId) {
+        return memoryStore.findComment(commentId);
+    }
+
+    @Override
+    public List<ArticleComment> findByArticle(Article article) {
+        return memoryStore.findComments(article);
+    }
+
+    @Override
+    public void streamByArticle(Article article, Consumer<Stream<ArticleComment>> reader) {
+        reader.accept(memoryStore.findComments(article).stream());
+    }
+
+    @Override
+    public ArticleCommentsVersion findVersionByArticle(Article article) {
+        return memoryStore.findCommentsVersion(article);
+    }
+
+    @Override
+    public void delete(ArticleComment articleComment) {
+        memoryStore.deleteComment(articleComment);
+    }
+}
@@ -1,11 +1,15 @@
 package io.zhc1.realworld.persistence;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
 
 interface ArticleCommentMongoRepository extends MongoRepository<ArticleComment, Integer> {
     /**
@@ -16,6 +20,32 @@ interface ArticleCommentMongoRepository extends MongoRepository<ArticleComment,
      */
     List<ArticleComment> findByArticleOrderByCreatedAtDesc(Article article);
 
+    /**
+     * Streams all comments for a given article from a cursor, ordered by creation date in descending order.
+     *
+     * @param article The article for which to stream comments.
+     * @return A stream of {@link ArticleComment}s, which must be closed to release the cursor.
+     */
+    Stream<ArticleComment> streamByArticleOrderByCreatedAtDesc(Article article);
+
+    /**
+     * Reads the number of comments of a given article, the latest comment id and the sum of the profile versions of
+     * their authors, in one aggregation. The comments are found through the {@code article, createdAt} index, and the
+     * distinct authors by {@code _id}.
+     *
+     * @param article The article whose comments to version.
+     * @return The version, or empty if the article has no comments.
+     */
+    @Aggregation({
+        "{ '$match': { 'article.$id': ?#{[0].id} } }",
+        "{ '$group': { '_id': null, 'count': { '$sum': 1 }, 'latestId': { '$max': '$_id' },"
+                + " 'authors': { '$addToSet': '$author.$id' } } }",
+        "{ '$lookup': { 'from': 'users', 'localField': 'authors', 'foreignField': '_id', 'as': 'authors' } }",
+        "{ '$project': { '_id': 0, 'count': 1, 'latestId': 1,"
+                + " 'authorsProfileVersion': { '$sum': '$authors.profileVersion' } } }"
+    })
+    Optional<ArticleCommentsVersion> findVersionByArticle(Article article);
+
     /**
      * Deletes all comments associated with a given article.
      *
@@ -2,6 +2,8 @@ package io.zhc1.realworld.persistence;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
@@ -12,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleComment;
 import io.zhc1.realworld.model.ArticleCommentRepository;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
 
 @Profile("mongodb")
 @Component("articleCommentMongoRepositoryAdapter") // Explicit bean name to avoid conflicts
@@ -36,6 +39,19 @@ class ArticleCommentMongoRepositoryAdapter implements ArticleCommentRepository {
         return articleCommentMongoRepository.findByArticleOrderByCreatedAtDesc(article);
     }
 
+    @Override
+    public void streamByArticle(Article article, Consumer<Stream<ArticleComment>> reader) {
+        try (Stream<ArticleComment> comments =
+                articleCommentMongoRepository.streamByArticleOrderByCreatedAtDesc(article)) {
+            reader.accept(comments);
+        }
+    }
+
+    @Override
+    public ArticleCommentsVersion findVersionByArticle(Article article) {
+        return articleCommentMongoRepository.findVersionByArticle(article).orElse(ArticleCommentsVersion.NONE);
+    }
+
     @Override
     @Transactional // Retain transactional behavior if applicable for MongoDB setup
     public void delete(ArticleComment articleComment) {
@@ -1,15 +1,24 @@
 package io.zhc1.realworld.persistence;
 
+import java.util.Collection;
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleFavorite;
 import io.zhc1.realworld.model.User;
 
 interface ArticleFavoriteJpaRepository extends JpaRepository<ArticleFavorite, Integer> {
-    void deleteByUserAndArticle(User user, Article article);
+    long deleteByUserAndArticle(User user, Article article);
 
     boolean existsByUserAndArticle(User user, Article article);
 
     int countByArticle(Article article);
+
+    @Query("select f.article.id from ArticleFavorite f where f.user = :user and f.article in :articles")
+    Set<Integer> findArticleIdsByUserAndArticleIn(
+            @Param("user") User user, @Param("articles") Collection<Article> articles);
 }
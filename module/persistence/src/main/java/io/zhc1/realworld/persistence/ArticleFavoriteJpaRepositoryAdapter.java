@@ -15,17 +15,27 @@ import io.zhc1.realworld.model.User;
 @Repository
 @RequiredArgsConstructor
 class ArticleFavoriteJpaRepositoryAdapter implements ArticleFavoriteRepository { // Changed class name
+    private final ArticleJpaRepository articleJpaRepository;
     private final ArticleFavoriteJpaRepository articleFavoriteJpaRepository;
 
     @Override
+    @Transactional
     public void save(ArticleFavorite articleFavorite) {
         articleFavoriteJpaRepository.save(articleFavorite);
+        incrementFavoritesCount(articleFavorite.getArticle(), 1);
     }
 
     @Override
     @Transactional
     public void deleteBy(User user, Article article) {
-        articleFavoriteJpaRepository.deleteByUserAndArticle(user, article);
+        if (articleFavoriteJpaRepository.deleteByUserAndArticle(user, article) > 0) {
+            incrementFavoritesCount(article, -1);
+        }
+    }
+
+    private void incrementFavoritesCount(Article article, int delta) {
+        articleJpaRepository.incrementFavoritesCount(article.getId(), delta);
+        article.setFavoritesCount(Math.max(article.getFavoritesCount() + delta, 0));
     }
 
     @Override
@@ -0,0 +1,33 @@
+package io.zhc1.realworld.persistence;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleFavorite;
+import io.zhc1.realworld.model.ArticleFavoriteRepository;
+import io.zhc1.realworld.model.User;
+
+@Profile("memory")
+@Component("articleFavoriteMemoryRepositoryAdapter")
+@RequiredArgsConstructor
+class ArticleFavoriteMemoryRepositoryAdapter implements ArticleFavoriteRepository {
+    private final MemoryStore memoryStore;
+
+    @Override
+    public void save(ArticleFavorite articleFavorite) {
+        memoryStore.saveFavorite(articleFavorite);
+    }
+
+    @Override
+    public void deleteBy(User user, Article article) {
+        memoryStore.deleteFavorite(user, article);
+    }
+
+    @Override
+    public boolean existsBy(User user, Article article) {
+        return memoryStore.isFavorited(user, article);
+    }
+}
@@ -14,8 +14,9 @@ interface ArticleFavoriteMongoRepository extends MongoRepository<ArticleFavorite
      *
      * @param user    The user who favorited the article.
      * @param article The article that was favorited.
+     * @return The number of deleted favorites.
      */
-    void deleteByUserAndArticle(User user, Article article);
+    long deleteByUserAndArticle(User user, Article article);
 
     /**
      * Checks if an article favorite exists for a given user and article.
@@ -1,6 +1,13 @@
 package io.zhc1.realworld.persistence;
 
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,20 +24,40 @@ import io.zhc1.realworld.model.User;
 class ArticleFavoriteMongoRepositoryAdapter implements ArticleFavoriteRepository {
 
     private final ArticleFavoriteMongoRepository articleFavoriteMongoRepository;
+    private final MongoTemplate mongoTemplate;
 
     @Override
     public void save(ArticleFavorite articleFavorite) {
         articleFavoriteMongoRepository.save(articleFavorite);
+        incrementFavoritesCount(articleFavorite.getArticle(), 1);
     }
 
     @Override
     @Transactional // Retain transactional behavior if applicable for MongoDB setup
     public void deleteBy(User user, Article article) {
-        articleFavoriteMongoRepository.deleteByUserAndArticle(user, article);
+        if (articleFavoriteMongoRepository.deleteByUserAndArticle(user, article) > 0) {
+            incrementFavoritesCount(article, -1);
+        }
     }
 
     @Override
     public boolean existsBy(User user, Article article) {
         return articleFavoriteMongoRepository.existsByUserAndArticle(user, article);
     }
+
+    /**
+     * Applies an atomic {@code $inc} to the article's denormalized favorites count and refreshes the in-memory copy
+     * with the value the server returned, so the caller's response reflects concurrent changes too.
+     */
+    private void incrementFavoritesCount(Article article, int delta) {
+        Query query = query(where("id").is(article.getId()));
+        query.fields().include("favoritesCount");
+
+        Update update = new Update().inc("favoritesCount", delta).inc("favoritesVersion", 1);
+
+        Article counted = mongoTemplate.findAndModify(query, update, options().returnNew(true), Article.class);
+        if (counted != null) {
+            article.setFavoritesCount(Math.max(counted.getFavoritesCount(), 0));
+        }
+    }
 }
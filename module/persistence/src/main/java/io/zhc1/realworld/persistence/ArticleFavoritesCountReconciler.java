@@ -0,0 +1,114 @@
+package io.zhc1.realworld.persistence;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Repairs the denormalized {@code favoritesCount} of articles.
+ *
+ * <p>The counter is maintained with {@code $inc} next to the favorite insert or delete, outside of a transaction, so a
+ * crash between the two writes leaves it off by one. This job walks the articles in id order, recounts their favorites
+ * in batches and rewrites only the values that drifted.
+ */
+@Slf4j
+@Profile("mongodb")
+@Component
+@RequiredArgsConstructor
+class ArticleFavoritesCountReconciler {
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Scheduled(
+            initialDelayString = "${realworld.mongodb.favorites-count.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${realworld.mongodb.favorites-count.reconcile-interval:PT1H}")
+    void reconcile() {
+        try {
+            int repaired = reconcileAll();
+            if (repaired > 0) {
+                log.info("Reconciled favoritesCount of {} articles", repaired);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile article favorites counts", e);
+        }
+    }
+
+    /**
+     * Recounts the favorites of every article.
+     *
+     * @return Returns the number of articles whose counter was rewritten
+     */
+    int reconcileAll() {
+        int repaired = 0;
+        Integer lastId = null;
+        while (true) {
+            List<Document> articles = nextBatch(lastId);
+            if (articles.isEmpty()) {
+                return repaired;
+            }
+
+            repaired += reconcile(articles);
+            lastId = articles.getLast().get("_id", Number.class).intValue();
+        }
+    }
+
+    private List<Document> nextBatch(Integer lastId) {
+        Query batch = new Query(lastId == null ? new Criteria() : where("_id").gt(lastId))
+                .with(Sort.by("_id"))
+                .limit(BATCH_SIZE);
+        batch.fields().include("favoritesCount");
+
+        return mongoTemplate.find(batch, Document.class, "articles");
+    }
+
+    private int reconcile(List<Document> articles) {
+        List<Integer> articleIds = articles.stream()
+                .map(article -> article.get("_id", Number.class).intValue())
+                .toList();
+
+        Map<Integer, Integer> actualCounts = new HashMap<>();
+        mongoTemplate
+                .aggregate(ArticleAggregations.countFavorites(articleIds), "article_favorites", Document.class)
+                .forEach(count -> actualCounts.put(
+                        count.get("_id", Number.class).intValue(),
+                        count.get("count", Number.class).intValue()));
+
+        BulkOperations repairs = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "articles");
+        int drifted = 0;
+        for (Document article : articles) {
+            int id = article.get("_id", Number.class).intValue();
+            Number stored = article.get("favoritesCount", Number.class);
+            int actual = actualCounts.getOrDefault(id, 0);
+            if (stored == null || stored.intValue() != actual) {
+                // Guarded by the value we read, so a concurrent $inc wins and is picked up by the next run instead.
+                repairs.updateOne(
+                        query(where("_id").is(id).and("favoritesCount").is(stored)),
+                        Update.update("favoritesCount", actual).inc("favoritesVersion", 1));
+                drifted++;
+            }
+        }
+
+        if (drifted > 0) {
+            repairs.execute();
+        }
+        return drifted;
+    }
+}
@@ -1,24 +1,52 @@
 package io.zhc1.realworld.persistence;
 
-import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import io.zhc1.realworld.model.Article;
-import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.ArticleFacets;
 
 interface ArticleJpaRepository extends JpaRepository<Article, Integer>, JpaSpecificationExecutor<Article> {
+    Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     Optional<Article> findBySlug(String slug);
 
     @SuppressWarnings("NullableProblems")
     Page<Article> findAll(Specification<Article> spec, Pageable pageable);
 
-    Page<Article> findByAuthorInOrderByCreatedAtDesc(Collection<User> authors, Pageable pageable);
-
     boolean existsByTitle(String title);
+
+    @Modifying
+    @Query("update Article a set a.favoritesCount = a.favoritesCount + :delta,"
+            + " a.favoritesVersion = a.favoritesVersion + 1 where a.id = :id")
+    void incrementFavoritesCount(@Param("id") Integer id, @Param("delta") int delta);
+
+    /**
+     * Runs the query newest first, either from the cursor with a range predicate or from the page offset. Cursor pages
+     * are fetched with a limit only, without the count query of {@code Page} results.
+     */
+    default List<Article> findPage(Specification<Article> spec, ArticleFacets facets) {
+        if (facets.size() == 0) {
+            return List.of();
+        }
+
+        if (facets.hasCursor()) {
+            return findBy(
+                    spec.and(ArticleSpecifications.isAfter(facets.cursor())),
+                    query -> query.sortBy(NEWEST_FIRST).limit(facets.size()).all());
+        }
+
+        return findAll(spec, PageRequest.of(facets.page(), facets.size(), NEWEST_FIRST)).getContent();
+    }
 }
@@ -3,15 +3,18 @@ package io.zhc1.realworld.persistence;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Profile; // Added import
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 
+import io.zhc1.realworld.config.CacheName;
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleDetails;
 import io.zhc1.realworld.model.ArticleFacets;
@@ -36,6 +39,7 @@ class ArticleJpaRepositoryAdapter implements ArticleRepository { // Changed clas
 
     @Override
     @Transactional
+    @CacheEvict(value = CacheName.ALL_TAGS, allEntries = true)
     public Article save(Article article, Collection<Tag> tags) {
         var savedArticle = save(article);
         for (var tag : tagJpaRepository.saveAll(tags)) {
@@ -46,12 +50,19 @@ class ArticleJpaRepositoryAdapter implements ArticleRepository { // Changed clas
 
     @Override
     public List<Article> findAll(ArticleFacets facets) {
-        var pageable = PageRequest.of(facets.page(), facets.size());
-        var spec = Specification.where(ArticleSpecifications.hasAuthorName(facets.author()))
+        return articleJpaRepository.findPage(matching(facets), facets);
+    }
+
+    @Override
+    @Cacheable(value = CacheName.ARTICLE_COUNTS, key = "#facets.filters()")
+    public long count(ArticleFacets facets) {
+        return articleJpaRepository.count(matching(facets));
+    }
+
+    private static Specification<Article> matching(ArticleFacets facets) {
+        return Specification.where(ArticleSpecifications.hasAuthorName(facets.author()))
                 .or(ArticleSpecifications.hasTagName(facets.tag()))
                 .or(ArticleSpecifications.hasFavoritedUsername(facets.favorited()));
-
-        return articleJpaRepository.findAll(spec, pageable).getContent();
     }
 
     @Override
@@ -61,26 +72,45 @@ class ArticleJpaRepositoryAdapter implements ArticleRepository { // Changed clas
 
     @Override
     public List<Article> findByAuthors(Collection<User> authors, ArticleFacets facets) {
-        return articleJpaRepository
-                .findByAuthorInOrderByCreatedAtDesc(authors, PageRequest.of(facets.page(), facets.size()))
-                .getContent();
+        if (authors.isEmpty()) {
+            return List.of();
+        }
+
+        return articleJpaRepository.findPage(ArticleSpecifications.hasAuthorIn(authors), facets);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ArticleDetails findArticleDetails(Article article) {
-        int totalFavorites = articleFavoriteJpaRepository.countByArticle(article);
-
-        return ArticleDetails.unauthenticated(article, totalFavorites);
+        return ArticleDetails.unauthenticated(article, article.getFavoritesCount());
     }
 
     @Override
     @Transactional(readOnly = true)
     public ArticleDetails findArticleDetails(User requester, Article article) {
-        int totalFavorites = articleFavoriteJpaRepository.countByArticle(article);
         boolean favorited = articleFavoriteJpaRepository.existsByUserAndArticle(requester, article);
 
-        return new ArticleDetails(article, totalFavorites, favorited);
+        return new ArticleDetails(article, article.getFavoritesCount(), favorited);
+    }
+
+    @Override
+    public List<ArticleDetails> findArticleDetails(List<Article> articles) {
+        return articles.stream()
+                .map(article -> ArticleDetails.unauthenticated(article, article.getFavoritesCount()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticleDetails> findArticleDetails(User requester, List<Article> articles) {
+        if (articles.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Integer> favoritedIds = articleFavoriteJpaRepository.findArticleIdsByUserAndArticleIn(requester, articles);
+        return articles.stream()
+                .map(article -> new ArticleDetails(
+                        article, article.getFavoritesCount(), favoritedIds.contains(article.getId())))
+                .toList();
     }
 
     @Override
@@ -0,0 +1,127 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.config.CacheName;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleDetails;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.ArticleRepository;
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.persistence.MemoryStore.ArticleKey;
+
+@Profile("memory")
+@Component("articleMemoryRepositoryAdapter")
+@RequiredArgsConstructor
+class ArticleMemoryRepositoryAdapter implements ArticleRepository {
+    private final MemoryStore memoryStore;
+
+    @Override
+    public Article save(Article article) {
+        return memoryStore.saveArticle(article);
+    }
+
+    @Override
+    public Article save(Article article, Collection<Tag> tags) {
+        return memoryStore.saveArticle(article, tags);
+    }
+
+    /**
+     * Merges the articles of the tag, of the author and favorited by the user, the facets being alternatives as in the
+     * other adapters. Facets naming an unknown tag or user match nothing, and no facet at all matches every article.
+     */
+    @Override
+    public List<Article> findAll(ArticleFacets facets) {
+        return memoryStore.findArticles(sourcesOf(facets), facets);
+    }
+
+    /** Counts the union of the same indexes, which walks them, so the counts are cached like the other adapters'. */
+    @Override
+    @Cacheable(value = CacheName.ARTICLE_COUNTS, key = "#facets.filters()")
+    public long count(ArticleFacets facets) {
+        return memoryStore.countArticles(sourcesOf(facets));
+    }
+
+    private List<NavigableSet<ArticleKey>> sourcesOf(ArticleFacets facets) {
+        if (!facets.isFiltered()) {
+            return List.of(memoryStore.newestArticles());
+        }
+
+        List<NavigableSet<ArticleKey>> sources = new ArrayList<>();
+        if (hasText(facets.tag())) {
+            sources.add(memoryStore.articlesByTag(facets.tag()));
+        }
+        if (hasText(facets.author())) {
+            memoryStore
+                    .findUserByUsername(facets.author())
+                    .map(author -> memoryStore.articlesByAuthor(author.getId()))
+                    .ifPresent(sources::add);
+        }
+        if (hasText(facets.favorited())) {
+            memoryStore
+                    .findUserByUsername(facets.favorited())
+                    .map(user -> memoryStore.articlesFavoritedBy(user.getId()))
+                    .ifPresent(sources::add);
+        }
+        return sources;
+    }
+
+    @Override
+    public Optional<Article> findBySlug(String slug) {
+        return memoryStore.findArticleBySlug(slug);
+    }
+
+    @Override
+    public List<Article> findByAuthors(Collection<User> authors, ArticleFacets facets) {
+        return memoryStore.findArticles(
+                authors.stream()
+                        .map(author -> memoryStore.articlesByAuthor(author.getId()))
+                        .toList(),
+                facets);
+    }
+
+    @Override
+    public ArticleDetails findArticleDetails(Article article) {
+        return ArticleDetails.unauthenticated(article, article.getFavoritesCount());
+    }
+
+    @Override
+    public ArticleDetails findArticleDetails(User requester, Article article) {
+        return new ArticleDetails(article, article.getFavoritesCount(), memoryStore.isFavorited(requester, article));
+    }
+
+    @Override
+    public List<ArticleDetails> findArticleDetails(List<Article> articles) {
+        return articles.stream().map(this::findArticleDetails).toList();
+    }
+
+    @Override
+    public List<ArticleDetails> findArticleDetails(User requester, List<Article> articles) {
+        return articles.stream().map(article -> findArticleDetails(requester, article)).toList();
+    }
+
+    @Override
+    public void delete(Article article) {
+        memoryStore.deleteArticle(article);
+    }
+
+    @Override
+    public boolean existsBy(String title) {
+        return memoryStore.existsArticleByTitle(title);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
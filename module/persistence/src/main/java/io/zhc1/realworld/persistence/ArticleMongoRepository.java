@@ -1,6 +1,5 @@
 package io.zhc1.realworld.persistence;
 
-import java.util.Collection;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -8,14 +7,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import io.zhc1.realworld.model.Article;
-import io.zhc1.realworld.model.User;
 
 interface ArticleMongoRepository extends MongoRepository<Article, Integer> {
 
     Optional<Article> findBySlug(String slug);
 
-    Page<Article> findByAuthorInOrderByCreatedAtDesc(Collection<User> authors, Pageable pageable);
-
     boolean existsByTitle(String title);
 
     // Derived query to find articles by a specific tag name.
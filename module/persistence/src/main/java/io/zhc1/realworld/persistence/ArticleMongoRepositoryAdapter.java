@@ -1,33 +1,41 @@
 package io.zhc1.realworld.persistence;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.BasicQuery;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import io.zhc1.realworld.config.CacheName;
+import io.zhc1.realworld.config.MongoPersistenceProperties;
 import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleCursor;
 import io.zhc1.realworld.model.ArticleDetails;
 import io.zhc1.realworld.model.ArticleFacets;
-import io.zhc1.realworld.model.ArticleFavorite;
 import io.zhc1.realworld.model.ArticleRepository;
 import io.zhc1.realworld.model.ArticleTag;
 import io.zhc1.realworld.model.Tag;
 import io.zhc1.realworld.model.User;
-import io.zhc1.realworld.model.UserRepository;
 
 @Profile("mongodb")
 @Component("articleMongoRepositoryAdapter")
@@ -40,19 +48,43 @@ class ArticleMongoRepositoryAdapter implements ArticleRepository {
     private final ArticleTagMongoRepository articleTagMongoRepository;
     private final ArticleCommentMongoRepository articleCommentMongoRepository;
     private final ArticleFavoriteMongoRepository articleFavoriteMongoRepository; // Added
-    private final UserRepository userRepository;
     private final MongoTemplate mongoTemplate;
+    private final MongoPersistenceProperties properties;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
     public Article save(Article article) {
-        return articleMongoRepository.save(article);
+        if (article.getId() == null) {
+            return articleMongoRepository.save(article);
+        }
+
+        // Only the editable fields are written back. A full replace would race with the $inc on favoritesCount.
+        mongoTemplate.updateFirst(byId(article), editableFields(article), Article.class);
+        return article;
     }
 
+    /**
+     * New articles are inserted. Existing ones only get their editable fields and tags written back, like
+     * {@link #save(Article)}, so that their favorites counter is left to its atomic increments.
+     */
     @Override
     @Transactional
+    @CacheEvict(value = CacheName.ALL_TAGS, allEntries = true)
     public Article save(Article article, Collection<Tag> tags) {
-        Article savedArticle = articleMongoRepository.save(article);
+        if (properties.embedsTags()) {
+            saveTags(tags);
+            article.setTagList(tags);
+            if (article.getId() == null) {
+                return articleMongoRepository.insert(article);
+            }
+
+            mongoTemplate.updateFirst(
+                    byId(article), editableFields(article).set("tagList", article.getTagList()), Article.class);
+            return article;
+        }
+
+        Article savedArticle = article.getId() == null ? articleMongoRepository.insert(article) : save(article);
 
         List<ArticleTag> oldArticleTags = articleTagMongoRepository.findByArticle(savedArticle);
         if (!oldArticleTags.isEmpty()) {
@@ -68,75 +100,111 @@ class ArticleMongoRepositoryAdapter implements ArticleRepository {
                 savedArticle.getArticleTags().add(persistedArticleTag);
             }
         }
-        return articleMongoRepository.save(savedArticle);
+
+        mongoTemplate.updateFirst(
+                byId(savedArticle), new Update().set("articleTags", savedArticle.getArticleTags()), Article.class);
+        return savedArticle;
+    }
+
+    private static Query byId(Article article) {
+        return new Query(Criteria.where("id").is(article.getId()));
     }
 
+    private static Update editableFields(Article article) {
+        return new Update()
+                .set("slug", article.getSlug())
+                .set("title", article.getTitle())
+                .set("description", article.getDescription())
+                .set("content", article.getContent())
+                .set("updatedAt", article.getUpdatedAt());
+    }
+
+    /** Upserts the tags in one bulk write, so {@code GET /api/tags} keeps listing them. */
+    private void saveTags(Collection<Tag> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+
+        BulkOperations upserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Tag.class);
+        for (Tag tag : tags) {
+            upserts.upsert(
+                    new Query(Criteria.where("name").is(tag.getName())),
+                    new Update().setOnInsert("createdAt", tag.getCreatedAt()));
+        }
+        upserts.execute();
+    }
+
+    /**
+     * Filtered listings are read with one aggregation, which resolves the facets on the server. Filtered first pages
+     * also count their matches in it, when the count of the listing is not cached yet, so that the count asked for
+     * next is answered without another pass. Unfiltered pages are a plain query whose sort and limit the indexes serve.
+     */
     @Override
     public List<Article> findAll(ArticleFacets facets) {
-        PageRequest pageable = PageRequest.of(facets.page(), facets.size(), Sort.by(Sort.Direction.DESC, "createdAt"));
-        Query query = new Query().with(pageable);
-        List<Criteria> orCriteriaList = new ArrayList<>();
-
-        if (facets.author() != null && !facets.author().isBlank()) {
-            Optional<User> authorOpt = userRepository.findByUsername(facets.author());
-            if (authorOpt.isPresent()) {
-                orCriteriaList.add(Criteria.where("author").is(authorOpt.get()));
-            } else {
-                orCriteriaList.add(Criteria.where("id").is(Integer.MIN_VALUE)); 
-            }
+        if (facets.size() == 0) {
+            return List.of();
         }
 
-        if (facets.tag() != null && !facets.tag().isBlank()) {
-            Optional<Tag> tagOpt = tagMongoRepository.findById(facets.tag());
-            if (tagOpt.isPresent()) {
-                Tag persistedTag = tagOpt.get();
-                List<ArticleTag> articleTagsWithGivenTag = articleTagMongoRepository.findByTag(persistedTag);
-                if (!articleTagsWithGivenTag.isEmpty()) {
-                    List<Integer> articleIds = articleTagsWithGivenTag.stream()
-                            .map(at -> at.getArticle() != null ? at.getArticle().getId() : null)
-                            .filter(Objects::nonNull)
-                            .distinct()
-                            .collect(Collectors.toList());
-                    if (!articleIds.isEmpty()) {
-                        orCriteriaList.add(Criteria.where("id").in(articleIds));
-                    } else {
-                         orCriteriaList.add(Criteria.where("id").is(Integer.MIN_VALUE));
-                    }
-                } else {
-                    orCriteriaList.add(Criteria.where("id").is(Integer.MIN_VALUE));
-                }
-            } else {
-                orCriteriaList.add(Criteria.where("id").is(Integer.MIN_VALUE));
+        if (facets.isFiltered()) {
+            Cache counts = articleCounts();
+            if (!facets.hasCursor() && counts.get(facets.filters()) == null) {
+                return findPageWithTotal(facets, counts);
             }
+
+            return mongoTemplate
+                    .aggregate(ArticleAggregations.findPage(facets, properties.embedsTags()), "articles", Article.class)
+                    .getMappedResults();
         }
 
-        if (facets.favorited() != null && !facets.favorited().isBlank()) {
-            Optional<User> favoritingUserOpt = userRepository.findByUsername(facets.favorited());
-            if (favoritingUserOpt.isPresent()) {
-                List<ArticleFavorite> favorites = articleFavoriteMongoRepository.findByUser(favoritingUserOpt.get());
-                if (!favorites.isEmpty()) {
-                    List<Integer> favoritedArticleIds = favorites.stream()
-                            .map(fav -> fav.getArticle() != null ? fav.getArticle().getId() : null)
-                            .filter(Objects::nonNull)
-                            .distinct()
-                            .collect(Collectors.toList());
-                    if (!favoritedArticleIds.isEmpty()) {
-                        orCriteriaList.add(Criteria.where("id").in(favoritedArticleIds));
-                    } else {
-                        orCriteriaList.add(Criteria.where("id").is(Integer.MIN_VALUE)); 
-                    }
-                } else {
-                    orCriteriaList.add(Criteria.where("id").is(Integer.MIN_VALUE));
-                }
-            } else {
-                orCriteriaList.add(Criteria.where("id").is(Integer.MIN_VALUE));
-            }
+        Query query = facets.hasCursor()
+                ? new BasicQuery(ArticleAggregations.after(facets.cursor()))
+                : new Query().skip((long) facets.page() * facets.size());
+        return mongoTemplate.find(
+                query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(facets.size()), Article.class);
+    }
+
+    private List<Article> findPageWithTotal(ArticleFacets facets, Cache counts) {
+        Document result = mongoTemplate
+                .aggregate(
+                        ArticleAggregations.findPageWithTotal(facets, properties.embedsTags()),
+                        "articles",
+                        Document.class)
+                .getUniqueMappedResult();
+        if (result == null) {
+            return List.of();
         }
 
-        if (!orCriteriaList.isEmpty()) {
-            query.addCriteria(new Criteria().orOperator(orCriteriaList.toArray(new Criteria[0])));
+        List<Document> total = result.getList(ArticleAggregations.TOTAL, Document.class);
+        counts.put(
+                facets.filters(),
+                total.isEmpty() ? 0L : total.getFirst().get(ArticleAggregations.COUNT, Number.class).longValue());
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        return result.getList(ArticleAggregations.ARTICLES, Document.class).stream()
+                .map(document -> converter.read(Article.class, document))
+                .toList();
+    }
+
+    /**
+     * Unfiltered, the count is the collection's estimated document count, which is read from its metadata instead of
+     * scanning it. Filtered, it is counted by the same aggregation the listing is read with.
+     */
+    @Override
+    public long count(ArticleFacets facets) {
+        if (!facets.isFiltered()) {
+            return mongoTemplate.estimatedCount(Article.class);
         }
-        return mongoTemplate.find(query, Article.class);
+
+        return articleCounts().get(facets.filters(), () -> {
+            Document result = mongoTemplate
+                    .aggregate(ArticleAggregations.count(facets, properties.embedsTags()), "articles", Document.class)
+                    .getUniqueMappedResult();
+            return result == null ? 0L : result.get(ArticleAggregations.COUNT, Number.class).longValue();
+        });
+    }
+
+    private Cache articleCounts() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheName.ARTICLE_COUNTS));
     }
 
     @Override
@@ -146,23 +214,65 @@ class ArticleMongoRepositoryAdapter implements ArticleRepository {
 
     @Override
     public List<Article> findByAuthors(Collection<User> authors, ArticleFacets facets) {
-        PageRequest pageable = PageRequest.of(facets.page(), facets.size());
-        return articleMongoRepository.findByAuthorInOrderByCreatedAtDesc(authors, pageable).getContent();
+        if (authors.isEmpty() || facets.size() == 0) {
+            return List.of();
+        }
+
+        Query query = new Query(Criteria.where("author").in(authors))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(facets.size());
+        if (facets.hasCursor()) {
+            ArticleCursor cursor = facets.cursor();
+            query.addCriteria(new Criteria()
+                    .orOperator(
+                            Criteria.where("createdAt").lt(cursor.createdAt()),
+                            Criteria.where("createdAt").is(cursor.createdAt()).and("id").lt(cursor.id())));
+        } else {
+            query.skip((long) facets.page() * facets.size());
+        }
+        return mongoTemplate.find(query, Article.class);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ArticleDetails findArticleDetails(Article article) {
-        int totalFavorites = articleFavoriteMongoRepository.countByArticle(article);
-        return ArticleDetails.unauthenticated(article, totalFavorites);
+        return ArticleDetails.unauthenticated(article, article.getFavoritesCount());
     }
 
     @Override
     @Transactional(readOnly = true)
     public ArticleDetails findArticleDetails(User requester, Article article) {
-        int totalFavorites = articleFavoriteMongoRepository.countByArticle(article);
         boolean favorited = articleFavoriteMongoRepository.existsByUserAndArticle(requester, article);
-        return new ArticleDetails(article, totalFavorites, favorited);
+        return new ArticleDetails(article, article.getFavoritesCount(), favorited);
+    }
+
+    @Override
+    public List<ArticleDetails> findArticleDetails(List<Article> articles) {
+        return articles.stream()
+                .map(article -> ArticleDetails.unauthenticated(article, article.getFavoritesCount()))
+                .toList();
+    }
+
+    @Override
+    public List<ArticleDetails> findArticleDetails(User requester, List<Article> articles) {
+        if (articles.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Integer> favoritedIds = findFavoritedIds(requester, articles);
+        return articles.stream()
+                .map(article -> new ArticleDetails(
+                        article, article.getFavoritesCount(), favoritedIds.contains(article.getId())))
+                .toList();
+    }
+
+    private Set<Integer> findFavoritedIds(User requester, List<Article> articles) {
+        List<Integer> articleIds = articles.stream().map(Article::getId).toList();
+        Query query = new Query(Criteria.where("user.$id").is(requester.getId()).and("article.$id").in(articleIds));
+        query.fields().include("article");
+
+        return mongoTemplate.find(query, Document.class, "article_favorites").stream()
+                .map(favorite -> DbRefs.id(favorite.get("article"), Integer.class))
+                .collect(Collectors.toSet());
     }
 
     @Override
@@ -1,14 +1,22 @@
 package io.zhc1.realworld.persistence;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
 import org.springframework.data.jpa.domain.Specification;
 
 import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleCursor;
 import io.zhc1.realworld.model.ArticleFavorite;
 import io.zhc1.realworld.model.ArticleTag;
 import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserFollow;
 
 final class ArticleSpecifications {
     private ArticleSpecifications() {}
@@ -46,4 +54,37 @@ final class ArticleSpecifications {
             return criteriaBuilder.equal(favoriteUser.get("username"), favoritedUsername);
         };
     }
+
+    static Specification<Article> hasAuthorIn(Collection<User> authors) {
+        return (root, query, criteriaBuilder) -> root.get("author").in(authors);
+    }
+
+    /** Matches the articles of the authors the user follows, with a subquery instead of loading the follows first. */
+    static Specification<Article> isFollowedBy(User follower) {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<User> following = query.subquery(User.class);
+            Root<UserFollow> userFollow = following.from(UserFollow.class);
+            following
+                    .select(userFollow.get("following"))
+                    .where(criteriaBuilder.equal(userFollow.get("follower"), follower));
+
+            return root.get("author").in(following);
+        };
+    }
+
+    /** Matches the articles that come after the cursor in newest-first order, as a range on (createdAt, id). */
+    static Specification<Article> isAfter(ArticleCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(createdAt, cursor.createdAt()),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(createdAt, cursor.createdAt()),
+                            criteriaBuilder.lessThan(root.get("id"), cursor.id())));
+        };
+    }
 }
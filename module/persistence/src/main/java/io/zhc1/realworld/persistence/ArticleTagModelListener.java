@@ -1,5 +1,7 @@
 package io.zhc1.realworld.persistence;
 
+import java.lang.invoke.VarHandle;
+
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
@@ -13,19 +15,16 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ArticleTagModelListener extends AbstractMongoEventListener<ArticleTag> {
 
+    // Sets the private id without changing the public API of the model, resolved once instead of on every insert
+    private static final VarHandle ID = ModelIds.idHandle(ArticleTag.class);
+
     private final SequenceGeneratorService sequenceGenerator;
 
     @Override
     public void onBeforeConvert(BeforeConvertEvent<ArticleTag> event) {
         if (event.getSource().getId() == null) {
-            try {
-                // Using reflection to set the ID to avoid changing the public API of the model
-                java.lang.reflect.Field idField = ArticleTag.class.getDeclaredField("id");
-                idField.setAccessible(true);
-                idField.set(event.getSource(), (int) sequenceGenerator.generateSequence(ArticleTag.class.getName()));
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                throw new RuntimeException("Failed to set article tag ID", e);
-            }
+            Integer id = Math.toIntExact(sequenceGenerator.generateSequence(ArticleTag.class.getName()));
+            ID.set(event.getSource(), id);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package io.zhc1.realworld.persistence;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-shot migration from {@code article_tags} join documents to the embedded {@code tagList} of each article.
+ *
+ * <p>Enabled with {@code realworld.mongodb.migrate-article-tags=true}. It is idempotent and leaves the join documents
+ * in place, so it can be rerun and the {@code referenced} storage mode keeps its data. Migrated articles drop their
+ * {@code articleTags} references, which stops the per-tag DBRef resolution on load.
+ */
+@Slf4j
+@Profile("mongodb")
+@Component
+@ConditionalOnProperty(name = "realworld.mongodb.migrate-article-tags", havingValue = "true")
+@RequiredArgsConstructor
+class ArticleTagsMigration implements ApplicationRunner {
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Migrating article_tags into embedded article tagList");
+        log.info("Migrated tags of {} articles", migrate());
+    }
+
+    /**
+     * Copies the tag names of every article's join documents into its {@code tagList}.
+     *
+     * @return Returns the number of articles updated
+     */
+    int migrate() {
+        Aggregation tagsByArticle = Aggregation.newAggregation(
+                context -> new Document("$sort", new Document("_id", 1)),
+                context -> new Document(
+                        "$group",
+                        new Document("_id", "$article.$id").append("tags", new Document("$push", "$tag.$id"))));
+
+        int migrated = 0;
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "articles");
+        int pending = 0;
+        try (Stream<Document> groups = mongoTemplate.aggregateStream(tagsByArticle, "article_tags", Document.class)) {
+            for (Document group : (Iterable<Document>) groups::iterator) {
+                List<String> tagNames = group.getList("tags", String.class);
+                updates.updateOne(
+                        query(where("_id").is(group.get("_id"))),
+                        new Update()
+                                .addToSet("tagList")
+                                .each(tagNames.toArray())
+                                .set("articleTags", List.of()));
+                if (++pending == BATCH_SIZE) {
+                    migrated += updates.execute().getModifiedCount();
+                    updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "articles");
+                    pending = 0;
+                }
+            }
+        }
+
+        if (pending > 0) {
+            migrated += updates.execute().getModifiedCount();
+        }
+        return migrated;
+    }
+}
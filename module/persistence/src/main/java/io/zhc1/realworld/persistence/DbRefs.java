@@ -0,0 +1,31 @@
+package io.zhc1.realworld.persistence;
+
+import org.bson.Document;
+
+import com.mongodb.DBRef;
+
+/** Helpers for reading {@code @DBRef} fields out of raw documents. */
+final class DbRefs {
+    private DbRefs() {}
+
+    /**
+     * Extracts the referenced id from a raw DBRef value.
+     *
+     * <p>The driver decodes references as {@link DBRef}, but projections and aggregation output may hand them back as
+     * plain {@code {$ref, $id}} documents, so both shapes are accepted.
+     *
+     * @param reference raw field value
+     * @param idType type of the referenced id
+     * @return Returns the referenced id
+     */
+    static <T> T id(Object reference, Class<T> idType) {
+        if (reference instanceof DBRef dbRef) {
+            return idType.cast(dbRef.getId());
+        }
+        if (reference instanceof Document document) {
+            return document.get("$id", idType);
+        }
+
+        throw new IllegalArgumentException("not a DBRef: " + reference);
+    }
+}
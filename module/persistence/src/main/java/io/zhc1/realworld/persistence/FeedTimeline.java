@@ -0,0 +1,43 @@
+package io.zhc1.realworld.persistence;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import io.zhc1.realworld.model.Article;
+
+/**
+ * Materialized feed of one user, stored in {@code feed_timelines}.
+ *
+ * @param id id of the user who owns the feed
+ * @param entries articles of the followed authors, newest first and capped at the configured capacity
+ * @param celebrities followed authors whose articles are read at feed time instead of being written here
+ * @param truncated whether the entries reached the capacity once, so older articles may have been trimmed off
+ * @param horizon creation time of the oldest entry backfilled for a followed author who has older articles, articles
+ *     created at or before it may be missing from the entries
+ */
+@Document(collection = "feed_timelines")
+record FeedTimeline(
+        @Id UUID id, List<Entry> entries, Set<UUID> celebrities, boolean truncated, LocalDateTime horizon) {
+    FeedTimeline {
+        entries = entries == null ? List.of() : entries;
+        celebrities = celebrities == null ? Set.of() : celebrities;
+    }
+
+    /**
+     * One article of a feed, with just enough of it to order and prune the feed without loading the article.
+     *
+     * @param article article id
+     * @param author author id
+     * @param createdAt article creation time
+     */
+    record Entry(int article, UUID author, LocalDateTime createdAt) {
+        static Entry of(Article article) {
+            return new Entry(article.getId(), article.getAuthor().getId(), article.getCreatedAt());
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package io.zhc1.realworld.persistence;
+
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
+import io.zhc1.realworld.model.ArticleCursor;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.ArticleFavorite;
+import io.zhc1.realworld.model.ArticleTag;
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserFollow;
+
+/**
+ * Keeps the models of the memory profile in the heap, with the secondary indexes the memory adapters look them up by.
+ *
+ * <p>Models are held as the instances the adapters were given, like a persistence context that is never flushed.
+ * Lookups by slug, title, email and username go through sorted maps, and article lists are read from newest-first
+ * skip lists per author, tag and favoriting user, so every lookup is O(log n) and a page costs O(log n + page size)
+ * per list it merges. Reads take no lock. Writes that touch several indexes, or check uniqueness before writing, run
+ * under one lock, so they never interleave, but a reader may see a write that is only partly applied.
+ */
+@Profile("memory")
+@Component
+class MemoryStore {
+    private static final VarHandle ARTICLE_ID = ModelIds.idHandle(Article.class);
+    private static final VarHandle ARTICLE_COMMENT_ID = ModelIds.idHandle(ArticleComment.class);
+    private static final VarHandle ARTICLE_FAVORITE_ID = ModelIds.idHandle(ArticleFavorite.class);
+    private static final VarHandle USER_FOLLOW_ID = ModelIds.idHandle(UserFollow.class);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicInteger articleSequence = new AtomicInteger();
+    private final AtomicInteger articleCommentSequence = new AtomicInteger();
+    private final AtomicInteger articleFavoriteSequence = new AtomicInteger();
+    private final AtomicInteger userFollowSequence = new AtomicInteger();
+
+    private final Map<UUID, User> users = new ConcurrentHashMap<>();
+    private final Map<UUID, UserNames> userNames = new ConcurrentHashMap<>();
+    private final NavigableMap<String, UUID> userIdsByEmail = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, UUID> userIdsByUsername = new ConcurrentSkipListMap<>();
+
+    private final Map<Integer, Article> articles = new ConcurrentHashMap<>();
+    private final Map<Integer, ArticleNames> articleNames = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Integer> articleIdsBySlug = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Integer> articleIdsByTitle = new ConcurrentSkipListMap<>();
+    private final NavigableSet<ArticleKey> newestArticles = new ConcurrentSkipListSet<>();
+    private final Map<UUID, NavigableSet<ArticleKey>> articlesByAuthor = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<ArticleKey>> articlesByTag = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Tag> tags = new ConcurrentSkipListMap<>();
+
+    private final Map<UUID, NavigableSet<ArticleKey>> articlesFavoritedBy = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<UUID>> favoritingUserIds = new ConcurrentHashMap<>();
+
+    private final Map<Integer, ArticleComment> comments = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableMap<Integer, ArticleComment>> commentsByArticle = new ConcurrentHashMap<>();
+
+    private final Map<UUID, NavigableMap<UUID, UserFollow>> followsByFollower = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the given work under the write lock, for adapters that read and then write depending on what they read.
+     *
+     * @param work work to run
+     * @return Returns the result of the work
+     */
+    <T> T write(Supplier<T> work) {
+        writeLock.lock();
+        try {
+            return work.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    User saveUser(User user) {
+        return write(() -> {
+            UUID id = user.getId();
+            UUID emailOwner = userIdsByEmail.get(user.getEmail());
+            UUID usernameOwner = userIdsByUsername.get(user.getUsername());
+            if ((emailOwner != null && !emailOwner.equals(id))
+                    || (usernameOwner != null && !usernameOwner.equals(id))) {
+                throw new IllegalArgumentException("email or username is already exists.");
+            }
+
+            UserNames previous = userNames.put(id, new UserNames(user.getEmail(), user.getUsername()));
+            if (previous != null) {
+                userIdsByEmail.remove(previous.email(), id);
+                userIdsByUsername.remove(previous.username(), id);
+            }
+            userIdsByEmail.put(user.getEmail(), id);
+            userIdsByUsername.put(user.getUsername(), id);
+            users.put(id, user);
+            return user;
+        });
+    }
+
+    /** Saves a new user, or nothing if the id, email or username is taken already. */
+    Optional<User> insertUser(User user) {
+        return write(() -> {
+            if (users.containsKey(user.getId())
+                    || userIdsByEmail.containsKey(user.getEmail())
+                    || userIdsByUsername.containsKey(user.getUsername())) {
+                return Optional.empty();
+            }
+            return Optional.of(saveUser(user));
+        });
+    }
+
+    Optional<User> findUserById(UUID id) {
+        return Optional.ofNullable(users.get(id));
+    }
+
+    Optional<User> findUserByEmail(String email) {
+        return Optional.ofNullable(userIdsByEmail.get(email)).map(users::get);
+    }
+
+    Optional<User> findUserByUsername(String username) {
+        return Optional.ofNullable(userIdsByUsername.get(username)).map(users::get);
+    }
+
+    Article saveArticle(Article article) {
+        return write(() -> {
+            Integer titleOwner = articleIdsByTitle.get(article.getTitle());
+            Integer slugOwner = articleIdsBySlug.get(article.getSlug());
+            if ((titleOwner != null && !titleOwner.equals(article.getId()))
+                    || (slugOwner != null && !slugOwner.equals(article.getId()))) {
+                throw new IllegalArgumentException("title is already exists.");
+            }
+
+            if (article.getId() == null) {
+                ARTICLE_ID.set(article, articleSequence.incrementAndGet());
+            }
+            int id = article.getId();
+
+            ArticleNames previous = articleNames.put(id, new ArticleNames(article.getSlug(), article.getTitle()));
+            if (previous != null) {
+                articleIdsBySlug.remove(previous.slug(), id);
+                articleIdsByTitle.remove(previous.title(), id);
+            }
+            articleIdsBySlug.put(article.getSlug(), id);
+            articleIdsByTitle.put(article.getTitle(), id);
+
+            if (articles.put(id, article) == null) {
+                ArticleKey key = ArticleKey.of(article);
+                newestArticles.add(key);
+                indexOf(articlesByAuthor, article.getAuthor().getId()).add(key);
+            }
+            return article;
+        });
+    }
+
+    Article saveArticle(Article article, Collection<Tag> articleTags) {
+        return write(() -> {
+            Article savedArticle = saveArticle(article);
+            ArticleKey key = ArticleKey.of(savedArticle);
+            for (Tag tag : articleTags) {
+                Tag savedTag = tags.computeIfAbsent(tag.getName(), name -> tag);
+                savedArticle.addTag(new ArticleTag(savedArticle, savedTag));
+                indexOf(articlesByTag, savedTag.getName()).add(key);
+            }
+            return savedArticle;
+        });
+    }
+
+    Optional<Article> findArticleBySlug(String slug) {
+        return Optional.ofNullable(articleIdsBySlug.get(slug)).map(articles::get);
+    }
+
+    boolean existsArticleByTitle(String title) {
+        return articleIdsByTitle.containsKey(title);
+    }
+
+    /** Deletes the article along with its comments, favorites and tag links. */
+    void deleteArticle(Article article) {
+        write(() -> {
+            Article deleted = articles.remove(article.getId());
+            if (deleted == null) {
+                return null;
+            }
+
+            ArticleKey key = ArticleKey.of(deleted);
+            ArticleNames names = articleNames.remove(deleted.getId());
+            articleIdsBySlug.remove(names.slug(), deleted.getId());
+            articleIdsByTitle.remove(names.title(), deleted.getId());
+            newestArticles.remove(key);
+            articlesByAuthor.getOrDefault(deleted.getAuthor().getId(), emptyIndex()).remove(key);
+            for (ArticleTag articleTag : deleted.getArticleTags()) {
+                articlesByTag.getOrDefault(articleTag.getTag().getName(), emptyIndex()).remove(key);
+            }
+            for (UUID userId : favoritingUserIds.getOrDefault(deleted.getId(), Set.of())) {
+                articlesFavoritedBy.getOrDefault(userId, emptyIndex()).remove(key);
+            }
+            favoritingUserIds.remove(deleted.getId());
+            commentsByArticle
+                    .getOrDefault(deleted.getId(), Collections.emptyNavigableMap())
+                    .keySet()
+                    .forEach(comments::remove);
+            commentsByArticle.remove(deleted.getId());
+            return null;
+        });
+    }
+
+    NavigableSet<ArticleKey> newestArticles() {
+        return newestArticles;
+    }
+
+    NavigableSet<ArticleKey> articlesByAuthor(UUID authorId) {
+        return articlesByAuthor.getOrDefault(authorId, emptyIndex());
+    }
+
+    NavigableSet<ArticleKey> articlesByTag(String tagName) {
+        return articlesByTag.getOrDefault(tagName, emptyIndex());
+    }
+
+    NavigableSet<ArticleKey> articlesFavoritedBy(UUID userId) {
+        return articlesFavoritedBy.getOrDefault(userId, emptyIndex());
+    }
+
+    /**
+     * Reads a page of the union of the given newest-first article lists, without duplicates.
+     *
+     * <p>Only the first {@code offset + size} entries of each list, past the cursor if any, can make the page, so no
+     * more are read.
+     *
+     * @param sources article lists to merge
+     * @param facets page, size and cursor; the filters are expected to be resolved into {@code sources} already
+     * @return Returns the articles of the page, newest first
+     */
+    List<Article> findArticles(Collection<NavigableSet<ArticleKey>> sources, ArticleFacets facets) {
+        int offset = facets.hasCursor() ? 0 : facets.page() * facets.size();
+        int limit = offset + facets.size();
+
+        NavigableSet<ArticleKey> candidates = new TreeSet<>();
+        for (NavigableSet<ArticleKey> source : sources) {
+            NavigableSet<ArticleKey> range =
+                    facets.hasCursor() ? source.tailSet(ArticleKey.of(facets.cursor()), false) : source;
+            Iterator<ArticleKey> keys = range.iterator();
+            for (int i = 0; i < limit && keys.hasNext(); i++) {
+                candidates.add(keys.next());
+            }
+        }
+
+        return candidates.stream()
+                .skip(offset)
+                .limit(facets.size())
+                .map(key -> articles.get(key.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    int countArticles(Collection<NavigableSet<ArticleKey>> sources) {
+        if (sources.size() == 1) {
+            return sources.iterator().next().size();
+        }
+
+        Set<ArticleKey> union = new HashSet<>();
+        sources.forEach(union::addAll);
+        return union.size();
+    }
+
+    List<Tag> findTags() {
+        return List.copyOf(tags.values());
+    }
+
+    /**
+     * Records the favorite and counts it in the article's favorites count, unless the user already favorited it.
+     *
+     * @param articleFavorite favorite to record
+     * @return Returns true if the favorite was recorded
+     */
+    boolean saveFavorite(ArticleFavorite articleFavorite) {
+        return write(() -> {
+            Article article = articleFavorite.getArticle();
+            UUID userId = articleFavorite.getUser().getId();
+            if (!indexOf(articlesFavoritedBy, userId).add(ArticleKey.of(article))) {
+                return false;
+            }
+
+            ARTICLE_FAVORITE_ID.set(articleFavorite, articleFavoriteSequence.incrementAndGet());
+            favoritingUserIds
+                    .computeIfAbsent(article.getId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(userId);
+            article.setFavoritesCount(article.getFavoritesCount() + 1);
+            return true;
+        });
+    }
+
+    boolean deleteFavorite(User user, Article article) {
+        return write(() -> {
+            if (!articlesFavoritedBy(user.getId()).remove(ArticleKey.of(article))) {
+                return false;
+            }
+
+            favoritingUserIds.getOrDefault(article.getId(), Set.of()).remove(user.getId());
+            article.setFavoritesCount(Math.max(article.getFavoritesCount() - 1, 0));
+            return true;
+        });
+    }
+
+    boolean isFavorited(User user, Article article) {
+        return article.getId() != null && articlesFavoritedBy(user.getId()).contains(ArticleKey.of(article));
+    }
+
+    ArticleComment saveComment(ArticleComment articleComment) {
+        return write(() -> {
+            if (articleComment.getId() == null) {
+                ARTICLE_COMMENT_ID.set(articleComment, articleCommentSequence.incrementAndGet());
+            }
+
+            comments.put(articleComment.getId(), articleComment);
+            commentsByArticle
+                    .computeIfAbsent(
+                            articleComment.getArticle().getId(),
+                            id -> new ConcurrentSkipListMap<>(Comparator.reverseOrder()))
+                    .put(articleComment.getId(), articleComment);
+            return articleComment;
+        });
+    }
+
+    Optional<ArticleComment> findComment(int commentId) {
+        return Optional.ofNullable(comments.get(commentId));
+    }
+
+    /** Returns the comments of the article, newest first, as their ids are assigned in creation order. */
+    List<ArticleComment> findComments(Article article) {
+        return List.copyOf(commentsByArticle
+                .getOrDefault(article.getId(), Collections.emptyNavigableMap())
+                .values());
+    }
+
+    /** Reads the profile versions of the authors as stored now, not of the instances the comments were saved with. */
+    ArticleCommentsVersion findCommentsVersion(Article article) {
+        NavigableMap<Integer, ArticleComment> articleComments =
+                commentsByArticle.getOrDefault(article.getId(), Collections.emptyNavigableMap());
+        if (articleComments.isEmpty()) {
+            return ArticleCommentsVersion.NONE;
+        }
+
+        long authorsProfileVersion = articleComments.values().stream()
+                .map(comment -> users.get(comment.getAuthor().getId()))
+                .filter(Objects::nonNull)
+                .mapToLong(User::profileVersion)
+                .sum();
+        return new ArticleCommentsVersion(articleComments.size(), articleComments.firstKey(), authorsProfileVersion);
+    }
+
+    void deleteComment(ArticleComment articleComment) {
+        write(() -> {
+            comments.remove(articleComment.getId());
+            commentsByArticle
+                    .getOrDefault(articleComment.getArticle().getId(), Collections.emptyNavigableMap())
+                    .remove(articleComment.getId());
+            return null;
+        });
+    }
+
+    void saveFollow(UserFollow userFollow) {
+        write(() -> {
+            NavigableMap<UUID, UserFollow> follows = followsByFollower.computeIfAbsent(
+                    userFollow.getFollower().getId(), id -> new ConcurrentSkipListMap<>());
+            if (!follows.containsKey(userFollow.getFollowing().getId())) {
+                USER_FOLLOW_ID.set(userFollow, userFollowSequence.incrementAndGet());
+                follows.put(userFollow.getFollowing().getId(), userFollow);
+            }
+            return null;
+        });
+    }
+
+    List<UserFollow> findFollows(User follower) {
+        return List.copyOf(followsByFollower
+                .getOrDefault(follower.getId(), Collections.emptyNavigableMap())
+                .values());
+    }
+
+    void deleteFollow(User follower, User following) {
+        followsByFollower
+                .getOrDefault(follower.getId(), Collections.emptyNavigableMap())
+                .remove(following.getId());
+    }
+
+    boolean isFollowing(User follower, User following) {
+        return followsByFollower
+                .getOrDefault(follower.getId(), Collections.emptyNavigableMap())
+                .containsKey(following.getId());
+    }
+
+    private static <K> NavigableSet<ArticleKey> indexOf(Map<K, NavigableSet<ArticleKey>> index, K key) {
+        return index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>());
+    }
+
+    private static NavigableSet<ArticleKey> emptyIndex() {
+        return Collections.emptyNavigableSet();
+    }
+
+    /** Position of an article in newest-first order, the order of every article list. */
+    record ArticleKey(LocalDateTime createdAt, int id) implements Comparable<ArticleKey> {
+        private static final Comparator<ArticleKey> NEWEST_FIRST = Comparator.comparing(ArticleKey::createdAt)
+                .thenComparingInt(ArticleKey::id)
+                .reversed();
+
+        static ArticleKey of(Article article) {
+            return new ArticleKey(article.getCreatedAt(), article.getId());
+        }
+
+        static ArticleKey of(ArticleCursor cursor) {
+            return new ArticleKey(cursor.createdAt(), cursor.id());
+        }
+
+        @Override
+        public int compareTo(ArticleKey other) {
+            return NEWEST_FIRST.compare(this, other);
+        }
+    }
+
+    private record UserNames(String email, String username) {}
+
+    private record ArticleNames(String slug, String title) {}
+}
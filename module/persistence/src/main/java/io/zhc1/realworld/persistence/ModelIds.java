@@ -0,0 +1,24 @@
+package io.zhc1.realworld.persistence;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/** Access to the private {@code Integer id} field of the models whose ids are generated by the Mongo listeners. */
+final class ModelIds {
+    private ModelIds() {}
+
+    /**
+     * Resolves the {@code id} field of the given model once, for listeners to keep in a constant.
+     *
+     * @param modelType model class declaring a private {@code Integer id} field
+     * @return Returns a handle setting the id without reflection on every insert
+     */
+    static VarHandle idHandle(Class<?> modelType) {
+        try {
+            return MethodHandles.privateLookupIn(modelType, MethodHandles.lookup())
+                    .findVarHandle(modelType, "id", Integer.class);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException("Failed to resolve the id field of " + modelType.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import io.zhc1.realworld.config.MongoPersistenceProperties;
+
+/**
+ * Declares the indexes of every MongoDB collection and reconciles them with the server once the application is ready.
+ *
+ * <p>Missing indexes are created, indexes whose keys match but whose options differ are reported, and indexes that are
+ * not declared here are reported or, with {@code realworld.mongodb.indexes.drop-unknown=true}, dropped. Indexes are
+ * matched by their ordered key pattern, so an equivalent index created by hand under another name is left alone.
+ *
+ * <p>The unique indexes of the users are the exception. Signup relies on them to reject duplicate emails and usernames,
+ * so they are made sure of before the application serves requests, and the application fails to start without them.
+ *
+ * <p>Equality on a {@code @DBRef} property, as issued by the derived queries, compares the whole {@code {$ref, $id}}
+ * subdocument and is served by an index on the property itself. The aggregation pipelines match on {@code <field>.$id}
+ * instead, which needs its own index.
+ */
+@Slf4j
+@Profile("mongodb")
+@Component
+@RequiredArgsConstructor
+class MongoIndexManager implements SmartInitializingSingleton {
+    static final List<ManagedIndex> INDEXES = List.of(
+            // findByEmail, existsByEmail, existsByEmailOrUsername
+            ManagedIndex.unique("users", "ux_users_email", new Document("email", 1)),
+            // findByUsername, existsByUsername and the author/favorited facet lookups
+            ManagedIndex.unique("users", "ux_users_username", new Document("username", 1)),
+            // findBySlug
+            ManagedIndex.unique("articles", "ux_articles_slug", new Document("slug", 1)),
+            // existsByTitle
+            ManagedIndex.unique("articles", "ux_articles_title", new Document("title", 1)),
+            // Global list ordering and cursor ranges
+            ManagedIndex.of("articles", "ix_articles_created_at", new Document("createdAt", -1).append("_id", -1)),
+            // Feed, by followed authors
+            ManagedIndex.of(
+                    "articles",
+                    "ix_articles_author_created_at",
+                    new Document("author", 1).append("createdAt", -1).append("_id", -1)),
+            // Author facet, joined in by the listing pipeline
+            ManagedIndex.of("articles", "ix_articles_author_id", new Document("author.$id", 1)),
+            // Tag facet when tags are embedded, ordered and ranged like the global list. Renamed when _id was added, so
+            // that the index with the old keys is reported as undeclared instead of blocking the creation of this one.
+            ManagedIndex.of(
+                    "articles",
+                    "ix_articles_tag_list_created_at_id",
+                    new Document("tagList", 1).append("createdAt", -1).append("_id", -1)),
+            // findByArticle, deleteByArticle
+            ManagedIndex.unique(
+                    "article_tags", "ux_article_tags_article_tag", new Document("article", 1).append("tag", 1)),
+            // Tag facet lookup
+            ManagedIndex.of("article_tags", "ix_article_tags_tag_id", new Document("tag.$id", 1)),
+            // existsByUserAndArticle, deleteByUserAndArticle
+            ManagedIndex.unique(
+                    "article_favorites",
+                    "ux_article_favorites_user_article",
+                    new Document("user", 1).append("article", 1)),
+            // deleteByArticle
+            ManagedIndex.of("article_favorites", "ix_article_favorites_article", new Document("article", 1)),
+            // Favorited facet lookup and the favorited flags of a page
+            ManagedIndex.of(
+                    "article_favorites",
+                    "ix_article_favorites_user_id_article_id",
+                    new Document("user.$id", 1).append("article.$id", 1)),
+            // Favorite count reconciliation
+            ManagedIndex.of("article_favorites", "ix_article_favorites_article_id", new Document("article.$id", 1)),
+            // findByArticleOrderByCreatedAtDesc, deleteByArticle
+            ManagedIndex.of(
+                    "article_comments",
+                    "ix_article_comments_article_created_at",
+                    new Document("article", 1).append("createdAt", -1)),
+            // findByFollower, existsByFollowerAndFollowing, deleteByFollowerAndFollowing
+            ManagedIndex.unique(
+                    "user_follows",
+                    "ux_user_follows_follower_following",
+                    new Document("follower", 1).append("following", 1)),
+            // Followers of an author, for the timeline fan-out
+            ManagedIndex.of("user_follows", "ix_user_follows_following", new Document("following", 1)),
+            // Withdrawing a deleted article from every timeline
+            ManagedIndex.of("feed_timelines", "ix_feed_timelines_entries_article", new Document("entries.article", 1)));
+
+    /** The indexes duplicate signups are rejected by. */
+    static final List<ManagedIndex> REQUIRED = INDEXES.stream()
+            .filter(index -> index.collection().equals("users") && index.unique())
+            .toList();
+
+    private static final String ID_INDEX = "_id_";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoPersistenceProperties properties;
+
+    /**
+     * Creates the required indexes that are missing, or only checks that they exist when index management is
+     * disabled.
+     *
+     * @throws IllegalStateException if a required index is missing and cannot be created, for instance because the
+     *     collection already holds duplicates, or exists without being unique
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (ManagedIndex index : REQUIRED) {
+            MongoCollection<Document> collection = mongoTemplate.getCollection(index.collection());
+            Document match = collection.listIndexes().into(new ArrayList<>()).stream()
+                    .filter(candidate -> sameKeys(index.keys(), candidate.get("key", Document.class)))
+                    .findFirst()
+                    .orElse(null);
+
+            if (match != null && !match.getBoolean("unique", false)) {
+                throw new IllegalStateException("Index %s on %s must be unique to reject duplicate signups"
+                        .formatted(match.getString("name"), index.collection()));
+            }
+            if (match == null && !properties.indexes().manage()) {
+                throw new IllegalStateException("Unique index %s %s on %s is missing and index management is disabled"
+                        .formatted(index.name(), index.keys().toJson(), index.collection()));
+            }
+            if (match == null) {
+                createRequired(collection, index);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        if (!properties.indexes().manage()) {
+            log.info("MongoDB index management is disabled");
+            return;
+        }
+
+        try {
+            List<String> created = reconcile();
+            log.info("MongoDB indexes reconciled, {} created", created.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile MongoDB indexes", e);
+        }
+    }
+
+    /**
+     * Creates the declared indexes that are missing and reports or drops the ones that are not declared.
+     *
+     * @return Returns the names of the indexes created
+     */
+    List<String> reconcile() {
+        Map<String, List<ManagedIndex>> indexesByCollection = new LinkedHashMap<>();
+        INDEXES.forEach(index -> indexesByCollection
+                .computeIfAbsent(index.collection(), collection -> new ArrayList<>())
+                .add(index));
+
+        List<String> created = new ArrayList<>();
+        indexesByCollection.forEach((collection, declared) -> created.addAll(reconcile(collection, declared)));
+        return created;
+    }
+
+    private List<String> reconcile(String collectionName, List<ManagedIndex> declared) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        List<Document> existing = collection.listIndexes().into(new ArrayList<>());
+
+        List<String> created = new ArrayList<>();
+        for (ManagedIndex index : declared) {
+            Document match = existing.stream()
+                    .filter(candidate -> sameKeys(index.keys(), candidate.get("key", Document.class)))
+                    .findFirst()
+                    .orElse(null);
+
+            if (match == null) {
+                if (create(collection, index)) {
+                    created.add(index.name());
+                }
+                continue;
+            }
+
+            existing.remove(match);
+            if (index.unique() != match.getBoolean("unique", false)) {
+                log.warn(
+                        "Index {} on {} has the keys of {} but unique={}, expected unique={}",
+                        match.getString("name"),
+                        collectionName,
+                        index.name(),
+                        !index.unique(),
+                        index.unique());
+            }
+        }
+
+        existing.stream()
+                .map(index -> index.getString("name"))
+                .filter(name -> !ID_INDEX.equals(name))
+                .forEach(name -> unknown(collection, name));
+        return created;
+    }
+
+    private boolean create(MongoCollection<Document> collection, ManagedIndex index) {
+        String collectionName = collection.getNamespace().getCollectionName();
+        log.info("Creating index {} {} on {}", index.name(), index.keys().toJson(), collectionName);
+        try {
+            collection.createIndex(
+                    index.keys(),
+                    new IndexOptions()
+                            .name(index.name())
+                            .unique(index.unique())
+                            .background(properties.indexes().background()));
+            return true;
+        } catch (MongoException e) {
+            log.warn("Failed to create index {} on {}", index.name(), collectionName, e);
+            return false;
+        }
+    }
+
+    private void createRequired(MongoCollection<Document> collection, ManagedIndex index) {
+        log.info("Creating required index {} {} on {}", index.name(), index.keys().toJson(), index.collection());
+        try {
+            collection.createIndex(index.keys(), new IndexOptions().name(index.name()).unique(index.unique()));
+        } catch (MongoException e) {
+            throw new IllegalStateException(
+                    "Failed to create the required index %s on %s".formatted(index.name(), index.collection()), e);
+        }
+    }
+
+    private void unknown(MongoCollection<Document> collection, String name) {
+        String collectionName = collection.getNamespace().getCollectionName();
+        if (!properties.indexes().dropUnknown()) {
+            log.warn("Index {} on {} is not declared", name, collectionName);
+            return;
+        }
+
+        log.info("Dropping undeclared index {} on {}", name, collectionName);
+        try {
+            collection.dropIndex(name);
+        } catch (MongoException e) {
+            log.warn("Failed to drop index {} on {}", name, collectionName, e);
+        }
+    }
+
+    /** Compares two key patterns field by field, in order, treating any positive or negative number alike. */
+    private static boolean sameKeys(Document declared, Document actual) {
+        if (actual == null || declared.size() != actual.size()) {
+            return false;
+        }
+
+        List<String> declaredFields = new ArrayList<>(declared.keySet());
+        List<String> actualFields = new ArrayList<>(actual.keySet());
+        for (int i = 0; i < declaredFields.size(); i++) {
+            String field = declaredFields.get(i);
+            if (!field.equals(actualFields.get(i)) || !sameDirection(declared.get(field), actual.get(field))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameDirection(Object declared, Object actual) {
+        if (declared instanceof Number declaredNumber && actual instanceof Number actualNumber) {
+            return Math.signum(declaredNumber.doubleValue()) == Math.signum(actualNumber.doubleValue());
+        }
+        return Objects.equals(declared, actual);
+    }
+
+    /**
+     * An index declared for a collection.
+     *
+     * @param collection collection name
+     * @param name index name
+     * @param keys ordered key pattern
+     * @param unique whether the index rejects duplicate keys
+     */
+    record ManagedIndex(String collection, String name, Document keys, boolean unique) {
+        static ManagedIndex of(String collection, String name, Document keys) {
+            return new ManagedIndex(collection, name, keys, false);
+        }
+
+        static ManagedIndex unique(String collection, String name, Document keys) {
+            return new ManagedIndex(collection, name, keys, true);
+        }
+    }
+}
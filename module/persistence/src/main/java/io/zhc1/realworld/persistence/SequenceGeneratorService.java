@@ -4,26 +4,104 @@ import static org.springframework.data.mongodb.core.FindAndModifyOptions.options
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import lombok.RequiredArgsConstructor;
+import io.zhc1.realworld.config.MongoPersistenceProperties;
 
+/**
+ * Hands out sequential ids per sequence name, backed by the {@code database_sequences} collection.
+ *
+ * <p>Ids are reserved from the database in blocks of {@code realworld.mongodb.sequences.block-size} (hi/lo) and handed
+ * out from memory without locking, so only one insert per block pays for the {@code findAndModify} round trip. The
+ * stored counter holds the last id reserved, which keeps it compatible with counters written one id at a time. Ids
+ * left in a block when the application stops are never used, and several instances interleave their blocks, so ids
+ * are unique but neither gapless nor ordered by insertion across instances.
+ */
 @Profile("mongodb")
 @Service
-@RequiredArgsConstructor
 public class SequenceGeneratorService {
     private final MongoOperations mongoOperations;
+    private final int blockSize;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    public SequenceGeneratorService(MongoOperations mongoOperations, MongoPersistenceProperties properties) {
+        if (properties.sequences().blockSize() < 1) {
+            throw new IllegalArgumentException("sequence block size must be greater than 0.");
+        }
+
+        this.mongoOperations = mongoOperations;
+        this.blockSize = properties.sequences().blockSize();
+    }
 
     public long generateSequence(String seqName) {
+        return sequences.computeIfAbsent(seqName, Sequence::new).next();
+    }
+
+    /** Reserves the next block of the sequence and returns the last id of it. */
+    private long reserveBlock(String seqName) {
         DatabaseSequence counter = mongoOperations.findAndModify(
                 query(where("_id").is(seqName)),
-                new Update().inc("seq", 1),
+                new Update().inc("seq", blockSize),
                 options().returnNew(true).upsert(true),
                 DatabaseSequence.class);
-        return !Objects.isNull(counter) ? counter.getSeq() : 1;
+        if (counter == null) {
+            throw new IllegalStateException("Failed to reserve ids of sequence " + seqName);
+        }
+        return counter.getSeq();
+    }
+
+    private final class Sequence {
+        private final String name;
+        private final ReentrantLock refill = new ReentrantLock();
+        private volatile Block block = Block.EXHAUSTED;
+
+        Sequence(String name) {
+            this.name = name;
+        }
+
+        long next() {
+            while (true) {
+                Block current = block;
+                long id = current.next.getAndIncrement();
+                if (id <= current.last) {
+                    return id;
+                }
+
+                refill(current);
+            }
+        }
+
+        /** Replaces the exhausted block, unless another writer already did while this one waited for the lock. */
+        private void refill(Block exhausted) {
+            refill.lock();
+            try {
+                if (block == exhausted) {
+                    long last = reserveBlock(name);
+                    block = new Block(last - blockSize + 1, last);
+                }
+            } finally {
+                refill.unlock();
+            }
+        }
+    }
+
+    private static final class Block {
+        static final Block EXHAUSTED = new Block(1, 0);
+
+        final AtomicLong next;
+        final long last;
+
+        Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.TagRepository;
+
+@Profile("memory")
+@Component("tagMemoryRepositoryAdapter")
+@RequiredArgsConstructor
+class TagMemoryRepositoryAdapter implements TagRepository {
+    private final MemoryStore memoryStore;
+
+    @Override
+    public List<Tag> findAll() {
+        return memoryStore.findTags();
+    }
+}
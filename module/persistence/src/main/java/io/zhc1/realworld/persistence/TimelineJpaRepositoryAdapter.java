@@ -0,0 +1,52 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.List;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.config.CacheName;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.TimelineRepository;
+import io.zhc1.realworld.model.User;
+
+/**
+ * Reads the feed at request time (fan-out-on-read) with a join on the follows, which the relational indexes on
+ * {@code user_follow} and {@code article(author_id, created_at)} already serve, so there is nothing to materialize.
+ */
+@Profile("h2")
+@Repository
+@RequiredArgsConstructor
+class TimelineJpaRepositoryAdapter implements TimelineRepository {
+    private final ArticleJpaRepository articleJpaRepository;
+
+    @Override
+    public void publish(Article article) {}
+
+    @Override
+    public void withdraw(Article article) {}
+
+    @Override
+    @CacheEvict(value = CacheName.ARTICLE_COUNTS, key = "#follower.id")
+    public void follow(User follower, User following) {}
+
+    @Override
+    @CacheEvict(value = CacheName.ARTICLE_COUNTS, key = "#follower.id")
+    public void unfollow(User follower, User following) {}
+
+    @Override
+    public List<Article> findFeed(User user, ArticleFacets facets) {
+        return articleJpaRepository.findPage(ArticleSpecifications.isFollowedBy(user), facets);
+    }
+
+    @Override
+    @Cacheable(value = CacheName.ARTICLE_COUNTS, key = "#user.id")
+    public long countFeed(User user) {
+        return articleJpaRepository.count(ArticleSpecifications.isFollowedBy(user));
+    }
+}
@@ -0,0 +1,57 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.List;
+import java.util.NavigableSet;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.config.CacheName;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.TimelineRepository;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.persistence.MemoryStore.ArticleKey;
+
+/** Merges the article lists of the followed authors when the feed is read, which is cheap enough in memory. */
+@Profile("memory")
+@Component("timelineMemoryRepositoryAdapter")
+@RequiredArgsConstructor
+class TimelineMemoryRepositoryAdapter implements TimelineRepository {
+    private final MemoryStore memoryStore;
+
+    @Override
+    public void publish(Article article) {}
+
+    @Override
+    public void withdraw(Article article) {}
+
+    @Override
+    @CacheEvict(value = CacheName.ARTICLE_COUNTS, key = "#follower.id")
+    public void follow(User follower, User following) {}
+
+    @Override
+    @CacheEvict(value = CacheName.ARTICLE_COUNTS, key = "#follower.id")
+    public void unfollow(User follower, User following) {}
+
+    @Override
+    public List<Article> findFeed(User user, ArticleFacets facets) {
+        return memoryStore.findArticles(authorsFollowedBy(user), facets);
+    }
+
+    @Override
+    @Cacheable(value = CacheName.ARTICLE_COUNTS, key = "#user.id")
+    public long countFeed(User user) {
+        return memoryStore.countArticles(authorsFollowedBy(user));
+    }
+
+    private List<NavigableSet<ArticleKey>> authorsFollowedBy(User user) {
+        return memoryStore.findFollows(user).stream()
+                .map(userFollow -> memoryStore.articlesByAuthor(userFollow.getFollowing().getId()))
+                .toList();
+    }
+}
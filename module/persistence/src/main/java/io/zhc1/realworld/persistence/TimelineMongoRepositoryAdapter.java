@@ -0,0 +1,415 @@
+package io.zhc1.realworld.persistence;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.result.UpdateResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+import io.zhc1.realworld.config.CacheName;
+import io.zhc1.realworld.config.MongoPersistenceProperties;
+import io.zhc1.realworld.config.MongoPersistenceProperties.Timelines;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleCursor;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.TimelineRepository;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserFollow;
+import io.zhc1.realworld.persistence.FeedTimeline.Entry;
+
+/**
+ * Materializes each user's feed in {@code feed_timelines} when articles are written (fan-out-on-write).
+ *
+ * <p>A timeline is created the first time its owner reads the feed, from the latest articles of the authors they
+ * follow, and is kept current from then on: new articles are pushed to the timelines of the author's followers, follows
+ * backfill the author's latest articles and unfollows pull them. Every push sorts the entries and slices them to the
+ * configured capacity in the same update, so a timeline never grows past it. Pages that reach past the oldest entry of
+ * a trimmed timeline, or past the horizon of a backfill that left older articles out, are read from the articles
+ * instead.
+ *
+ * <p>Authors with more followers than {@code realworld.mongodb.timelines.celebrity-followers} are recorded in
+ * {@code feed_celebrities} the first time they publish past the threshold. Their articles are no longer pushed, the
+ * timelines of their followers list them as celebrities instead and their articles are merged in when a feed is read
+ * (fan-out-on-read), which bounds the writes per article by the threshold.
+ */
+@Slf4j
+@Profile("mongodb")
+@Component("timelineMongoRepositoryAdapter")
+class TimelineMongoRepositoryAdapter implements TimelineRepository {
+    static final String CELEBRITIES = "feed_celebrities";
+
+    private static final int BATCH_SIZE = 500;
+    private static final String USERS = "users";
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final Sort NEWEST_ENTRY_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "article");
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::createdAt)
+            .thenComparingInt(Entry::article)
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final Timelines timelines;
+
+    TimelineMongoRepositoryAdapter(MongoTemplate mongoTemplate, MongoPersistenceProperties properties) {
+        if (properties.timelines().capacity() < 1) {
+            throw new IllegalArgumentException("timeline capacity must be greater than 0.");
+        }
+
+        this.mongoTemplate = mongoTemplate;
+        this.timelines = properties.timelines();
+    }
+
+    @Override
+    public void publish(Article article) {
+        User author = article.getAuthor();
+        if (isCelebrity(author.getId())) {
+            return;
+        }
+
+        List<UUID> followers = findFollowers(author, timelines.celebrityFollowers() + 1);
+        if (followers.size() > timelines.celebrityFollowers()) {
+            promote(author);
+            return;
+        }
+
+        push(followers, List.of(Entry.of(article)));
+    }
+
+    @Override
+    public void withdraw(Article article) {
+        mongoTemplate.updateMulti(
+                query(where("entries.article").is(article.getId())),
+                new Update().pull("entries", query(where("article").is(article.getId()))),
+                FeedTimeline.class);
+    }
+
+    @Override
+    @CacheEvict(value = CacheName.ARTICLE_COUNTS, key = "#follower.id")
+    public void follow(User follower, User following) {
+        if (isCelebrity(following.getId())) {
+            mongoTemplate.updateFirst(
+                    query(where("id").is(follower.getId())),
+                    new Update().addToSet("celebrities", following.getId()),
+                    FeedTimeline.class);
+            return;
+        }
+
+        List<Entry> backfill = findEntries(List.of(following.getId()), null, timelines.backfill());
+        if (backfill.size() >= timelines.backfill()) {
+            mongoTemplate.updateFirst(
+                    query(where("id").is(follower.getId())),
+                    new Update().max("horizon", backfill.getLast().createdAt()),
+                    FeedTimeline.class);
+        }
+        push(List.of(follower.getId()), backfill);
+    }
+
+    @Override
+    @CacheEvict(value = CacheName.ARTICLE_COUNTS, key = "#follower.id")
+    public void unfollow(User follower, User following) {
+        mongoTemplate.updateFirst(
+                query(where("id").is(follower.getId())),
+                new Update()
+                        .pull("entries", query(where("author").is(following.getId())))
+                        .pull("celebrities", following.getId()),
+                FeedTimeline.class);
+    }
+
+    @Override
+    public List<Article> findFeed(User user, ArticleFacets facets) {
+        if (facets.size() == 0) {
+            return List.of();
+        }
+
+        FeedTimeline timeline = mongoTemplate.findById(user.getId(), FeedTimeline.class);
+        if (timeline == null) {
+            timeline = rebuild(user);
+        }
+
+        long skip = facets.hasCursor() ? 0 : (long) facets.page() * facets.size();
+        int limit = (int) Math.min(skip + facets.size(), Integer.MAX_VALUE);
+
+        List<Entry> candidates = new ArrayList<>();
+        timeline.entries().stream()
+                .filter(entry -> isAfter(entry, facets.cursor()))
+                .forEach(candidates::add);
+        if (!timeline.celebrities().isEmpty()) {
+            candidates.addAll(findEntries(timeline.celebrities(), facets.cursor(), limit));
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        List<Entry> page = candidates.stream()
+                .sorted(ENTRY_ORDER)
+                .filter(entry -> seen.add(entry.article()))
+                .skip(skip)
+                .limit(facets.size())
+                .toList();
+
+        if (reachesPastTimeline(timeline, page, facets.size())) {
+            log.debug("Feed page of {} reaches past its trimmed timeline, reading it from the articles", user.getId());
+            return findFeedOnRead(user, facets);
+        }
+        return findArticles(page);
+    }
+
+    /**
+     * Counts the articles of the followed authors rather than the timeline, which is trimmed and leaves out the
+     * articles of celebrities. The count is served by the {@code author} index.
+     */
+    @Override
+    @Cacheable(value = CacheName.ARTICLE_COUNTS, key = "#user.id")
+    public long countFeed(User user) {
+        List<UUID> following = findFollowing(user);
+        if (following.isEmpty()) {
+            return 0L;
+        }
+
+        return mongoTemplate.count(byAuthors(following, null), Article.class);
+    }
+
+    /**
+     * Creates the timeline of a user who has none yet from the latest articles of the authors they follow.
+     *
+     * <p>The timeline is inserted empty and truncated before the articles are read, so articles published while it is
+     * filled are either read here or pushed to it, and reads in the meantime fall back to the articles. It is then
+     * filled with the same sorted and sliced push as new articles, which keeps the entries pushed concurrently. An
+     * article can show up twice in that window, reads skip the duplicate.
+     */
+    private FeedTimeline rebuild(User user) {
+        UpdateResult created = mongoTemplate.upsert(
+                query(where("id").is(user.getId())), new Update().setOnInsert("truncated", true), FeedTimeline.class);
+        if (created.getUpsertedId() == null) {
+            return mongoTemplate.findById(user.getId(), FeedTimeline.class);
+        }
+
+        List<UUID> following = findFollowing(user);
+        Set<UUID> celebrities = findCelebrities(following);
+        List<UUID> fannedOut = following.stream()
+                .filter(author -> !celebrities.contains(author))
+                .toList();
+        List<Entry> entries = fannedOut.isEmpty() ? List.of() : findEntries(fannedOut, null, timelines.capacity());
+
+        Update fill = new Update().set("truncated", entries.size() >= timelines.capacity());
+        if (!celebrities.isEmpty()) {
+            fill.addToSet("celebrities").each(celebrities.toArray());
+        }
+        if (!entries.isEmpty()) {
+            fill.push("entries")
+                    .sort(NEWEST_ENTRY_FIRST)
+                    .slice(timelines.capacity())
+                    .each(entries.toArray());
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, FeedTimeline.class);
+        bulk.updateOne(query(where("id").is(user.getId())), fill);
+        bulk.updateOne(
+                query(where("id").is(user.getId()))
+                        .addCriteria(where("entries." + (timelines.capacity() - 1)).exists(true)),
+                new Update().set("truncated", true));
+        bulk.execute();
+        return mongoTemplate.findById(user.getId(), FeedTimeline.class);
+    }
+
+    /**
+     * Pushes entries to the existing timelines of the given users. Users without a timeline are skipped, theirs is
+     * built from scratch when they first read their feed.
+     */
+    private void push(List<UUID> owners, List<Entry> entries) {
+        if (owners.isEmpty() || entries.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, FeedTimeline.class);
+        for (List<UUID> batch : batches(owners)) {
+            bulk.updateMulti(
+                    query(where("id").in(batch)),
+                    new Update()
+                            .push("entries")
+                            .sort(NEWEST_ENTRY_FIRST)
+                            .slice(timelines.capacity())
+                            .each(entries.toArray()));
+            bulk.updateMulti(
+                    query(where("id").in(batch)
+                            .and("entries." + (timelines.capacity() - 1))
+                            .exists(true)
+                            .and("truncated")
+                            .ne(true)),
+                    new Update().set("truncated", true));
+        }
+        bulk.execute();
+    }
+
+    /** Switches an author to fan-out-on-read, once, and lists them as a celebrity in their followers' timelines. */
+    private void promote(User author) {
+        UpdateResult result = mongoTemplate.upsert(
+                query(where("_id").is(author.getId())),
+                new Update().setOnInsert("createdAt", LocalDateTime.now()),
+                CELEBRITIES);
+        if (result.getUpsertedId() == null) {
+            return;
+        }
+
+        log.info(
+                "Author {} passed {} followers, their articles are now read at feed time",
+                author.getId(),
+                timelines.celebrityFollowers());
+        List<UUID> followers = findFollowers(author, 0);
+        if (followers.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedTimeline.class);
+        for (List<UUID> batch : batches(followers)) {
+            bulk.updateMulti(query(where("id").in(batch)), new Update().addToSet("celebrities", author.getId()));
+        }
+        bulk.execute();
+    }
+
+    private boolean isCelebrity(UUID author) {
+        return mongoTemplate.exists(query(where("_id").is(author)), CELEBRITIES);
+    }
+
+    private Set<UUID> findCelebrities(List<UUID> authors) {
+        if (authors.isEmpty()) {
+            return Set.of();
+        }
+
+        return mongoTemplate.find(query(where("_id").in(authors)), Document.class, CELEBRITIES).stream()
+                .map(celebrity -> celebrity.get("_id", UUID.class))
+                .collect(Collectors.toSet());
+    }
+
+    /** Returns the ids of the author's followers, at most {@code limit} of them unless it is 0. */
+    private List<UUID> findFollowers(User author, int limit) {
+        Query query = query(where("following").is(author)).limit(limit);
+        query.fields().include("follower");
+
+        return mongoTemplate.query(UserFollow.class).as(Document.class).matching(query).all().stream()
+                .map(follow -> DbRefs.id(follow.get("follower"), UUID.class))
+                .toList();
+    }
+
+    private List<UUID> findFollowing(User follower) {
+        Query query = query(where("follower").is(follower));
+        query.fields().include("following");
+
+        return mongoTemplate.query(UserFollow.class).as(Document.class).matching(query).all().stream()
+                .map(follow -> DbRefs.id(follow.get("following"), UUID.class))
+                .toList();
+    }
+
+    /** Reads the latest articles of the authors as timeline entries, without loading the articles themselves. */
+    private List<Entry> findEntries(Collection<UUID> authors, ArticleCursor cursor, int limit) {
+        Query query = byAuthors(authors, cursor).limit(limit);
+        query.fields().include("author", "createdAt");
+
+        return mongoTemplate.query(Article.class).as(Document.class).matching(query).all().stream()
+                .map(article -> new Entry(
+                        article.getInteger("_id"),
+                        DbRefs.id(article.get("author"), UUID.class),
+                        LocalDateTime.ofInstant(article.getDate("createdAt").toInstant(), ZoneId.systemDefault())))
+                .toList();
+    }
+
+    /** Reads the feed straight from the articles of every followed author, as it was before timelines. */
+    private List<Article> findFeedOnRead(User user, ArticleFacets facets) {
+        List<UUID> following = findFollowing(user);
+        if (following.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = byAuthors(following, facets.cursor()).limit(facets.size());
+        if (!facets.hasCursor()) {
+            query.skip((long) facets.page() * facets.size());
+        }
+        return mongoTemplate.find(query, Article.class);
+    }
+
+    /** Loads the articles of a page in the order of its entries, skipping the ones deleted in the meantime. */
+    private List<Article> findArticles(List<Entry> page) {
+        if (page.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> ids = page.stream().map(Entry::article).toList();
+        Map<Integer, Article> articles = mongoTemplate.find(query(where("id").in(ids)), Article.class).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+        return ids.stream().map(articles::get).filter(Objects::nonNull).toList();
+    }
+
+    private static Query byAuthors(Collection<UUID> authors, ArticleCursor cursor) {
+        List<DBRef> references =
+                authors.stream().map(author -> new DBRef(USERS, author)).toList();
+        Query query = query(where("author").in(references)).with(NEWEST_FIRST);
+        if (cursor != null) {
+            query.addCriteria(new Criteria()
+                    .orOperator(
+                            where("createdAt").lt(cursor.createdAt()),
+                            where("createdAt").is(cursor.createdAt()).and("id").lt(cursor.id())));
+        }
+        return query;
+    }
+
+    private static boolean isAfter(Entry entry, ArticleCursor cursor) {
+        if (cursor == null) {
+            return true;
+        }
+
+        int createdAt = entry.createdAt().compareTo(cursor.createdAt());
+        return createdAt < 0 || (createdAt == 0 && entry.article() < cursor.id());
+    }
+
+    /**
+     * Tells whether a page could miss articles because it is not full, ends before the oldest entry of a timeline whose
+     * older entries were trimmed off, or ends at or before the horizon of a partial backfill.
+     */
+    private static boolean reachesPastTimeline(FeedTimeline timeline, List<Entry> page, int size) {
+        if (!timeline.truncated() && timeline.horizon() == null) {
+            return false;
+        }
+        if (page.size() < size || timeline.entries().isEmpty()) {
+            return true;
+        }
+
+        Entry last = page.getLast();
+        if (timeline.horizon() != null && !last.createdAt().isAfter(timeline.horizon())) {
+            return true;
+        }
+        return timeline.truncated() && ENTRY_ORDER.compare(last, timeline.entries().getLast()) > 0;
+    }
+
+    private static List<List<UUID>> batches(List<UUID> ids) {
+        List<List<UUID>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+}
@@ -3,7 +3,14 @@ package io.zhc1.realworld.persistence;
 import java.util.Optional;
 import java.util.UUID;
 
+import jakarta.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.zhc1.realworld.model.User;
 
@@ -12,9 +19,27 @@ interface UserJpaRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByUsername(String username);
 
+    /** Reads the user for an update of the profile, whose version the row lock keeps concurrent edits from sharing. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") UUID id);
+
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
 
     boolean existsByEmailOrUsername(String email, String username);
+
+    // save would merge, because the id is assigned up front, and read the row before inserting it.
+    @Transactional
+    @Modifying
+    @Query(
+            value =
+                    """
+                    insert into users (id, email, username, password, bio, image_url, created_at, profile_version)
+                    values (:#{#user.id}, :#{#user.email}, :#{#user.username}, :#{#user.password},
+                            :#{#user.bio}, :#{#user.imageUrl}, :#{#user.createdAt}, :#{#user.profileVersion()})
+                    """,
+            nativeQuery = true)
+    void insert(@Param("user") User user);
 }
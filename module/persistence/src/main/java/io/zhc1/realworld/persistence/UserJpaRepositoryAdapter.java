@@ -3,12 +3,17 @@ package io.zhc1.realworld.persistence;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 
+import io.zhc1.realworld.config.CacheName;
 import io.zhc1.realworld.model.PasswordEncoder;
 import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.model.UserRepository;
@@ -20,11 +25,27 @@ class UserJpaRepositoryAdapter implements UserRepository {
     private final UserJpaRepository userJpaRepository;
 
     @Override
+    @Caching(
+            evict = {
+                @CacheEvict(value = CacheName.USERS_BY_ID, key = "#user.id"),
+                @CacheEvict(value = CacheName.USERS_BY_USERNAME, key = "#user.username")
+            })
     public User save(User user) {
         return userJpaRepository.save(user);
     }
 
     @Override
+    public Optional<User> insert(User user) {
+        try {
+            userJpaRepository.insert(user);
+            return Optional.of(user);
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @Cacheable(value = CacheName.USERS_BY_ID, unless = "#result == null")
     public Optional<User> findById(UUID id) {
         return userJpaRepository.findById(id);
     }
@@ -35,6 +56,7 @@ class UserJpaRepositoryAdapter implements UserRepository {
     }
 
     @Override
+    @Cacheable(value = CacheName.USERS_BY_USERNAME, unless = "#result == null")
     public Optional<User> findByUsername(String username) {
         return userJpaRepository.findByUsername(username);
     }
@@ -54,8 +76,14 @@ class UserJpaRepositoryAdapter implements UserRepository {
         return userJpaRepository.existsByEmailOrUsername(email, username);
     }
 
+    // The previous username is not known up front, so the whole username cache goes. Profile updates are rare.
     @Override
     @Transactional
+    @Caching(
+            evict = {
+                @CacheEvict(value = CacheName.USERS_BY_ID, key = "#userId"),
+                @CacheEvict(value = CacheName.USERS_BY_USERNAME, allEntries = true)
+            })
     public User updateUserDetails(
             UUID userId,
             PasswordEncoder passwordEncoder,
@@ -64,7 +92,8 @@ class UserJpaRepositoryAdapter implements UserRepository {
             String password,
             String bio,
             String imageUrl) {
-        return this.findById(userId)
+        return userJpaRepository
+                .findByIdForUpdate(userId)
                 .map(user -> {
                     if (!user.equalsEmail(email) && this.existsByEmail(email)) {
                         throw new IllegalArgumentException("email is already exists.");
@@ -0,0 +1,89 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.model.PasswordEncoder;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserRepository;
+
+@Profile("memory")
+@Component("userMemoryRepositoryAdapter")
+@RequiredArgsConstructor
+class UserMemoryRepositoryAdapter implements UserRepository {
+    private final MemoryStore memoryStore;
+
+    @Override
+    public User save(User user) {
+        return memoryStore.saveUser(user);
+    }
+
+    @Override
+    public Optional<User> insert(User user) {
+        return memoryStore.insertUser(user);
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        return memoryStore.findUserById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return memoryStore.findUserByEmail(email);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return memoryStore.findUserByUsername(username);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return memoryStore.findUserByEmail(email).isPresent();
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return memoryStore.findUserByUsername(username).isPresent();
+    }
+
+    @Override
+    public boolean existsBy(String email, String username) {
+        return existsByEmail(email) || existsByUsername(username);
+    }
+
+    @Override
+    public User updateUserDetails(
+            UUID userId,
+            PasswordEncoder passwordEncoder,
+            String email,
+            String username,
+            String password,
+            String bio,
+            String imageUrl) {
+        return memoryStore.write(() -> this.findById(userId)
+                .map(user -> {
+                    if (!user.equalsEmail(email) && this.existsByEmail(email)) {
+                        throw new IllegalArgumentException("email is already exists.");
+                    }
+
+                    if (!user.equalsUsername(username) && this.existsByUsername(username)) {
+                        throw new IllegalArgumentException("username is already exists.");
+                    }
+
+                    user.setEmail(email);
+                    user.setUsername(username);
+                    user.encryptPassword(passwordEncoder, password);
+                    user.setBio(bio);
+                    user.setImageUrl(imageUrl);
+                    return memoryStore.saveUser(user);
+                })
+                .orElseThrow(() -> new IllegalArgumentException("user not found.")));
+    }
+}
@@ -4,6 +4,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
 import io.zhc1.realworld.model.User;
 
@@ -19,4 +21,19 @@ interface UserMongoRepository extends MongoRepository<User, UUID> {
     // Spring Data MongoDB can derive queries for combined fields in existsBy methods
     // e.g. existsByEmailOrUsername(String email, String username)
     boolean existsByEmailOrUsername(String email, String username);
+
+    /**
+     * Writes the profile of the user, provided it still has the version it was read with. Users written before the
+     * version was stored have none, which reads as 0.
+     *
+     * @param user user whose profile was edited
+     * @param readVersion the profile version the user was read with
+     * @return Returns the number of users updated, 0 if the profile was edited concurrently
+     */
+    @Query("{ '_id': ?#{[0].id}, 'profileVersion': { '$in': [?1, null] } }")
+    @Update(
+            "{ '$set': { 'email': ?#{[0].email}, 'username': ?#{[0].username}, 'password': ?#{[0].password},"
+                    + " 'bio': ?#{[0].bio}, 'imageUrl': ?#{[0].imageUrl},"
+                    + " 'profileVersion': ?#{[0].profileVersion()} } }")
+    long updateProfile(User user, long readVersion);
 }
@@ -3,12 +3,18 @@ package io.zhc1.realworld.persistence;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 
+import io.zhc1.realworld.config.CacheName;
 import io.zhc1.realworld.model.PasswordEncoder;
 import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.model.UserRepository;
@@ -21,11 +27,27 @@ class UserMongoRepositoryAdapter implements UserRepository {
     private final UserMongoRepository userMongoRepository;
 
     @Override
+    @Caching(
+            evict = {
+                @CacheEvict(value = CacheName.USERS_BY_ID, key = "#user.id"),
+                @CacheEvict(value = CacheName.USERS_BY_USERNAME, key = "#user.username")
+            })
     public User save(User user) {
         return userMongoRepository.save(user);
     }
 
     @Override
+    public Optional<User> insert(User user) {
+        try {
+            userMongoRepository.insert(user);
+            return Optional.of(user);
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @Cacheable(value = CacheName.USERS_BY_ID, unless = "#result == null")
     public Optional<User> findById(UUID id) {
         return userMongoRepository.findById(id);
     }
@@ -36,6 +58,7 @@ class UserMongoRepositoryAdapter implements UserRepository {
     }
 
     @Override
+    @Cacheable(value = CacheName.USERS_BY_USERNAME, unless = "#result == null")
     public Optional<User> findByUsername(String username) {
         return userMongoRepository.findByUsername(username);
     }
@@ -55,8 +78,14 @@ class UserMongoRepositoryAdapter implements UserRepository {
         return userMongoRepository.existsByEmailOrUsername(email, username);
     }
 
+    // The previous username is not known up front, so the whole username cache goes. Profile updates are rare.
     @Override
     @Transactional // MongoDB transactions require a replica set configuration
+    @Caching(
+            evict = {
+                @CacheEvict(value = CacheName.USERS_BY_ID, key = "#userId"),
+                @CacheEvict(value = CacheName.USERS_BY_USERNAME, allEntries = true)
+            })
     public User updateUserDetails(
             UUID userId,
             PasswordEncoder passwordEncoder,
@@ -75,12 +104,20 @@ class UserMongoRepositoryAdapter implements UserRepository {
                         throw new IllegalArgumentException("username is already exists.");
                     }
 
+                    long readVersion = user.profileVersion();
                     user.setEmail(email);
                     user.setUsername(username);
                     user.encryptPassword(passwordEncoder, password);
                     user.setBio(bio);
                     user.setImageUrl(imageUrl);
-                    return userMongoRepository.save(user);
+
+                    // Without a lock to hold, the write is conditional on the version, so that two edits made at
+                    // once cannot both store the same next version.
+                    if (user.profileVersion() != readVersion
+                            && userMongoRepository.updateProfile(user, readVersion) == 0) {
+                        throw new OptimisticLockingFailureException("the profile was updated concurrently.");
+                    }
+                    return user;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("user not found."));
     }
@@ -1,6 +1,10 @@
 package io.zhc1.realworld.persistence;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.context.annotation.Profile; // Added import
 import org.springframework.stereotype.Repository;
@@ -38,4 +42,12 @@ class UserRelationshipJpaRepositoryAdapter implements UserRelationshipRepository
     public boolean existsBy(User follower, User following) {
         return userFollowJpaRepository.existsByFollowerAndFollowing(follower, following);
     }
+
+    @Override
+    public Set<User> findFollowingAmong(User follower, Collection<User> candidates) {
+        Set<UUID> followingIds = userFollowJpaRepository.findFollowingIdsByFollowerAndFollowingIn(follower, candidates);
+        return candidates.stream()
+                .filter(candidate -> followingIds.contains(candidate.getId()))
+                .collect(Collectors.toSet());
+    }
 }
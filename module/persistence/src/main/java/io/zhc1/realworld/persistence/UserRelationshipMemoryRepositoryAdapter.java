@@ -0,0 +1,49 @@
+package io.zhc1.realworld.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserFollow;
+import io.zhc1.realworld.model.UserRelationshipRepository;
+
+@Profile("memory")
+@Component("userRelationshipMemoryRepositoryAdapter")
+@RequiredArgsConstructor
+class UserRelationshipMemoryRepositoryAdapter implements UserRelationshipRepository {
+    private final MemoryStore memoryStore;
+
+    @Override
+    public void save(UserFollow userFollow) {
+        memoryStore.saveFollow(userFollow);
+    }
+
+    @Override
+    public List<UserFollow> findByFollower(User follower) {
+        return memoryStore.findFollows(follower);
+    }
+
+    @Override
+    public void deleteBy(User follower, User following) {
+        memoryStore.deleteFollow(follower, following);
+    }
+
+    @Override
+    public boolean existsBy(User follower, User following) {
+        return memoryStore.isFollowing(follower, following);
+    }
+
+    @Override
+    public Set<User> findFollowingAmong(User follower, Collection<User> candidates) {
+        return candidates.stream()
+                .filter(candidate -> memoryStore.isFollowing(follower, candidate))
+                .collect(Collectors.toSet());
+    }
+}
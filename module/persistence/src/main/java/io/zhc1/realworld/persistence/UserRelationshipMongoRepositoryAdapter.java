@@ -1,8 +1,16 @@
 package io.zhc1.realworld.persistence;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.bson.Document;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +26,7 @@ import io.zhc1.realworld.model.UserRelationshipRepository;
 class UserRelationshipMongoRepositoryAdapter implements UserRelationshipRepository {
 
     private final UserFollowMongoRepository userFollowMongoRepository;
+    private final MongoTemplate mongoTemplate;
 
     @Override
     public void save(UserFollow userFollow) {
@@ -39,4 +48,18 @@ class UserRelationshipMongoRepositoryAdapter implements UserRelationshipReposito
     public boolean existsBy(User follower, User following) {
         return userFollowMongoRepository.existsByFollowerAndFollowing(follower, following);
     }
+
+    @Override
+    public Set<User> findFollowingAmong(User follower, Collection<User> candidates) {
+        // Reads the raw references, the derived query would resolve both users of every follow
+        Query query = new Query(Criteria.where("follower").is(follower).and("following").in(candidates));
+        query.fields().include("following");
+
+        Set<UUID> followingIds = mongoTemplate.query(UserFollow.class).as(Document.class).matching(query).all().stream()
+                .map(follow -> DbRefs.id(follow.get("following"), UUID.class))
+                .collect(Collectors.toSet());
+        return candidates.stream()
+                .filter(candidate -> followingIds.contains(candidate.getId()))
+                .collect(Collectors.toSet());
+    }
 }
@@ -8,9 +8,14 @@ create table article
     slug        varchar(50)   not null unique,
     title       varchar(50)   not null unique,
     content     varchar(1000) not null,
+    favorites_count integer default 0,
+    favorites_version bigint default 0,
     primary key (id)
 );
 
+create index idx_article_created_at on article (created_at desc, id desc);
+create index idx_article_author_created_at on article (author_id, created_at desc, id desc);
+
 create table article_favorite
 (
     article_id integer,
@@ -67,6 +72,7 @@ create table users
     image_url  varchar(200),
     password   varchar(200) not null,
     bio        varchar(500),
+    profile_version bigint default 0 not null,
     primary key (id)
 );
 
@@ -0,0 +1,154 @@
+package io.zhc1.realworld.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.ArticleCommentsVersion;
+import io.zhc1.realworld.model.ArticleCursor;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.ArticleFavorite;
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserFollow;
+
+@DisplayName("Article Memory Repository Adapter - Indexed In-Memory Articles")
+class ArticleMemoryRepositoryAdapterTest {
+    private MemoryStore memoryStore;
+    private ArticleMemoryRepositoryAdapter sut;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        memoryStore = new MemoryStore();
+        sut = new ArticleMemoryRepositoryAdapter(memoryStore);
+        alice = memoryStore.saveUser(new User("alice@realworld.io", "alice", "password"));
+        bob = memoryStore.saveUser(new User("bob@realworld.io", "bob", "password"));
+    }
+
+    @Test
+    @DisplayName("Facets are alternatives and pages are read newest first, by page or by cursor")
+    void whenFindAllByFacets_thenShouldMergeMatchingArticlesNewestFirst() {
+        // given
+        Article first = sut.save(new Article(alice, "first", "description", "content"), Set.of(new Tag("java")));
+        Article second = sut.save(new Article(bob, "second", "description", "content"), Set.of(new Tag("java")));
+        Article third = sut.save(new Article(bob, "third", "description", "content"), Set.of(new Tag("mongo")));
+        Article fourth = sut.save(new Article(bob, "fourth", "description", "content"));
+        new ArticleFavoriteMemoryRepositoryAdapter(memoryStore).save(new ArticleFavorite(alice, fourth));
+
+        // when & then
+        assertEquals(List.of(fourth, third, second, first), sut.findAll(new ArticleFacets(0, 20)));
+        assertEquals(List.of(second, first), sut.findAll(new ArticleFacets("java", null, null, 0, 20)));
+        assertEquals(
+                List.of(fourth, second, first), sut.findAll(new ArticleFacets("java", null, "alice", 0, 20)));
+        assertEquals(List.of(third), sut.findAll(new ArticleFacets("mongo", "nobody", null, 0, 20)));
+        assertEquals(List.of(), sut.findAll(new ArticleFacets("unknown", "nobody", null, 0, 20)));
+        assertEquals(List.of(second, first), sut.findAll(new ArticleFacets(1, 2)));
+
+        List<Article> byCursor = new ArrayList<>();
+        ArticleCursor cursor = null;
+        List<Article> page;
+        do {
+            page = sut.findAll(new ArticleFacets(null, "bob", null, 0, 2, cursor));
+            byCursor.addAll(page);
+            cursor = page.isEmpty() ? cursor : ArticleCursor.of(page.getLast());
+        } while (!page.isEmpty());
+        assertEquals(List.of(fourth, third, second), byCursor);
+    }
+
+    @Test
+    @DisplayName("Counts cover every page, and articles matching several facets are counted once")
+    void whenCountByFacets_thenShouldCountEachMatchingArticleOnce() {
+        // given
+        sut.save(new Article(alice, "first", "description", "content"), Set.of(new Tag("java")));
+        sut.save(new Article(bob, "second", "description", "content"), Set.of(new Tag("java")));
+        sut.save(new Article(bob, "third", "description", "content"), Set.of(new Tag("mongo")));
+
+        // when & then
+        assertEquals(3, sut.count(new ArticleFacets(0, 1)));
+        assertEquals(2, sut.count(new ArticleFacets("java", null, null, 1, 1)));
+        assertEquals(3, sut.count(new ArticleFacets("java", "bob", null, 0, 20)));
+        assertEquals(0, sut.count(new ArticleFacets("unknown", "nobody", null, 0, 20)));
+    }
+
+    @Test
+    @DisplayName("Renamed articles are found by their new slug only and titles stay unique")
+    void whenArticleIsRenamed_thenShouldReindexSlugAndTitle() {
+        // given
+        Article article = sut.save(new Article(alice, "old title", "description", "content"));
+        sut.save(new Article(alice, "taken", "description", "content"));
+
+        // when
+        article.setTitle("new title");
+        sut.save(article);
+
+        // then
+        assertTrue(sut.findBySlug("old-title").isEmpty());
+        assertEquals(article, sut.findBySlug("new-title").orElseThrow());
+        assertFalse(sut.existsBy("old title"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> sut.save(new Article(bob, "taken", "description", "content")));
+    }
+
+    @Test
+    @DisplayName("The comments version moves as comments are written and deleted and as commenters edit profiles")
+    void whenCommentsOrCommentersChange_thenCommentsVersionShouldChange() {
+        // given
+        Article article = sut.save(new Article(alice, "title", "description", "content"));
+        ArticleCommentMemoryRepositoryAdapter comments = new ArticleCommentMemoryRepositoryAdapter(memoryStore);
+        assertEquals(ArticleCommentsVersion.NONE, comments.findVersionByArticle(article));
+        ArticleComment first = comments.save(new ArticleComment(article, bob, "first"));
+        comments.save(new ArticleComment(article, alice, "second"));
+        ArticleCommentsVersion written = comments.findVersionByArticle(article);
+
+        // when
+        bob.setBio("bio");
+        ArticleCommentsVersion edited = comments.findVersionByArticle(article);
+        comments.delete(first);
+        ArticleCommentsVersion deleted = comments.findVersionByArticle(article);
+
+        // then
+        assertEquals(2, written.count());
+        assertTrue(edited.authorsProfileVersion() > written.authorsProfileVersion());
+        assertEquals(1, deleted.count());
+    }
+
+    @Test
+    @DisplayName("Deleting an article removes its comments, favorites and feed entries")
+    void whenArticleIsDeleted_thenShouldRemoveItFromEveryIndex() {
+        // given
+        Article article = sut.save(new Article(alice, "title", "description", "content"), Set.of(new Tag("java")));
+        ArticleFavoriteMemoryRepositoryAdapter favorites = new ArticleFavoriteMemoryRepositoryAdapter(memoryStore);
+        ArticleCommentMemoryRepositoryAdapter comments = new ArticleCommentMemoryRepositoryAdapter(memoryStore);
+        TimelineMemoryRepositoryAdapter timelines = new TimelineMemoryRepositoryAdapter(memoryStore);
+        favorites.save(new ArticleFavorite(bob, article));
+        ArticleComment comment = comments.save(new ArticleComment(article, bob, "comment"));
+        memoryStore.saveFollow(new UserFollow(bob, alice));
+        assertEquals(1, article.getFavoritesCount());
+        assertTrue(sut.findArticleDetails(bob, article).favorited());
+        assertEquals(List.of(article), timelines.findFeed(bob, new ArticleFacets(0, 20)));
+
+        // when
+        sut.delete(article);
+
+        // then
+        assertTrue(sut.findBySlug("title").isEmpty());
+        assertFalse(favorites.existsBy(bob, article));
+        assertTrue(comments.findById(comment.getId()).isEmpty());
+        assertEquals(List.of(), sut.findAll(new ArticleFacets("java", null, "bob", 0, 20)));
+        assertEquals(List.of(), timelines.findFeed(bob, new ArticleFacets(0, 20)));
+    }
+}
@@ -0,0 +1,322 @@
+package io.zhc1.realworld.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import io.zhc1.realworld.config.MongoPersistenceProperties.TagStorage;
+import io.zhc1.realworld.diagnostics.RoundTripBudget;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleCursor;
+import io.zhc1.realworld.model.ArticleDetails;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.ArticleFavorite;
+import io.zhc1.realworld.model.ArticleTag;
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.User;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Article Mongo Repository Adapter - Aggregation Parity")
+class ArticleMongoRepositoryAdapterTest extends MongoContainerTestSupport {
+    private UserMongoRepository userMongoRepository;
+    private TagMongoRepository tagMongoRepository;
+    private ArticleTagMongoRepository articleTagMongoRepository;
+    private ArticleFavoriteMongoRepository articleFavoriteMongoRepository;
+    private List<User> authors;
+
+    @BeforeEach
+    void setUp() {
+        userMongoRepository = repository(UserMongoRepository.class);
+        tagMongoRepository = repository(TagMongoRepository.class);
+        articleTagMongoRepository = repository(ArticleTagMongoRepository.class);
+        articleFavoriteMongoRepository = repository(ArticleFavoriteMongoRepository.class);
+
+        User alice = mongoTemplate.insert(new User("alice@realworld.io", "alice", "password"));
+        User bob = mongoTemplate.insert(new User("bob@realworld.io", "bob", "password"));
+        User carol = mongoTemplate.insert(new User("carol@realworld.io", "carol", "password"));
+        authors = List.of(alice, bob, carol);
+
+        Tag java = mongoTemplate.insert(new Tag("java"));
+        Tag spring = mongoTemplate.insert(new Tag("spring"));
+        Tag mongo = mongoTemplate.insert(new Tag("mongo"));
+        List<Tag> tags = List.of(java, spring, mongo);
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        int articleTagId = 0;
+        int favoriteId = 0;
+        for (int i = 1; i <= 12; i++) {
+            Article article = new Article(authors.get(i % 3), "title " + i, "description " + i, "content " + i);
+            withField(article, "id", i);
+            withField(article, "createdAt", now.minusMinutes((i * 7L) % 12));
+
+            if (i % 2 == 0) {
+                article.addTag(withField(new ArticleTag(article, java), "id", ++articleTagId));
+            }
+            if (i % 3 == 0) {
+                article.addTag(withField(new ArticleTag(article, tags.get(i % 2 + 1)), "id", ++articleTagId));
+            }
+            mongoTemplate.insert(article);
+            article.getArticleTags().forEach(mongoTemplate::insert);
+
+            if (i % 4 != 1) {
+                ArticleFavorite favorite = new ArticleFavorite(authors.get((i + 1) % 3), article);
+                mongoTemplate.insert(withField(favorite, "id", ++favoriteId));
+            }
+        }
+    }
+
+    static Stream<Arguments> facets() {
+        return Stream.of(TagStorage.values())
+                .flatMap(tagStorage -> Stream.of(
+                                new ArticleFacets(null, null, null, 0, 20),
+                                new ArticleFacets(null, null, null, 1, 5),
+                                new ArticleFacets("java", null, null, 0, 20),
+                                new ArticleFacets("spring", null, null, 0, 2),
+                                new ArticleFacets("unknown", null, null, 0, 20),
+                                new ArticleFacets(null, "alice", null, 0, 20),
+                                new ArticleFacets(null, "nobody", null, 0, 20),
+                                new ArticleFacets(null, null, "bob", 0, 20),
+                                new ArticleFacets(null, null, "nobody", 0, 20),
+                                new ArticleFacets("mongo", "carol", null, 0, 20),
+                                new ArticleFacets("java", "bob", "alice", 0, 3),
+                                new ArticleFacets("java", "bob", "alice", 1, 3),
+                                new ArticleFacets("  ", "", "carol", 0, 20))
+                        .map(facets -> Arguments.of(tagStorage, facets)));
+    }
+
+    @DisplayName("Aggregation-based findAll returns the same articles in the same order as the client-side join")
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("facets")
+    void whenFindAll_thenShouldMatchClientSideJoin(TagStorage tagStorage, ArticleFacets facets) {
+        // given
+        if (tagStorage == TagStorage.EMBEDDED) {
+            new ArticleTagsMigration(mongoTemplate).migrate();
+        }
+        ArticleMongoRepositoryAdapter sut = adapter(tagStorage);
+
+        // when
+        List<Integer> actual = sut.findAll(facets).stream().map(Article::getId).toList();
+
+        // then
+        List<Integer> expected =
+                clientSideJoinFindAll(facets).stream().map(Article::getId).toList();
+        assertEquals(expected, actual);
+    }
+
+    @DisplayName("Counts from the list aggregation and from a count alone match the client-side join")
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("facets")
+    void whenCount_thenShouldMatchClientSideJoin(TagStorage tagStorage, ArticleFacets facets) {
+        // given
+        if (tagStorage == TagStorage.EMBEDDED) {
+            new ArticleTagsMigration(mongoTemplate).migrate();
+        }
+        ArticleMongoRepositoryAdapter counting = adapter(tagStorage);
+        ArticleMongoRepositoryAdapter listing = adapter(tagStorage);
+
+        // when
+        long counted = counting.count(facets);
+        listing.findAll(facets);
+        long listed = listing.count(facets);
+
+        // then
+        long expected = clientSideJoinFindAll(
+                        new ArticleFacets(facets.tag(), facets.author(), facets.favorited(), 0, 50))
+                .size();
+        assertEquals(expected, counted);
+        assertEquals(expected, listed);
+    }
+
+    @DisplayName("Walking pages by cursor returns the same articles as one large page")
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(TagStorage.class)
+    void whenPagingByCursor_thenShouldMatchSinglePage(TagStorage tagStorage) {
+        // given
+        if (tagStorage == TagStorage.EMBEDDED) {
+            new ArticleTagsMigration(mongoTemplate).migrate();
+        }
+        ArticleMongoRepositoryAdapter sut = adapter(tagStorage);
+        List<Integer> expected = sut.findAll(new ArticleFacets("java", null, "bob", 0, 50)).stream()
+                .map(Article::getId)
+                .toList();
+
+        // when
+        List<Integer> actual = new ArrayList<>();
+        ArticleCursor cursor = null;
+        List<Article> page;
+        do {
+            page = sut.findAll(new ArticleFacets("java", null, "bob", 0, 2, cursor));
+            page.stream().map(Article::getId).forEach(actual::add);
+            cursor = page.isEmpty() ? cursor : ArticleCursor.of(page.getLast());
+        } while (!page.isEmpty());
+
+        // then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @RoundTripBudget(1)
+    @DisplayName("A first page filtered by tag, author and favorited is read with its count in one command")
+    void whenFindAllFilteredByEveryFacet_thenShouldReadPageAndCountInOneCommand() {
+        // given
+        ArticleMongoRepositoryAdapter sut = adapter(TagStorage.REFERENCED);
+        ArticleFacets facets = new ArticleFacets("java", "bob", "alice", 0, 3);
+
+        // when
+        List<Integer> actual = sut.findAll(facets).stream().map(Article::getId).toList();
+        long count = sut.count(facets);
+
+        // then
+        assertEquals(3, actual.size());
+        assertEquals(9, count);
+    }
+
+    @Test
+    @RoundTripBudget(1)
+    @DisplayName("Favorited flags of a whole page are read in one command")
+    void whenFindArticleDetailsOfPage_thenShouldReadFavoritesInOneCommand() {
+        // given
+        ArticleMongoRepositoryAdapter sut = adapter(TagStorage.REFERENCED);
+        User requester = authors.get(0);
+        List<Article> page = IntStream.rangeClosed(1, 12)
+                .mapToObj(id -> withField(
+                        new Article(authors.get(id % 3), "title " + id, "description", "content"), "id", id))
+                .toList();
+
+        // when
+        List<Integer> favorited = sut.findArticleDetails(requester, page).stream()
+                .filter(ArticleDetails::favorited)
+                .map(details -> details.article().getId())
+                .toList();
+
+        // then
+        assertEquals(List.of(2, 8, 11), favorited);
+    }
+
+    @Test
+    @DisplayName("Saving an existing article with embedded tags keeps the favorites counted since it was read")
+    void whenSaveExistingArticleWithEmbeddedTags_thenShouldKeepFavoritesCount() {
+        // given
+        new ArticleTagsMigration(mongoTemplate).migrate();
+        ArticleMongoRepositoryAdapter sut = adapter(TagStorage.EMBEDDED);
+        Article article = mongoTemplate.findById(6, Article.class);
+        assertNotNull(article);
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(6)), new Update().inc("favoritesCount", 1), Article.class);
+        article.setDescription("edited");
+
+        // when
+        sut.save(article, List.of(new Tag("kotlin")));
+
+        // then
+        Article saved = mongoTemplate.findById(6, Article.class);
+        assertNotNull(saved);
+        assertEquals(article.getFavoritesCount() + 1, saved.getFavoritesCount());
+        assertEquals("edited", saved.getDescription());
+        assertEquals(List.of("kotlin"), saved.getTagList());
+    }
+
+    @Test
+    @DisplayName("Tag migration embeds the names of every article's join documents")
+    void whenMigrateArticleTags_thenShouldEmbedTagNames() {
+        // when
+        int migrated = new ArticleTagsMigration(mongoTemplate).migrate();
+
+        // then
+        assertEquals(8, migrated);
+        Article article = mongoTemplate.findById(6, Article.class);
+        assertNotNull(article);
+        assertEquals(List.of("java", "spring"), article.getTagList());
+        assertEquals(
+                Set.of("java", "spring"),
+                article.getArticleTags().stream()
+                        .map(articleTag -> articleTag.getTag().getName())
+                        .collect(Collectors.toSet()));
+    }
+
+    private ArticleMongoRepositoryAdapter adapter(TagStorage tagStorage) {
+        return new ArticleMongoRepositoryAdapter(
+                repository(ArticleMongoRepository.class),
+                tagMongoRepository,
+                articleTagMongoRepository,
+                repository(ArticleCommentMongoRepository.class),
+                articleFavoriteMongoRepository,
+                mongoTemplate,
+                properties(tagStorage),
+                new ConcurrentMapCacheManager());
+    }
+
+    /** Joins the facets on the client, one repository read each, as the reference the pipeline is checked against. */
+    private List<Article> clientSideJoinFindAll(ArticleFacets facets) {
+        Query query = new Query()
+                .with(PageRequest.of(facets.page(), facets.size(), Sort.by(Sort.Direction.DESC, "createdAt")));
+        List<Criteria> orCriteriaList = new ArrayList<>();
+
+        if (facets.author() != null && !facets.author().isBlank()) {
+            Optional<User> author = userMongoRepository.findByUsername(facets.author());
+            orCriteriaList.add(
+                    author.isPresent()
+                            ? Criteria.where("author").is(author.get())
+                            : Criteria.where("id").is(Integer.MIN_VALUE));
+        }
+
+        if (facets.tag() != null && !facets.tag().isBlank()) {
+            List<Integer> articleIds = tagMongoRepository
+                    .findById(facets.tag())
+                    .map(tag -> articleTagMongoRepository.findByTag(tag).stream()
+                            .map(articleTag -> articleTag.getArticle().getId())
+                            .filter(Objects::nonNull)
+                            .distinct()
+                            .toList())
+                    .orElseGet(List::of);
+            orCriteriaList.add(idIn(articleIds));
+        }
+
+        if (facets.favorited() != null && !facets.favorited().isBlank()) {
+            List<Integer> articleIds = userMongoRepository
+                    .findByUsername(facets.favorited())
+                    .map(user -> articleFavoriteMongoRepository.findByUser(user).stream()
+                            .map(favorite -> favorite.getArticle().getId())
+                            .filter(Objects::nonNull)
+                            .distinct()
+                            .toList())
+                    .orElseGet(List::of);
+            orCriteriaList.add(idIn(articleIds));
+        }
+
+        if (!orCriteriaList.isEmpty()) {
+            query.addCriteria(new Criteria().orOperator(orCriteriaList.toArray(new Criteria[0])));
+        }
+        return mongoTemplate.find(query, Article.class);
+    }
+
+    private static Criteria idIn(List<Integer> articleIds) {
+        return articleIds.isEmpty()
+                ? Criteria.where("id").is(Integer.MIN_VALUE)
+                : Criteria.where("id").in(articleIds);
+    }
+}
@@ -0,0 +1,123 @@
+package io.zhc1.realworld.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import io.zhc1.realworld.config.MongoCommandMetrics;
+import io.zhc1.realworld.config.MongoCommandMetrics.CommandStats;
+import io.zhc1.realworld.model.User;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Mongo Command Metrics - Latency Histograms and Slow Command Log")
+class MongoCommandMetricsTest extends MongoContainerTestSupport {
+    private MongoCommandMetrics metrics;
+    private SimpleMeterRegistry meterRegistry;
+    private MongoClient instrumentedClient;
+    private UserMongoRepositoryAdapter sut;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new MongoCommandMetrics(Duration.ZERO, meterRegistry);
+        instrumentedClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl()))
+                .uuidRepresentation(UuidRepresentation.JAVA_LEGACY)
+                .addCommandListener(metrics)
+                .build());
+        MongoTemplate instrumentedTemplate = new MongoTemplate(
+                new SimpleMongoClientDatabaseFactory(instrumentedClient, mongoTemplate.getDb().getName()));
+        sut = new UserMongoRepositoryAdapter(
+                new MongoRepositoryFactory(instrumentedTemplate).getRepository(UserMongoRepository.class));
+
+        mongoTemplate.insert(new User("alice@realworld.io", "alice", "password"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        instrumentedClient.close();
+    }
+
+    @Test
+    @DisplayName("Every command is counted in the histogram of its collection and command")
+    void whenCommandsComplete_thenShouldRecordThemPerCollectionAndCommand() {
+        // when
+        for (int i = 0; i < 5; i++) {
+            sut.findByUsername("alice");
+        }
+
+        // then
+        CommandStats finds = metrics.stats("users", "find").orElseThrow();
+        assertEquals(5, finds.count());
+        assertEquals(0, finds.failures());
+        assertEquals(5, Arrays.stream(finds.buckets()).sum());
+        assertTrue(finds.max().compareTo(finds.mean()) >= 0);
+        assertTrue(finds.percentile(50).compareTo(finds.percentile(99)) <= 0);
+        assertTrue(metrics.snapshot().stream()
+                .map(CommandStats::collection)
+                .toList()
+                .contains("users"));
+        assertEquals(
+                5,
+                meterRegistry
+                        .get(MongoCommandMetrics.TIMER)
+                        .tags("collection", "users", "command", "find", "status", "SUCCESS")
+                        .timer()
+                        .count());
+    }
+
+    @Test
+    @DisplayName("Cursor continuations are counted under the collection of their cursor")
+    void whenCursorIsIterated_thenGetMoreShouldBeRecordedUnderItsCollection() {
+        // given
+        mongoTemplate.insert(new User("bob@realworld.io", "bob", "password"));
+        mongoTemplate.insert(new User("carol@realworld.io", "carol", "password"));
+
+        // when
+        instrumentedClient
+                .getDatabase(mongoTemplate.getDb().getName())
+                .getCollection("users")
+                .find()
+                .batchSize(1)
+                .into(new ArrayList<>());
+
+        // then
+        assertTrue(metrics.stats("users", "getMore").orElseThrow().count() >= 2);
+        assertTrue(metrics.stats("", "getMore").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Reset forgets the recorded commands")
+    void whenReset_thenShouldForgetRecordedCommands() {
+        // given
+        sut.findByUsername("alice");
+
+        // when
+        metrics.reset();
+
+        // then
+        assertTrue(metrics.stats("users", "find").isEmpty());
+        assertEquals(List.of(), metrics.snapshot());
+    }
+}
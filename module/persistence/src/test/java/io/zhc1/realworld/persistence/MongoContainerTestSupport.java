@@ -0,0 +1,108 @@
+package io.zhc1.realworld.persistence;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.BsonDocument;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.utility.DockerImageName;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import io.zhc1.realworld.config.MongoPersistenceProperties;
+import io.zhc1.realworld.config.MongoPersistenceProperties.Commands;
+import io.zhc1.realworld.config.MongoPersistenceProperties.Indexes;
+import io.zhc1.realworld.config.MongoPersistenceProperties.Sequences;
+import io.zhc1.realworld.config.MongoPersistenceProperties.TagStorage;
+import io.zhc1.realworld.config.MongoPersistenceProperties.Timelines;
+import io.zhc1.realworld.config.RoundTripCommandListener;
+
+/**
+ * Base class for tests running against a real MongoDB server.
+ *
+ * <p>Subclasses must be annotated with {@code @Testcontainers(disabledWithoutDocker = true)} so that they are skipped
+ * on machines without Docker. The database is dropped before every test.
+ */
+abstract class MongoContainerTestSupport {
+    private static final String DATABASE = "realworld-test";
+
+    static final Indexes INDEXES = new Indexes(true, true, false);
+    static final Sequences SEQUENCES = new Sequences(100);
+    static final Timelines TIMELINES = new Timelines(800, 10_000, 100);
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+
+    /** Commands sent to the server since the start of the current test. */
+    static final List<BsonDocument> COMMANDS = new CopyOnWriteArrayList<>();
+
+    private static MongoClient client;
+
+    MongoTemplate mongoTemplate;
+    MongoRepositoryFactory repositoryFactory;
+
+    @BeforeEach
+    void setUpMongo() {
+        if (client == null) {
+            client = MongoClients.create(MongoClientSettings.builder()
+                    .applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl()))
+                    .uuidRepresentation(UuidRepresentation.JAVA_LEGACY)
+                    .addCommandListener(new CommandListener() {
+                        @Override
+                        public void commandStarted(CommandStartedEvent event) {
+                            COMMANDS.add(event.getCommand().clone());
+                        }
+                    })
+                    .addCommandListener(new RoundTripCommandListener())
+                    .build());
+        }
+
+        COMMANDS.clear();
+        client.getDatabase(DATABASE).drop();
+        mongoTemplate = new MongoTemplate(new SimpleMongoClientDatabaseFactory(client, DATABASE));
+        repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+    }
+
+    <T> T repository(Class<T> repositoryInterface) {
+        return repositoryFactory.getRepository(repositoryInterface);
+    }
+
+    /** Returns the properties bound by default, apart from the tag storage. */
+    static MongoPersistenceProperties properties(TagStorage tagStorage) {
+        return properties(tagStorage, INDEXES, SEQUENCES, TIMELINES);
+    }
+
+    /**
+     * Returns the properties the adapters under test are configured with. Options no test varies are set here only, so
+     * that adding one does not touch every test.
+     */
+    static MongoPersistenceProperties properties(
+            TagStorage tagStorage, Indexes indexes, Sequences sequences, Timelines timelines) {
+        return new MongoPersistenceProperties(
+                tagStorage, indexes, sequences, timelines, new Commands(true, Duration.ofMillis(100)));
+    }
+
+    static <T> T withField(T target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+            return target;
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package io.zhc1.realworld.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import io.zhc1.realworld.config.MongoPersistenceProperties.Indexes;
+import io.zhc1.realworld.config.MongoPersistenceProperties.TagStorage;
+import io.zhc1.realworld.config.MongoPersistenceProperties.Timelines;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.ArticleCursor;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.ArticleFavorite;
+import io.zhc1.realworld.model.ArticleTag;
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserFollow;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Mongo Index Manager - Index Reconciliation and Query Plans")
+class MongoIndexManagerTest extends MongoContainerTestSupport {
+    private static final Set<String> EXPLAINABLE =
+            Set.of("find", "aggregate", "count", "distinct", "delete", "update", "findAndModify");
+
+    @Test
+    @DisplayName("Reconcile creates every declared index once")
+    void whenReconcile_thenShouldCreateMissingIndexesOnlyOnce() {
+        // given
+        MongoIndexManager sut = indexManager(false);
+
+        // when
+        List<String> created = sut.reconcile();
+        List<String> recreated = sut.reconcile();
+
+        // then
+        assertEquals(
+                MongoIndexManager.INDEXES.stream()
+                        .map(MongoIndexManager.ManagedIndex::name)
+                        .toList(),
+                created);
+        assertEquals(List.of(), recreated);
+    }
+
+    @Test
+    @DisplayName("Reconcile keeps undeclared indexes unless dropping them is enabled")
+    void whenReconcileWithUnknownIndex_thenShouldDropItOnlyWhenEnabled() {
+        // given
+        mongoTemplate.getCollection("articles").createIndex(new Document("description", 1));
+
+        // when
+        indexManager(false).reconcile();
+
+        // then
+        assertTrue(indexNames("articles").contains("description_1"));
+
+        // when
+        indexManager(true).reconcile();
+
+        // then
+        assertFalse(indexNames("articles").contains("description_1"));
+    }
+
+    @Test
+    @DisplayName("The unique user indexes are created before the application serves requests")
+    void whenSingletonsAreInstantiated_thenShouldCreateRequiredIndexes() {
+        // when
+        indexManager(false).afterSingletonsInstantiated();
+
+        // then
+        assertTrue(indexNames("users").containsAll(MongoIndexManager.REQUIRED.stream()
+                .map(MongoIndexManager.ManagedIndex::name)
+                .toList()));
+    }
+
+    @Test
+    @DisplayName("Startup fails when duplicate users keep the unique user indexes from being created")
+    void whenUsersHoldDuplicates_thenShouldFailStartup() {
+        // given
+        mongoTemplate.getCollection("users").insertOne(new Document("email", "alice@realworld.io"));
+        mongoTemplate.getCollection("users").insertOne(new Document("email", "alice@realworld.io"));
+
+        // when & then
+        assertThrows(IllegalStateException.class, () -> indexManager(false).afterSingletonsInstantiated());
+    }
+
+    @Test
+    @DisplayName("No query issued by the Mongo adapters is planned as a collection scan")
+    void whenRunningAdapterQueries_thenNoPlanShouldBeACollectionScan() {
+        // given
+        indexManager(false).reconcile();
+
+        User alice = mongoTemplate.insert(new User("alice@realworld.io", "alice", "password"));
+        User bob = mongoTemplate.insert(new User("bob@realworld.io", "bob", "password"));
+        Tag java = mongoTemplate.insert(new Tag("java"));
+        Article article = withField(new Article(alice, "title", "description", "content"), "id", 1);
+        mongoTemplate.insert(article);
+        mongoTemplate.insert(withField(new ArticleTag(article, java), "id", 1));
+        ArticleComment comment = withField(new ArticleComment(article, bob, "comment"), "id", 1);
+        mongoTemplate.insert(comment);
+        mongoTemplate.insert(withField(new UserFollow(bob, alice), "id", 1));
+
+        UserMongoRepositoryAdapter users = new UserMongoRepositoryAdapter(repository(UserMongoRepository.class));
+        UserRelationshipMongoRepositoryAdapter relationships = new UserRelationshipMongoRepositoryAdapter(
+                repository(UserFollowMongoRepository.class), mongoTemplate);
+        ArticleCommentMongoRepositoryAdapter comments =
+                new ArticleCommentMongoRepositoryAdapter(repository(ArticleCommentMongoRepository.class));
+        ArticleFavoriteMongoRepositoryAdapter favorites = new ArticleFavoriteMongoRepositoryAdapter(
+                repository(ArticleFavoriteMongoRepository.class), mongoTemplate);
+        COMMANDS.clear();
+
+        // when
+        users.findById(alice.getId());
+        users.findByEmail("alice@realworld.io");
+        users.findByUsername("alice");
+        users.existsByEmail("alice@realworld.io");
+        users.existsByUsername("alice");
+        users.existsBy("alice@realworld.io", "alice");
+
+        ArticleFacets firstPage = new ArticleFacets(0, 20);
+        ArticleFacets afterCursor = new ArticleFacets(null, null, null, 0, 20, ArticleCursor.of(article));
+        timelineAdapter(1, 10_000).findFeed(bob, firstPage);
+        TimelineMongoRepositoryAdapter timelines = timelineAdapter(800, 10_000);
+        timelines.publish(article);
+        timelines.follow(bob, alice);
+        timelines.findFeed(bob, afterCursor);
+        timelines.unfollow(bob, alice);
+        timelines.withdraw(article);
+        TimelineMongoRepositoryAdapter celebrities = timelineAdapter(800, 0);
+        celebrities.publish(article);
+        celebrities.follow(bob, alice);
+        celebrities.findFeed(bob, firstPage);
+
+        relationships.existsBy(bob, alice);
+        relationships.findByFollower(bob);
+        relationships.findFollowingAmong(bob, List.of(alice, bob));
+        relationships.deleteBy(bob, alice);
+
+        comments.findById(1);
+        comments.findByArticle(article);
+        comments.delete(comment);
+
+        favorites.save(withField(new ArticleFavorite(bob, article), "id", 1));
+        favorites.existsBy(bob, article);
+        favorites.deleteBy(bob, article);
+
+        ArticleCursor cursor = ArticleCursor.of(article);
+        for (TagStorage tagStorage : TagStorage.values()) {
+            ArticleMongoRepositoryAdapter articles = articleAdapter(tagStorage);
+            articles.findAll(new ArticleFacets(null, null, null, 0, 20));
+            articles.findAll(new ArticleFacets("java", null, null, 0, 20));
+            articles.findAll(new ArticleFacets("java", "alice", "bob", 0, 20));
+            articles.findBySlug(article.getSlug());
+            articles.findByAuthors(List.of(alice, bob), new ArticleFacets(0, 20));
+            articles.findAll(new ArticleFacets(null, null, null, 0, 20, cursor));
+            articles.findAll(new ArticleFacets("java", null, null, 0, 20, cursor));
+            articles.findByAuthors(List.of(alice, bob), new ArticleFacets(null, null, null, 0, 20, cursor));
+            articles.findArticleDetails(bob, article);
+            articles.findArticleDetails(bob, List.of(article));
+            articles.existsBy("title");
+            articles.save(article);
+        }
+        new ArticleFavoritesCountReconciler(mongoTemplate).reconcileAll();
+        articleAdapter(TagStorage.REFERENCED).delete(article);
+
+        // then
+        assertEquals(List.of(), collectionScans());
+    }
+
+    @Test
+    @DisplayName("The embedded tag index orders pages by creation date and id without sorting in memory")
+    void whenListingByEmbeddedTag_thenTagIndexShouldServeTheSort() {
+        // given
+        indexManager(false).reconcile();
+        Document find = new Document("find", "articles")
+                .append("filter", new Document("tagList", "java"))
+                .append("sort", new Document("createdAt", -1).append("_id", -1))
+                .append("hint", "ix_articles_tag_list_created_at_id")
+                .append("limit", 20);
+
+        // when
+        Document explain = mongoTemplate
+                .getDb()
+                .runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+
+        // then
+        assertFalse(containsStage(explain, "SORT"));
+    }
+
+    private MongoIndexManager indexManager(boolean dropUnknown) {
+        return new MongoIndexManager(
+                mongoTemplate,
+                properties(TagStorage.REFERENCED, new Indexes(true, true, dropUnknown), SEQUENCES, TIMELINES));
+    }
+
+    private TimelineMongoRepositoryAdapter timelineAdapter(int capacity, int celebrityFollowers) {
+        return new TimelineMongoRepositoryAdapter(
+                mongoTemplate,
+                properties(
+                        TagStorage.REFERENCED, INDEXES, SEQUENCES, new Timelines(capacity, celebrityFollowers, 100)));
+    }
+
+    private ArticleMongoRepositoryAdapter articleAdapter(TagStorage tagStorage) {
+        return new ArticleMongoRepositoryAdapter(
+                repository(ArticleMongoRepository.class),
+                repository(TagMongoRepository.class),
+                repository(ArticleTagMongoRepository.class),
+                repository(ArticleCommentMongoRepository.class),
+                repository(ArticleFavoriteMongoRepository.class),
+                mongoTemplate,
+                properties(tagStorage),
+                new ConcurrentMapCacheManager());
+    }
+
+    private List<String> indexNames(String collection) {
+        return mongoTemplate
+                .getCollection(collection)
+                .listIndexes()
+                .map(index -> index.getString("name"))
+                .into(new ArrayList<>());
+    }
+
+    /** Explains every recorded query and returns the ones whose winning plan scans a whole collection. */
+    private List<String> collectionScans() {
+        List<String> scans = new ArrayList<>();
+        for (BsonDocument command : List.copyOf(COMMANDS)) {
+            if (!EXPLAINABLE.contains(command.getFirstKey())) {
+                continue;
+            }
+
+            for (BsonDocument statement : statements(command)) {
+                Document explain = mongoTemplate
+                        .getDb()
+                        .runCommand(new Document("explain", statement).append("verbosity", "queryPlanner"));
+                if (containsStage(explain, "COLLSCAN")) {
+                    scans.add(statement.toJson());
+                }
+            }
+        }
+        return scans;
+    }
+
+    /** Strips the driver's session fields and splits write commands, which explain accepts one statement at a time. */
+    private static List<BsonDocument> statements(BsonDocument command) {
+        BsonDocument stripped = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                stripped.append(key, value);
+            }
+        });
+
+        String batch = switch (command.getFirstKey()) {
+            case "update" -> "updates";
+            case "delete" -> "deletes";
+            default -> null;
+        };
+        if (batch == null) {
+            return List.of(stripped);
+        }
+
+        return stripped.getArray(batch).stream()
+                .map(statement -> stripped.clone().append(batch, new BsonArray(List.of(statement))))
+                .toList();
+    }
+
+    /** Tells whether the explained plan, leaving out the rejected ones, has a stage of the given name. */
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals("rejectedPlans"))
+                    .anyMatch(entry -> containsStage(entry.getValue(), stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(element -> containsStage(element, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package io.zhc1.realworld.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import io.zhc1.realworld.config.MongoPersistenceProperties.Sequences;
+import io.zhc1.realworld.config.MongoPersistenceProperties.TagStorage;
+
+@DisplayName("Sequence Generator Service - Block Allocation")
+class SequenceGeneratorServiceTest {
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Test
+    @DisplayName("Ids are handed out from a reserved block until it is exhausted")
+    void whenGenerateSequence_thenShouldReserveOneBlockPerBlockSizeIds() {
+        // given
+        SequenceGeneratorService sut = sequenceGenerator(3);
+
+        // when
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(sut.generateSequence("article"));
+        }
+
+        // then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids);
+        verifyReservations(3);
+    }
+
+    @Test
+    @DisplayName("Ids continue after a counter written one id at a time")
+    void whenCounterAlreadyExists_thenShouldContinueAfterIt() {
+        // given
+        counters.put("article", new AtomicLong(41));
+        SequenceGeneratorService sut = sequenceGenerator(10);
+
+        // when
+        long first = sut.generateSequence("article");
+        long other = sut.generateSequence("comment");
+
+        // then
+        assertEquals(42, first);
+        assertEquals(1, other);
+        assertEquals(51, counters.get("article").get());
+    }
+
+    @Test
+    @DisplayName("Block size must be positive")
+    void whenBlockSizeIsNotPositive_thenShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> sequenceGenerator(0));
+    }
+
+    @Test
+    @DisplayName("64 concurrent writers receive unique ids with one round trip per block")
+    void whenContendedBy64Writers_thenShouldHandOutUniqueIdsWithOneRoundTripPerBlock() throws Exception {
+        // given
+        int writers = 64;
+        int idsPerWriter = 1_000;
+        int blockSize = 100;
+        SequenceGeneratorService sut = sequenceGenerator(blockSize);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        List<Future<long[]>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int writer = 0; writer < writers; writer++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long[] ids = new long[idsPerWriter];
+                    for (int i = 0; i < idsPerWriter; i++) {
+                        ids[i] = sut.generateSequence("article");
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+        }
+
+        // then
+        List<Long> ids = new ArrayList<>();
+        for (Future<long[]> result : results) {
+            LongStream.of(result.get()).forEach(ids::add);
+        }
+        assertEquals(
+                LongStream.rangeClosed(1, (long) writers * idsPerWriter).boxed().toList(),
+                ids.stream().sorted().toList());
+        verifyReservations(writers * idsPerWriter / blockSize);
+    }
+
+    private void verifyReservations(int count) {
+        verify(mongoOperations, times(count))
+                .findAndModify(any(Query.class), any(Update.class), any(), eq(DatabaseSequence.class));
+    }
+
+    /** Backs the sequences with in-memory counters that apply the {@code $inc} of each reservation. */
+    private SequenceGeneratorService sequenceGenerator(int blockSize) {
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), any(), eq(DatabaseSequence.class)))
+                .thenAnswer(invocation -> {
+                    Query query = invocation.getArgument(0);
+                    Update update = invocation.getArgument(1);
+                    String name = query.getQueryObject().getString("_id");
+                    long increment = update.getUpdateObject()
+                            .get("$inc", Document.class)
+                            .get("seq", Number.class)
+                            .longValue();
+
+                    DatabaseSequence sequence = new DatabaseSequence();
+                    sequence.setId(name);
+                    sequence.setSeq(counters.computeIfAbsent(name, key -> new AtomicLong())
+                            .addAndGet(increment));
+                    return sequence;
+                });
+
+        return new SequenceGeneratorService(
+                mongoOperations,
+                MongoContainerTestSupport.properties(
+                        TagStorage.REFERENCED,
+                        MongoContainerTestSupport.INDEXES,
+                        new Sequences(blockSize),
+                        MongoContainerTestSupport.TIMELINES));
+    }
+}
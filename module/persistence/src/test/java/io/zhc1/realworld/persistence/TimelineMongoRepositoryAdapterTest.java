@@ -0,0 +1,207 @@
+package io.zhc1.realworld.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import io.zhc1.realworld.config.MongoPersistenceProperties.TagStorage;
+import io.zhc1.realworld.config.MongoPersistenceProperties.Timelines;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleCursor;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserFollow;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Timeline Mongo Repository Adapter - Materialized Feeds")
+class TimelineMongoRepositoryAdapterTest extends MongoContainerTestSupport {
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private User reader;
+    private int articleId;
+    private int followId;
+
+    @BeforeEach
+    void setUp() {
+        alice = mongoTemplate.insert(new User("alice@realworld.io", "alice", "password"));
+        bob = mongoTemplate.insert(new User("bob@realworld.io", "bob", "password"));
+        carol = mongoTemplate.insert(new User("carol@realworld.io", "carol", "password"));
+        reader = mongoTemplate.insert(new User("reader@realworld.io", "reader", "password"));
+        articleId = 0;
+        followId = 0;
+    }
+
+    @Test
+    @DisplayName("The timeline follows writes, follows, unfollows and deletes")
+    void whenTimelineIsMaintainedOnWrite_thenFeedShouldMatchFollowedAuthors() {
+        // given
+        TimelineMongoRepositoryAdapter sut = adapter(800, 10_000);
+        Article first = article(alice, 9);
+        Article second = article(bob, 10);
+        Article carolsOlder = article(carol, 8);
+        follow(reader, alice);
+        follow(reader, bob);
+        assertEquals(List.of(first.getId(), second.getId()), feed(sut, new ArticleFacets(0, 20)));
+
+        // when
+        Article third = article(alice, 1);
+        sut.publish(third);
+
+        // then
+        assertEquals(List.of(third.getId(), first.getId(), second.getId()), feed(sut, new ArticleFacets(0, 20)));
+
+        // when
+        Article carols = article(carol, 5);
+        follow(reader, carol);
+        sut.follow(reader, carol);
+        mongoTemplate.remove(withField(new UserFollow(reader, bob), "id", 2));
+        sut.unfollow(reader, bob);
+        mongoTemplate.remove(first);
+        sut.withdraw(first);
+
+        // then
+        assertEquals(
+                List.of(third.getId(), carols.getId(), carolsOlder.getId()), feed(sut, new ArticleFacets(0, 20)));
+    }
+
+    @Test
+    @DisplayName("Articles of authors past the follower threshold are merged in at read time")
+    void whenAuthorPassesCelebrityThreshold_thenShouldReadTheirArticlesAtFeedTime() {
+        // given
+        TimelineMongoRepositoryAdapter sut = adapter(800, 1);
+        Article older = article(bob, 10);
+        follow(reader, alice);
+        follow(reader, bob);
+        follow(carol, alice);
+        feed(sut, new ArticleFacets(0, 20));
+
+        // when
+        Article newer = article(alice, 1);
+        sut.publish(newer);
+
+        // then
+        FeedTimeline timeline = mongoTemplate.findById(reader.getId(), FeedTimeline.class);
+        assertEquals(Set.of(alice.getId()), timeline.celebrities());
+        assertTrue(timeline.entries().stream().noneMatch(entry -> entry.article() == newer.getId()));
+        assertEquals(List.of(newer.getId(), older.getId()), feed(sut, new ArticleFacets(0, 20)));
+    }
+
+    @Test
+    @DisplayName("Pages past the oldest entry of a trimmed timeline are read from the articles")
+    void whenPagingPastTrimmedTimeline_thenShouldMatchOnReadFeed() {
+        // given
+        TimelineMongoRepositoryAdapter sut = adapter(3, 10_000);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            expected.add(article(i % 2 == 0 ? alice : bob, i).getId());
+        }
+        follow(reader, alice);
+        follow(reader, bob);
+
+        // when
+        List<Integer> byPage = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            byPage.addAll(feed(sut, new ArticleFacets(page, 3)));
+        }
+
+        List<Integer> byCursor = new ArrayList<>();
+        ArticleCursor cursor = null;
+        List<Article> page;
+        do {
+            page = sut.findFeed(reader, new ArticleFacets(null, null, null, 0, 2, cursor));
+            page.stream().map(Article::getId).forEach(byCursor::add);
+            cursor = page.isEmpty() ? cursor : ArticleCursor.of(page.getLast());
+        } while (!page.isEmpty());
+
+        // then
+        assertEquals(expected, byPage);
+        assertEquals(expected, byCursor);
+    }
+
+    @Test
+    @DisplayName("Pages past the oldest article backfilled for a followed author are read from the articles")
+    void whenPagingPastPartialBackfill_thenShouldMatchOnReadFeed() {
+        // given
+        TimelineMongoRepositoryAdapter sut = adapter(800, 10_000, 2);
+        Article alices = article(alice, 1);
+        Article bobsNewest = article(bob, 2);
+        Article bobsNewer = article(bob, 3);
+        Article bobsOldest = article(bob, 4);
+        follow(reader, alice);
+        feed(sut, new ArticleFacets(0, 20));
+
+        // when
+        follow(reader, bob);
+        sut.follow(reader, bob);
+
+        // then
+        FeedTimeline timeline = mongoTemplate.findById(reader.getId(), FeedTimeline.class);
+        assertEquals(bobsNewer.getCreatedAt(), timeline.horizon());
+        assertEquals(List.of(alices.getId(), bobsNewest.getId()), feed(sut, new ArticleFacets(0, 2)));
+        assertEquals(List.of(bobsNewer.getId(), bobsOldest.getId()), feed(sut, new ArticleFacets(1, 2)));
+    }
+
+    @Test
+    @DisplayName("The feed total counts every article of the followed authors, celebrities and trimmed ones included")
+    void whenCountingFeed_thenShouldCountEveryArticleOfFollowedAuthors() {
+        // given
+        TimelineMongoRepositoryAdapter sut = adapter(2, 1);
+        for (int i = 1; i <= 3; i++) {
+            article(bob, i);
+        }
+        article(alice, 4);
+        article(carol, 5);
+        follow(reader, alice);
+        follow(reader, bob);
+        follow(carol, alice);
+        feed(sut, new ArticleFacets(0, 20));
+        sut.publish(article(alice, 0));
+
+        // when
+        long count = sut.countFeed(reader);
+
+        // then
+        assertEquals(5, count);
+        assertEquals(0, sut.countFeed(bob));
+    }
+
+    private TimelineMongoRepositoryAdapter adapter(int capacity, int celebrityFollowers) {
+        return adapter(capacity, celebrityFollowers, 100);
+    }
+
+    private TimelineMongoRepositoryAdapter adapter(int capacity, int celebrityFollowers, int backfill) {
+        return new TimelineMongoRepositoryAdapter(
+                mongoTemplate,
+                properties(
+                        TagStorage.REFERENCED,
+                        INDEXES,
+                        SEQUENCES,
+                        new Timelines(capacity, celebrityFollowers, backfill)));
+    }
+
+    private List<Integer> feed(TimelineMongoRepositoryAdapter sut, ArticleFacets facets) {
+        return sut.findFeed(reader, facets).stream().map(Article::getId).toList();
+    }
+
+    private Article article(User author, int minutesAgo) {
+        int id = ++articleId;
+        Article article = withField(new Article(author, "title " + id, "description", "content"), "id", id);
+        return mongoTemplate.insert(withField(article, "createdAt", now.minusMinutes(minutesAgo)));
+    }
+
+    private void follow(User follower, User following) {
+        mongoTemplate.insert(withField(new UserFollow(follower, following), "id", ++followId));
+    }
+}
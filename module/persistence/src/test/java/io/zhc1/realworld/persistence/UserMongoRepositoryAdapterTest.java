@@ -16,6 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import io.zhc1.realworld.model.PasswordEncoder;
 import io.zhc1.realworld.model.User;
@@ -62,6 +64,30 @@ class UserMongoRepositoryAdapterTest {
         verify(userMongoRepository).save(sampleUser);
     }
 
+    @Nested
+    @DisplayName("insert tests")
+    class InsertTests {
+        @Test
+        @DisplayName("when email and username are free should insert once and return user")
+        void insert_whenUserIsNew_shouldReturnUser() {
+            Optional<User> insertedUser = userMongoRepositoryAdapter.insert(sampleUser);
+
+            assertEquals(Optional.of(sampleUser), insertedUser);
+            verify(userMongoRepository).insert(sampleUser);
+            verify(userMongoRepository, never()).existsByEmailOrUsername(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("when a unique index refuses the user should return empty optional")
+        void insert_whenEmailOrUsernameIsTaken_shouldReturnEmpty() {
+            when(userMongoRepository.insert(sampleUser)).thenThrow(new DuplicateKeyException("ux_users_email"));
+
+            Optional<User> insertedUser = userMongoRepositoryAdapter.insert(sampleUser);
+
+            assertFalse(insertedUser.isPresent());
+        }
+    }
+
     @Nested
     @DisplayName("findById tests")
     class FindByIdTests {
@@ -239,7 +265,7 @@ class UserMongoRepositoryAdapterTest {
         @Test
         @DisplayName("when user exists and all data is valid, should update and return user")
         void updateUserDetails_whenUserExistsAndDataIsValid_shouldUpdateAndReturnUser() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             when(passwordEncoder.encode(newPassword)).thenReturn("encodedNewPassword");
             // Make passwordEncoder.matches return false so password gets updated
             when(passwordEncoder.matches(newPassword, sampleUser.getPassword())).thenReturn(false);
@@ -253,10 +279,20 @@ class UserMongoRepositoryAdapterTest {
             assertEquals("encodedNewPassword", updatedUser.getPassword());
             assertEquals(newBio, updatedUser.getBio());
             assertEquals(newImageUrl, updatedUser.getImageUrl());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
             verify(passwordEncoder).encode(newPassword);
         }
 
+        @Test
+        @DisplayName("when the profile was updated concurrently, should throw instead of sharing its version")
+        void updateUserDetails_whenUpdatedConcurrently_shouldThrowException() {
+            long readVersion = sampleUser.profileVersion();
+            when(userMongoRepository.updateProfile(any(User.class), eq(readVersion))).thenReturn(0L);
+
+            assertThrows(OptimisticLockingFailureException.class, () -> userMongoRepositoryAdapter.updateUserDetails(
+                    userId, passwordEncoder, newEmail, sampleUser.getUsername(), null, newBio, newImageUrl));
+        }
+
         @Test
         @DisplayName("when user does not exist, should throw IllegalArgumentException")
         void updateUserDetails_whenUserDoesNotExist_shouldThrowException() {
@@ -267,7 +303,7 @@ class UserMongoRepositoryAdapterTest {
                     userMongoRepositoryAdapter.updateUserDetails(
                             userId, passwordEncoder, newEmail, newUsername, newPassword, newBio, newImageUrl));
             assertEquals("user not found.", exception.getMessage());
-            verify(userMongoRepository, never()).save(any(User.class));
+            verify(userMongoRepository, never()).updateProfile(any(User.class), anyLong());
         }
 
         @Test
@@ -281,7 +317,7 @@ class UserMongoRepositoryAdapterTest {
                             userId, passwordEncoder, newEmail, sampleUser.getUsername(), // old username
                             sampleUser.getPassword(), newBio, newImageUrl));
             assertEquals("email is already exists.", exception.getMessage());
-            verify(userMongoRepository, never()).save(any(User.class));
+            verify(userMongoRepository, never()).updateProfile(any(User.class), anyLong());
         }
 
         @Test
@@ -299,39 +335,39 @@ class UserMongoRepositoryAdapterTest {
                             newUsername, sampleUser.getPassword(), newBio, newImageUrl));
             assertEquals("username is already exists.", exception.getMessage());
             verify(userMongoRepository, never()).existsByEmail(anyString()); // Ensure existsByEmail is not called
-            verify(userMongoRepository, never()).save(any(User.class));
+            verify(userMongoRepository, never()).updateProfile(any(User.class), anyLong());
         }
 
         @Test
         @DisplayName("when password is null, should not update password")
         void updateUserDetails_withNullPassword_shouldNotUpdatePassword() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             String originalPassword = sampleUser.getPassword();
             userMongoRepositoryAdapter.updateUserDetails(
                     userId, passwordEncoder, newEmail, newUsername, null, newBio, newImageUrl);
 
             assertEquals(originalPassword, sampleUser.getPassword());
             verify(passwordEncoder, never()).encode(anyString());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
         @Test
         @DisplayName("when password is blank, should not update password")
         void updateUserDetails_withBlankPassword_shouldNotUpdatePassword() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             String originalPassword = sampleUser.getPassword();
             userMongoRepositoryAdapter.updateUserDetails(
                     userId, passwordEncoder, newEmail, newUsername, " ", newBio, newImageUrl);
 
             assertEquals(originalPassword, sampleUser.getPassword());
             verify(passwordEncoder, never()).encode(anyString());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
         
         @Test
         @DisplayName("when new password is same as old password (after encoding check), should not re-encrypt")
         void updateUserDetails_withSamePassword_shouldNotReEncrypt() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             String currentPassword = sampleUser.getPassword();
             // Simulate that PasswordEncoder.matches returns true, meaning plain password matches current
             when(passwordEncoder.matches(newPassword, currentPassword)).thenReturn(true);
@@ -342,14 +378,14 @@ class UserMongoRepositoryAdapterTest {
             assertEquals(currentPassword, updatedUser.getPassword()); // Password should remain the original encoded one
             verify(passwordEncoder, never()).encode(newPassword); // encode should not be called
             verify(passwordEncoder).matches(newPassword, currentPassword); // matches should be called
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
 
         @Test
         @DisplayName("when new password is provided and different, should encrypt and update")
         void updateUserDetails_withNewPassword_shouldEncryptAndUpdate() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             when(passwordEncoder.matches(newPassword, sampleUser.getPassword())).thenReturn(false);
             when(passwordEncoder.encode(newPassword)).thenReturn("encodedNewPassword");
 
@@ -358,48 +394,48 @@ class UserMongoRepositoryAdapterTest {
 
             assertEquals("encodedNewPassword", updatedUser.getPassword());
             verify(passwordEncoder).encode(newPassword);
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
 
         @Test
         @DisplayName("when bio is null, should set bio to null")
         void updateUserDetails_withNullBio_shouldSetBioToNull() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             userMongoRepositoryAdapter.updateUserDetails(
                     userId, passwordEncoder, newEmail, newUsername, newPassword, null, newImageUrl);
             assertNull(sampleUser.getBio());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
         @Test
         @DisplayName("when bio is blank, should not update bio (User model handles this)")
         void updateUserDetails_withBlankBio_shouldNotUpdateBio() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             sampleUser.setBio("Initial Bio"); // Set an initial bio
              String originalBio = sampleUser.getBio();
             userMongoRepositoryAdapter.updateUserDetails(
                     userId, passwordEncoder, newEmail, newUsername, newPassword, " ", newImageUrl);
             // User.setBio logs a warning and doesn't change if blank.
             assertEquals(originalBio, sampleUser.getBio());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
 
         @Test
         @DisplayName("when image URL is null, should set image URL to null")
         void updateUserDetails_withNullImage_shouldSetImageToNull() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             userMongoRepositoryAdapter.updateUserDetails(
                     userId, passwordEncoder, newEmail, newUsername, newPassword, newBio, null);
             assertNull(sampleUser.getImageUrl());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
         @Test
         @DisplayName("when image URL is blank, should not update image URL (User model handles this)")
         void updateUserDetails_withBlankImage_shouldNotUpdateImage() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             sampleUser.setImageUrl("http://initial.url"); // Set an initial image
             String originalImage = sampleUser.getImageUrl();
 
@@ -407,29 +443,29 @@ class UserMongoRepositoryAdapterTest {
                     userId, passwordEncoder, newEmail, newUsername, newPassword, newBio, " ");
             // User.setImageUrl logs a warning and doesn't change if blank.
             assertEquals(originalImage, sampleUser.getImageUrl());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
         @Test
         @DisplayName("when email is not changed, should not check for email existence")
         void updateUserDetails_whenEmailNotChanged_shouldNotCheckExistence() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             userMongoRepositoryAdapter.updateUserDetails(
                 userId, passwordEncoder, sampleUser.getEmail(), newUsername, newPassword, newBio, newImageUrl);
             
             verify(userMongoRepository, never()).existsByEmail(sampleUser.getEmail());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
 
         @Test
         @DisplayName("when username is not changed, should not check for username existence")
         void updateUserDetails_whenUsernameNotChanged_shouldNotCheckExistence() {
-            when(userMongoRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(userMongoRepository.updateProfile(any(User.class), anyLong())).thenReturn(1L);
             userMongoRepositoryAdapter.updateUserDetails(
                 userId, passwordEncoder, newEmail, sampleUser.getUsername(), newPassword, newBio, newImageUrl);
             
             verify(userMongoRepository, never()).existsByUsername(sampleUser.getUsername());
-            verify(userMongoRepository).save(sampleUser);
+            verify(userMongoRepository).updateProfile(eq(sampleUser), anyLong());
         }
     }
 }
@@ -0,0 +1,178 @@
+package io.zhc1.realworld.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import io.zhc1.realworld.config.CacheConfiguration;
+import io.zhc1.realworld.config.CacheName;
+import io.zhc1.realworld.model.PasswordEncoder;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserRegistry;
+import io.zhc1.realworld.model.UserRepository;
+
+@DisplayName("User Repository Cache - Lookups by Id and Username")
+class UserRepositoryCacheTest {
+    private final UserJpaRepository userJpaRepository = mock(UserJpaRepository.class);
+    private final User alice = new User(new UserRegistry("alice@realworld.io", "alice", "password"));
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AnnotationConfigApplicationContext context;
+    private UserRepository sut;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("h2");
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.register(CacheConfiguration.class, UserJpaRepositoryAdapter.class);
+        context.registerBean(UserJpaRepository.class, () -> userJpaRepository);
+        context.registerBean(MeterRegistry.class, () -> meterRegistry);
+        context.refresh();
+        sut = context.getBean(UserRepository.class);
+
+        when(userJpaRepository.findById(alice.getId())).thenReturn(Optional.of(alice));
+        when(userJpaRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        when(userJpaRepository.save(alice)).thenReturn(alice);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Repeated lookups by id or username are served from the cache and counted as hits")
+    void whenUserIsLookedUpTwice_thenShouldReadRepositoryOnce() {
+        // when
+        sut.findById(alice.getId());
+        sut.findById(alice.getId());
+        sut.findByUsername("alice");
+        sut.findByUsername("alice");
+
+        // then
+        verify(userJpaRepository, times(1)).findById(alice.getId());
+        verify(userJpaRepository, times(1)).findByUsername("alice");
+        assertEquals(1, cache(CacheName.USERS_BY_ID).stats().hitCount());
+        assertEquals(1, cache(CacheName.USERS_BY_USERNAME).stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Hits and misses are published as cache.gets meters, as for the caches Boot binds")
+    void whenUserIsLookedUpTwice_thenShouldPublishHitAndMiss() {
+        // when
+        sut.findById(alice.getId());
+        sut.findById(alice.getId());
+
+        // then
+        assertEquals(1, gets(CacheName.USERS_BY_ID, "hit"));
+        assertEquals(1, gets(CacheName.USERS_BY_ID, "miss"));
+        assertEquals(0, gets(CacheName.USERS_BY_USERNAME, "hit"));
+    }
+
+    @Test
+    @DisplayName("Unknown users are not cached, so a later signup is found")
+    void whenUserIsUnknown_thenShouldNotCacheTheMiss() {
+        // given
+        when(userJpaRepository.findByUsername("bob")).thenReturn(Optional.empty());
+
+        // when
+        sut.findByUsername("bob");
+        sut.findByUsername("bob");
+
+        // then
+        verify(userJpaRepository, times(2)).findByUsername("bob");
+    }
+
+    @Test
+    @DisplayName("Updating user details evicts the user, so the new username is visible right away")
+    void whenUserDetailsAreUpdated_thenShouldEvictCachedEntries() {
+        // given
+        sut.findById(alice.getId());
+        sut.findByUsername("alice");
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(userJpaRepository.findByIdForUpdate(alice.getId())).thenReturn(Optional.of(alice));
+
+        // when
+        sut.updateUserDetails(alice.getId(), passwordEncoder, null, "alice2", null, null, null);
+        when(userJpaRepository.findByUsername("alice")).thenReturn(Optional.empty());
+
+        // then
+        assertEquals(Optional.empty(), sut.findByUsername("alice"));
+        assertEquals("alice2", sut.findById(alice.getId()).orElseThrow().getUsername());
+        verify(userJpaRepository, times(2)).findByUsername("alice");
+        verify(userJpaRepository, times(2)).findById(alice.getId());
+        verify(userJpaRepository).findByIdForUpdate(alice.getId());
+    }
+
+    @Test
+    @DisplayName("Every lookup gets its own copy, so changing a user read from the cache leaves the cache unchanged")
+    void whenCachedUserIsChanged_thenShouldNotChangeCachedEntry() {
+        // given
+        User first = sut.findById(alice.getId()).orElseThrow();
+
+        // when
+        first.setBio("changed by a request that never commits");
+        User second = sut.findById(alice.getId()).orElseThrow();
+
+        // then
+        assertNotSame(first, second);
+        assertNotSame(alice, second);
+        assertNull(second.getBio());
+        verify(userJpaRepository, times(1)).findById(alice.getId());
+    }
+
+    @Test
+    @DisplayName("Evictions wait for the transaction to commit, so a read during the write is not left in the cache")
+    void whenUserIsSavedInTransaction_thenShouldEvictAfterCommit() {
+        // given
+        sut.findById(alice.getId());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            sut.save(alice);
+            long beforeCommit = cache(CacheName.USERS_BY_ID).estimatedSize();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            // then
+            assertEquals(1, beforeCommit);
+            assertEquals(0, cache(CacheName.USERS_BY_ID).estimatedSize());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private double gets(String cacheName, String result) {
+        return meterRegistry
+                .get("cache.gets")
+                .tags("cache", cacheName, "cache.manager", "cacheManager", "result", result)
+                .functionCounter()
+                .count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> cache(String name) {
+        return (Cache<Object, Object>) context.getBean(CacheManager.class).getCache(name).getNativeCache();
+    }
+}
@@ -1,17 +1,38 @@
 import org.springframework.boot.gradle.tasks.bundling.BootJar
 
+plugins {
+    alias(libs.plugins.jmh)
+}
+
 dependencies {
     compileOnly(project(":module:core"))
     testCompileOnly(project(":module:core"))
+    testImplementation(testFixtures(project(":module:core")))
 
     // Inject spring beans on runtime
     runtimeOnly(project(":module:persistence"))
 
     implementation(libs.spring.boot.starter.web)
     implementation(libs.spring.boot.starter.oauth2.resource.server)
+    implementation(libs.spring.boot.starter.actuator)
+    implementation(libs.cache.caffeine)
+
+    // Ed25519 signing and verification for EdDSA tokens, which Nimbus delegates to Tink
+    implementation(libs.crypto.tink)
 
     // Remove Jakarta Persistence API related warnings
     implementation(libs.jakarta.persistence.api)
+
+    // Benchmarks run outside of Spring, against the classes of this module and the core model
+    jmhImplementation(project(":module:core"))
+    jmhImplementation(testFixtures(project(":module:core")))
+    jmhImplementation("org.springframework:spring-test")
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
 }
 
 tasks.getByName<BootJar>("bootJar") {
@@ -0,0 +1,51 @@
+package io.zhc1.realworld.api.response;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.zhc1.realworld.model.ArticleDetails;
+import io.zhc1.realworld.model.SampleArticles;
+import io.zhc1.realworld.model.User;
+
+/** Mapping of model objects to the response records, done once per article or profile of every response. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+    @Param({"1", "20"})
+    int articles;
+
+    private List<ArticleDetails> page;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        page = SampleArticles.page(articles);
+        user = SampleArticles.author("alice");
+    }
+
+    @Benchmark
+    public MultipleArticlesResponse articleResponses() {
+        return new MultipleArticlesResponse(page.stream().map(ArticleResponse::new).toList());
+    }
+
+    @Benchmark
+    public ProfileResponse profileResponse() {
+        return ProfileResponse.from(user, true);
+    }
+}
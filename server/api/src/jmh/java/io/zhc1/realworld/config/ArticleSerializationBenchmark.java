@@ -0,0 +1,54 @@
+package io.zhc1.realworld.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zhc1.realworld.api.response.ArticleResponse;
+import io.zhc1.realworld.api.response.MultipleArticlesResponse;
+import io.zhc1.realworld.model.SampleArticles;
+
+/**
+ * Serialization of a list page with the application's object mapper, including its {@code LocalDateTime} serializer.
+ * Past the first invocation, articles are written from the fragments cached by their serializer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArticleSerializationBenchmark {
+    @Param({"1", "20"})
+    int articles;
+
+    private ObjectMapper objectMapper;
+    private MultipleArticlesResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapperConfiguration().objectMapper(Jackson2ObjectMapperBuilder.json());
+        response = new MultipleArticlesResponse(SampleArticles.page(articles).stream()
+                .map(ArticleResponse::new)
+                .toList());
+    }
+
+    @Benchmark
+    public byte[] multipleArticlesResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,100 @@
+package io.zhc1.realworld.config;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import io.zhc1.realworld.model.SampleArticles;
+import io.zhc1.realworld.model.User;
+
+/**
+ * Issuing, resolving and decoding of auth tokens, with the encoder and decoder built the way
+ * {@link SecurityConfiguration} builds them. A fresh 2048-bit key pair stands in for the configured one.
+ *
+ * <p>{@code decode} verifies the signature every time, as an uncached decoder does, while {@code decodeCached} finds a
+ * token verified before, as {@link CachingJwtDecoder} does for every request but the first of a token. The difference
+ * is the CPU time saved per request; times the request rate, it is the share of a core saved, e.g. 40 µs saved at
+ * 1,000 requests per second frees 4% of a core. {@link SigningAlgorithmBenchmark} compares the algorithms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthTokenBenchmark {
+    @Param({"false", "true"})
+    private boolean selfContained;
+
+    private AuthTokenProvider authTokenProvider;
+    private JwtDecoder jwtDecoder;
+    private JwtDecoder cachingJwtDecoder;
+    private AuthTokenResolver authTokenResolver;
+    private User user;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
+
+        SecurityConfiguration securityConfiguration = new SecurityConfiguration();
+        SigningKeys signingKeys = securityConfiguration.signingKeys(
+                SigningAlgorithm.RS256, Duration.ofMinutes(10), publicKey, privateKey);
+        authTokenProvider = new AuthTokenProvider(securityConfiguration.jwtEncoder(signingKeys), selfContained);
+        jwtDecoder = signingKeys.decoder();
+        cachingJwtDecoder = securityConfiguration.jwtDecoder(signingKeys, 10_000, new SimpleMeterRegistry());
+        authTokenResolver = new AuthTokenResolver();
+
+        user = SampleArticles.author("alice");
+        token = authTokenProvider.createAuthToken(user);
+        request = new MockHttpServletRequest("GET", "/api/articles/feed");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Token " + token);
+    }
+
+    @Benchmark
+    public String createAuthToken() {
+        return authTokenProvider.createAuthToken(user);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cachingJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public String resolve() {
+        return authTokenResolver.resolve(request);
+    }
+}
@@ -0,0 +1,72 @@
+package io.zhc1.realworld.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+/**
+ * Signing and verifying throughput of each {@link SigningAlgorithm}, with the claims of a login token. Signing is paid
+ * on every login and verifying on the first request of every token, the rest being served by
+ * {@link CachingJwtDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+    @Param({"RS256", "ES256", "EDDSA"})
+    private SigningAlgorithm algorithm;
+
+    private JwtEncoder jwtEncoder;
+    private JwtDecoder jwtDecoder;
+    private JwtEncoderParameters parameters;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SigningKeys signingKeys =
+                new SigningKeys(algorithm, algorithm.generate(), Duration.ofMinutes(10), Clock.systemUTC());
+        jwtEncoder = signingKeys.encoder();
+        jwtDecoder = signingKeys.decoder();
+
+        // Far enough in the future for every iteration to verify an unexpired token
+        Instant now = Instant.now();
+        parameters = JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .issuer("https://realworld.io")
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofHours(1)))
+                .subject("b9a4a8ce-2f4e-4a1c-8d55-9b2f0f3c6f1e")
+                .build());
+        token = jwtEncoder.encode(parameters).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt sign() {
+        return jwtEncoder.encode(parameters);
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return jwtDecoder.decode(token);
+    }
+}
@@ -0,0 +1,44 @@
+package io.zhc1.realworld.model;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code Article.titleToSlug} is private, so it is measured through {@link Article#setTitle(String)}, which derives the
+ * slug and stamps {@code updatedAt}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArticleSlugBenchmark {
+    @Param({"Short title", "A considerably longer title\twith  irregular   whitespace and Mixed Case Words in it"})
+    String title;
+
+    private Article article;
+
+    @Setup
+    public void setUp() {
+        article = new Article(new TestUser(UUID.randomUUID()), "title", "description", "content");
+    }
+
+    @Benchmark
+    public String setTitle() {
+        article.setTitle(title);
+        return article.getSlug();
+    }
+}
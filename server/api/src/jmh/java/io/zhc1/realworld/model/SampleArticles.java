@@ -0,0 +1,41 @@
+package io.zhc1.realworld.model;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/** Builds in-memory articles shaped like a typical list page, for benchmarks that do not touch a database. */
+public final class SampleArticles {
+    private static final List<String> TAGS = List.of("java", "spring", "mongodb", "jpa");
+
+    private SampleArticles() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated!");
+    }
+
+    public static User author(String username) {
+        User author = new TestUser(UUID.randomUUID(), username + "@realworld.io", username, "password");
+        author.setBio("I write about " + username + " things.");
+        author.setImageUrl("https://api.realworld.io/images/" + username + ".jpg");
+        return author;
+    }
+
+    /**
+     * @param size number of articles
+     * @return Returns the details of a page of articles by a handful of authors, two tags each
+     */
+    public static List<ArticleDetails> page(int size) {
+        List<User> authors = List.of(author("alice"), author("bob"), author("carol"));
+        return IntStream.range(0, size)
+                .mapToObj(i -> {
+                    Article article = new Article(
+                            authors.get(i % authors.size()),
+                            "How to benchmark request number " + i,
+                            "A short description of article " + i,
+                            "Body ".repeat(200));
+                    article.addTag(new ArticleTag(article, new Tag(TAGS.get(i % TAGS.size()))));
+                    article.addTag(new ArticleTag(article, new Tag(TAGS.get((i + 1) % TAGS.size()))));
+                    return new ArticleDetails(article, i % 7, i % 2 == 0);
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,274 @@
+package io.zhc1.realworld.api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import io.zhc1.realworld.api.response.ArticleResponse;
+import io.zhc1.realworld.api.response.MultipleArticlesResponse;
+import io.zhc1.realworld.api.response.SingleArticleResponse;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleEvent;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.ArticleTag;
+import io.zhc1.realworld.model.ProfileEvent;
+
+/**
+ * Remembers the responses anonymous readers get for articles and article lists, which are the same for all of them.
+ *
+ * <p>Lists are keyed by their normalized facets. Entries are dropped as {@link ArticleEvent}s report the changes that
+ * affect them: edits and favorites drop the article and the lists showing it, favorites also drop the lists of the
+ * favoriting user, and new or deleted articles drop the lists they may enter or leave, with every page after them.
+ * {@link ProfileEvent}s drop the entries showing the user's articles and the lists filtered by their username. Changes
+ * made by other instances show once entries expire.
+ *
+ * <p>Each entry is indexed under what it depends on, the slugs and authors it shows and the facets it lists, so that an
+ * event looks up the entries it drops instead of scanning the cache.
+ *
+ * <p>Concurrent misses on the same entry wait for a single load, so an entry expiring under load costs one query rather
+ * than one per waiting request. The load runs on the thread that missed, outside of any lock of the cache, and the
+ * others wait on its future. Hits and misses are published as {@code cache.*} meters of {@value #CACHE_NAME}.
+ */
+@Component
+class AnonymousReadCache {
+    static final String CACHE_NAME = "anonymous-reads";
+
+    private final AsyncCache<Object, Object> responses;
+    private final Map<Dependency, Set<Object>> dependents = new ConcurrentHashMap<>();
+    // Moved by every invalidation, so that a load overlapping one is not kept with what it read before the change.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    AnonymousReadCache(
+            @Value("${realworld.anonymous-cache.maximum-size:2000}") long maximumSize,
+            @Value("${realworld.anonymous-cache.time-to-live:PT30S}") Duration timeToLive,
+            MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .removalListener((key, response, cause) -> unindex(key, response))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    /**
+     * Returns the response for the article with the given slug, loading it on a miss.
+     *
+     * @param slug the slug requested
+     * @param loader loads the response, along with the ETag it is answered with
+     * @return Returns the response
+     */
+    CachedArticle getArticle(String slug, Supplier<CachedArticle> loader) {
+        return get(new SlugKey(slug), loader);
+    }
+
+    /**
+     * Returns the response for the article list of the given facets, loading it on a miss.
+     *
+     * @param facets the facets requested
+     * @param loader loads the response
+     * @return Returns the response
+     */
+    MultipleArticlesResponse getArticles(ArticleFacets facets, Supplier<MultipleArticlesResponse> loader) {
+        return get(facets.normalized(), loader);
+    }
+
+    @EventListener
+    void on(ArticleEvent event) {
+        Article article = event.article();
+        invalidations.incrementAndGet();
+
+        responses.synchronous().invalidate(new SlugKey(event.slug()));
+        responses.synchronous().invalidate(new SlugKey(article.getSlug()));
+
+        switch (event.kind()) {
+            case EDITED -> invalidate(Dependency.shows(event.slug()));
+            case FAVORITED, UNFAVORITED -> {
+                invalidate(new Dependency(Dependency.Kind.FAVORITED, event.user().getUsername()));
+                invalidate(Dependency.shows(event.slug()));
+            }
+            case WRITTEN -> invalidate(listable(article));
+            case DELETED -> {
+                invalidate(Dependency.ANY_FAVORITED);
+                invalidate(listable(article));
+                invalidate(Dependency.shows(event.slug()));
+            }
+        }
+    }
+
+    @EventListener
+    void on(ProfileEvent event) {
+        invalidations.incrementAndGet();
+
+        for (String username : List.of(event.username(), event.user().getUsername())) {
+            invalidate(new Dependency(Dependency.Kind.SHOWS_AUTHOR, username));
+            invalidate(new Dependency(Dependency.Kind.AUTHOR, username));
+            invalidate(new Dependency(Dependency.Kind.FAVORITED, username));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, Supplier<T> loader) {
+        long invalidated = invalidations.get();
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> response = responses.get(key, (ignored, executor) -> load);
+
+        if (response == load) {
+            try {
+                T loaded = loader.get();
+                index(key, loaded);
+                load.complete(loaded);
+            } catch (RuntimeException | Error e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        T value;
+        try {
+            value = (T) response.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (invalidations.get() != invalidated) {
+            responses.asMap().remove(key, response);
+        }
+        return value;
+    }
+
+    private void invalidate(Collection<Dependency> dependencies) {
+        dependencies.forEach(this::invalidate);
+    }
+
+    private void invalidate(Dependency dependency) {
+        Set<Object> keys = dependents.remove(dependency);
+        if (keys != null) {
+            responses.synchronous().invalidateAll(keys);
+        }
+    }
+
+    private void index(Object key, Object response) {
+        for (Dependency dependency : dependencies(key, response)) {
+            dependents.compute(dependency, (ignored, keys) -> {
+                Set<Object> indexed = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                indexed.add(key);
+                return indexed;
+            });
+        }
+    }
+
+    /** Drops a removed entry from the index, unless its key is cached again and indexed by a newer entry. */
+    private void unindex(Object key, Object response) {
+        if (key == null || response == null) {
+            return;
+        }
+
+        for (Dependency dependency : dependencies(key, response)) {
+            dependents.computeIfPresent(dependency, (ignored, keys) -> {
+                if (!responses.asMap().containsKey(key)) {
+                    keys.remove(key);
+                }
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /** What the entry depends on: the slugs and authors of the articles it shows and, for lists, their facets. */
+    private static List<Dependency> dependencies(Object key, Object response) {
+        List<Dependency> dependencies = new ArrayList<>();
+        if (response instanceof CachedArticle article) {
+            dependencies.add(
+                    new Dependency(Dependency.Kind.SHOWS_AUTHOR, article.response().article().author().username()));
+        }
+        if (response instanceof MultipleArticlesResponse list) {
+            for (ArticleResponse shown : list.articles()) {
+                dependencies.add(Dependency.shows(shown.slug()));
+                dependencies.add(new Dependency(Dependency.Kind.SHOWS_AUTHOR, shown.author().username()));
+            }
+        }
+
+        if (key instanceof ArticleFacets facets) {
+            if (facets.favorited() != null) {
+                dependencies.add(new Dependency(Dependency.Kind.FAVORITED, facets.favorited()));
+                dependencies.add(Dependency.ANY_FAVORITED);
+            } else if (facets.tag() == null && facets.author() == null) {
+                dependencies.add(Dependency.UNFILTERED);
+            } else {
+                if (facets.tag() != null) {
+                    dependencies.add(new Dependency(Dependency.Kind.TAG, facets.tag()));
+                }
+                if (facets.author() != null) {
+                    dependencies.add(new Dependency(Dependency.Kind.AUTHOR, facets.author()));
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * The lists the article may enter or leave, whichever way the filters combine. Favorited lists only change with
+     * favorites.
+     */
+    private static List<Dependency> listable(Article article) {
+        List<Dependency> dependencies = new ArrayList<>();
+        dependencies.add(Dependency.UNFILTERED);
+        dependencies.add(new Dependency(Dependency.Kind.AUTHOR, article.getAuthor().getUsername()));
+        for (ArticleTag articleTag : article.getArticleTags()) {
+            dependencies.add(new Dependency(Dependency.Kind.TAG, articleTag.getTag().getName()));
+        }
+        return dependencies;
+    }
+
+    /**
+     * A response for a single article, along with its ETag.
+     *
+     * @param response the response
+     * @param entityTag the ETag the response is answered with
+     */
+    record CachedArticle(SingleArticleResponse response, String entityTag) {}
+
+    private record SlugKey(String slug) {}
+
+    /**
+     * Something entries depend on, under which their keys are indexed.
+     *
+     * @param kind what the value names
+     * @param value a slug, username or tag, or null for the kinds that stand alone
+     */
+    private record Dependency(Kind kind, String value) {
+        static final Dependency UNFILTERED = new Dependency(Kind.UNFILTERED, null);
+        static final Dependency ANY_FAVORITED = new Dependency(Kind.FAVORITED, null);
+
+        static Dependency shows(String slug) {
+            return new Dependency(Kind.SHOWS_SLUG, slug);
+        }
+
+        enum Kind {
+            SHOWS_SLUG,
+            SHOWS_AUTHOR,
+            UNFILTERED,
+            TAG,
+            AUTHOR,
+            FAVORITED
+        }
+    }
+}
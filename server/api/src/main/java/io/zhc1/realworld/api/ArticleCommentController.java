@@ -1,11 +1,28 @@
 package io.zhc1.realworld.api;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -14,8 +31,10 @@ import io.zhc1.realworld.api.response.ArticleCommentResponse;
 import io.zhc1.realworld.api.response.MultipleCommentsResponse;
 import io.zhc1.realworld.api.response.SingleCommentResponse;
 import io.zhc1.realworld.config.AuthToken;
+import io.zhc1.realworld.diagnostics.RoundTripCounter;
 import io.zhc1.realworld.mixin.AuthenticationAwareMixin;
 import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.service.ArticleCommentService;
 import io.zhc1.realworld.service.ArticleService;
 import io.zhc1.realworld.service.UserRelationshipService;
@@ -24,43 +43,102 @@ import io.zhc1.realworld.service.UserService;
 @RestController
 @RequiredArgsConstructor
 class ArticleCommentController implements AuthenticationAwareMixin {
+    // Note: Covers the comments of most articles, whose follows are then looked up at once.
+    private static final int BATCH_SIZE = 500;
+
     private final UserService userService;
     private final UserRelationshipService userRelationshipService;
     private final ArticleService articleService;
     private final ArticleCommentService articleCommentService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/api/articles/{slug}/comments")
     SingleCommentResponse postComment(
             AuthToken commenterToken, @PathVariable String slug, @RequestBody WriteCommentRequest request) {
         var article = articleService.getArticle(slug);
-        var commenter = userService.getUser(commenterToken.userId());
+        var commenter = this.actor(commenterToken, userService);
         var comment = articleCommentService.write(
                 new ArticleComment(article, commenter, request.comment().body()));
 
         return new SingleCommentResponse(comment);
     }
 
+    /**
+     * Anonymous readers revalidate against the version of the comments and of their authors' profiles, read in one
+     * query. Authenticated readers also see whether they follow each commenter, which no single version covers, so
+     * their responses carry no validator and skip that query.
+     *
+     * <p>The list, which is not paged, is written in the shape of {@link MultipleCommentsResponse} as it is read from
+     * the database, so neither the comments nor the body are held in memory as a whole. Follows are looked up
+     * once per batch of comments, and each batch is flushed to the client as soon as it is written. The body is written
+     * on an async thread, whose round trips are counted with the request's.
+     */
     @GetMapping("/api/articles/{slug}/comments")
-    MultipleCommentsResponse getComment(AuthToken readersToken, @PathVariable String slug) {
+    ResponseEntity<StreamingResponseBody> getComment(
+            AuthToken readersToken, @PathVariable String slug, ServletWebRequest request) {
         var article = articleService.getArticle(slug);
-        var comments = articleCommentService.getComments(article);
+        var anonymous = this.isAnonymousUser(readersToken);
 
-        if (this.isAnonymousUser(readersToken)) {
-            return new MultipleCommentsResponse(
-                    comments.stream().map(ArticleCommentResponse::new).toList());
+        if (anonymous) {
+            var version = articleCommentService.getCommentsVersion(article);
+            if (ConditionalRequests.notModified(
+                    request, article.getId(), version.count(), version.latestId(), version.authorsProfileVersion())) {
+                return null;
+            }
         }
 
-        var reader = userService.getUser(readersToken.userId());
-        return new MultipleCommentsResponse(comments.stream()
-                .map(comment -> new ArticleCommentResponse(
-                        comment, userRelationshipService.isFollowing(reader, comment.getAuthor())))
-                .toList());
+        var reader = anonymous ? null : this.reader(readersToken, userService);
+        var roundTrips = RoundTripCounter.current();
+        StreamingResponseBody body = out -> {
+            try (var scope = RoundTripCounter.join(roundTrips)) {
+                articleCommentService.streamComments(article, comments -> writeComments(comments, reader, out));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private void writeComments(Stream<ArticleComment> comments, User reader, OutputStream out) {
+        try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+            // The servlet container owns the stream, and completes the response once the handler returns.
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("comments");
+
+            List<ArticleComment> batch = new ArrayList<>(BATCH_SIZE);
+            for (Iterator<ArticleComment> iterator = comments.iterator(); iterator.hasNext(); ) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    writeBatch(gen, batch, reader);
+                    batch.clear();
+                }
+            }
+
+            gen.writeEndArray();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeBatch(JsonGenerator gen, List<ArticleComment> batch, User reader) throws IOException {
+        Set<User> followingAuthors = reader == null
+                ? Set.of()
+                : userRelationshipService.getFollowingAmong(
+                        reader, batch.stream().map(ArticleComment::getAuthor).collect(Collectors.toSet()));
+
+        for (ArticleComment comment : batch) {
+            gen.writeObject(new ArticleCommentResponse(comment, followingAuthors.contains(comment.getAuthor())));
+        }
+        gen.flush();
     }
 
     @SuppressWarnings("MVCPathVariableInspection")
     @DeleteMapping("/api/articles/{slug}/comments/{id}")
     void deleteComment(AuthToken commenterToken, @PathVariable("id") int commentId) {
-        var commenter = userService.getUser(commenterToken.userId());
+        var commenter = this.actor(commenterToken, userService);
         var comment = articleCommentService.getComment(commentId);
 
         articleCommentService.delete(commenter, comment);
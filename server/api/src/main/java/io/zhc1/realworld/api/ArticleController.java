@@ -4,6 +4,7 @@ import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toList;
 
 import java.util.List;
+import java.util.UUID;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,6 +26,7 @@ import io.zhc1.realworld.api.response.SingleArticleResponse;
 import io.zhc1.realworld.config.AuthToken;
 import io.zhc1.realworld.mixin.AuthenticationAwareMixin;
 import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleCursor;
 import io.zhc1.realworld.model.ArticleDetails;
 import io.zhc1.realworld.model.ArticleFacets;
 import io.zhc1.realworld.service.ArticleService;
@@ -34,10 +37,11 @@ import io.zhc1.realworld.service.UserService;
 class ArticleController implements AuthenticationAwareMixin {
     private final UserService userService;
     private final ArticleService articleService;
+    private final AnonymousReadCache anonymousReadCache;
 
     @PostMapping("/api/articles")
     SingleArticleResponse postArticle(AuthToken authorsToken, @RequestBody WriteArticleRequest request) {
-        var author = userService.getUser(authorsToken.userId());
+        var author = this.actor(authorsToken, userService);
         var article = articleService.write(
                 new Article(
                         author,
@@ -58,33 +62,46 @@ class ArticleController implements AuthenticationAwareMixin {
             @RequestParam(value = "author", required = false) String author,
             @RequestParam(value = "favorited", required = false) String favorited,
             @RequestParam(value = "offset", required = false, defaultValue = "0") int offset,
-            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
-        var facets = new ArticleFacets(tag, author, favorited, offset, limit);
+            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        var facets = new ArticleFacets(tag, author, favorited, offset, limit, this.toCursor(cursor));
 
         if (this.isAnonymousUser(readersToken)) {
-            return getArticlesResponse(articleService.getArticles(facets));
+            return anonymousReadCache.getArticles(
+                    facets,
+                    () -> this.getArticlesResponse(
+                            articleService.getArticles(facets), limit, articleService.countArticles(facets)));
         }
 
-        var reader = userService.getUser(readersToken.userId());
-        return this.getArticlesResponse(articleService.getArticles(reader, facets));
+        var reader = this.reader(readersToken, userService);
+        return this.getArticlesResponse(
+                articleService.getArticles(reader, facets), limit, articleService.countArticles(facets));
     }
 
     @GetMapping("/api/articles/{slug}")
-    SingleArticleResponse getArticle(AuthToken readersToken, @PathVariable String slug) {
-        var article = articleService.getArticle(slug);
-
+    SingleArticleResponse getArticle(AuthToken readersToken, @PathVariable String slug, ServletWebRequest request) {
         if (this.isAnonymousUser(readersToken)) {
-            return new SingleArticleResponse(articleService.getArticleDetails(article));
+            var cached = anonymousReadCache.getArticle(slug, () -> {
+                var article = articleService.getArticle(slug);
+                return new AnonymousReadCache.CachedArticle(
+                        new SingleArticleResponse(articleService.getArticleDetails(article)), entityTag(article, null));
+            });
+            return ConditionalRequests.notModified(request, cached.entityTag()) ? null : cached.response();
+        }
+
+        var article = articleService.getArticle(slug);
+        if (ConditionalRequests.notModified(request, entityTag(article, readersToken.userId()))) {
+            return null;
         }
 
-        var reader = userService.getUser(readersToken.userId());
+        var reader = this.reader(readersToken, userService);
         return new SingleArticleResponse(articleService.getArticleDetails(reader, article));
     }
 
     @PutMapping("/api/articles/{slug}")
     SingleArticleResponse updateArticle(
             AuthToken authorsToken, @PathVariable String slug, @RequestBody EditArticleRequest request) {
-        var author = userService.getUser(authorsToken.userId());
+        var author = this.actor(authorsToken, userService);
         var article = articleService.getArticle(slug);
 
         if (request.article().title() != null) {
@@ -107,7 +124,7 @@ class ArticleController implements AuthenticationAwareMixin {
 
     @DeleteMapping("/api/articles/{slug}")
     void deleteArticle(AuthToken authorsToken, @PathVariable String slug) {
-        var author = userService.getUser(authorsToken.userId());
+        var author = this.actor(authorsToken, userService);
         var article = articleService.getArticle(slug);
 
         articleService.delete(author, article);
@@ -117,17 +134,38 @@ class ArticleController implements AuthenticationAwareMixin {
     MultipleArticlesResponse getArticleFeeds(
             AuthToken readersToken, // Must be verified
             @RequestParam(value = "offset", required = false, defaultValue = "0") int offset,
-            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
-        var reader = userService.getUser(readersToken.userId());
-        var facets = new ArticleFacets(offset, limit);
-        var articleDetails = articleService.getFeeds(reader, facets);
+            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        var reader = this.reader(readersToken, userService);
+        var facets = new ArticleFacets(null, null, null, offset, limit, this.toCursor(cursor));
+        return this.getArticlesResponse(
+                articleService.getFeeds(reader, facets), limit, articleService.countFeeds(reader));
+    }
+
+    /** Any favorite or unfavorite moves the favorites version, so the count and the favorited flag are covered. */
+    private String entityTag(Article article, UUID readerId) {
+        return ConditionalRequests.entityTag(
+                article.getId(),
+                article.getUpdatedAt(),
+                article.getFavoritesVersion(),
+                article.getAuthor().profileVersion(),
+                readerId);
+    }
 
-        return this.getArticlesResponse(articleDetails);
+    private ArticleCursor toCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : ArticleCursor.decode(cursor);
     }
 
-    private MultipleArticlesResponse getArticlesResponse(List<ArticleDetails> articles) {
+    private MultipleArticlesResponse getArticlesResponse(
+            List<ArticleDetails> articles, int limit, long articlesCount) {
+        // A short page is the last one, so only a full page hands out a cursor to the next.
+        var nextCursor = articles.isEmpty() || articles.size() < limit
+                ? null
+                : ArticleCursor.of(articles.getLast().article()).encode();
+
         return articles.stream()
                 .map(ArticleResponse::new)
-                .collect(collectingAndThen(toList(), MultipleArticlesResponse::new));
+                .collect(collectingAndThen(
+                        toList(), responses -> new MultipleArticlesResponse(responses, articlesCount, nextCursor)));
     }
 }
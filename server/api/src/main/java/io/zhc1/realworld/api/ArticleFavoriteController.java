@@ -9,18 +9,19 @@ import lombok.RequiredArgsConstructor;
 
 import io.zhc1.realworld.api.response.SingleArticleResponse;
 import io.zhc1.realworld.config.AuthToken;
+import io.zhc1.realworld.mixin.AuthenticationAwareMixin;
 import io.zhc1.realworld.service.ArticleService;
 import io.zhc1.realworld.service.UserService;
 
 @RestController
 @RequiredArgsConstructor
-class ArticleFavoriteController {
+class ArticleFavoriteController implements AuthenticationAwareMixin {
     private final UserService userService;
     private final ArticleService articleService;
 
     @PostMapping("/api/articles/{slug}/favorite")
     SingleArticleResponse like(AuthToken readersToken, @PathVariable String slug) {
-        var reader = userService.getUser(readersToken.userId());
+        var reader = this.actor(readersToken, userService);
         var article = articleService.getArticle(slug);
 
         articleService.favorite(reader, article);
@@ -30,7 +31,7 @@ class ArticleFavoriteController {
 
     @DeleteMapping("/api/articles/{slug}/favorite")
     SingleArticleResponse unlike(AuthToken readersToken, @PathVariable String slug) {
-        var reader = userService.getUser(readersToken.userId());
+        var reader = this.actor(readersToken, userService);
         var article = articleService.getArticle(slug);
 
         articleService.unfavorite(reader, article);
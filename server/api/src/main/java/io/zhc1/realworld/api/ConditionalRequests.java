@@ -0,0 +1,71 @@
+package io.zhc1.realworld.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Answers conditional GETs from the versions a response is built from, before it is built.
+ *
+ * <p>The strong ETag is a digest of those versions, so a controller can compare it with {@code If-None-Match} right
+ * after the lookup that yields them and skip the queries and serialization of the body when the client is current.
+ * Responses are marked {@code private, no-cache}: they differ by reader, and are always revalidated.
+ */
+final class ConditionalRequests {
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalRequests() {}
+
+    /**
+     * Checks the request against the ETag of the given versions, and sets it on the response.
+     *
+     * @param request the current request
+     * @param versions everything the response body depends on, including who reads it
+     * @return true if the client is current, in which case a 304 is sent and the handler should return null
+     */
+    static boolean notModified(ServletWebRequest request, Object... versions) {
+        return notModified(request, entityTag(versions));
+    }
+
+    /**
+     * Checks the request against an ETag made by {@link #entityTag(Object...)} before, and sets it on the response.
+     *
+     * @param request the current request
+     * @param entityTag the ETag of the response
+     * @return true if the client is current, in which case a 304 is sent and the handler should return null
+     */
+    static boolean notModified(ServletWebRequest request, String entityTag) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+
+        return request.checkNotModified(entityTag);
+    }
+
+    /**
+     * Returns the strong ETag of the given versions, which changes whenever one of them does.
+     *
+     * @param versions the versions, compared by their string form
+     * @return Returns the quoted ETag
+     */
+    static String entityTag(Object... versions) {
+        String joined = Arrays.stream(versions).map(String::valueOf).collect(Collectors.joining("|"));
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(joined.getBytes(StandardCharsets.UTF_8));
+            return '"' + HexFormat.of().formatHex(digest, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,8 +14,9 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.zhc1.realworld.api.request.LoginUserRequest;
 import io.zhc1.realworld.api.request.SignupRequest;
@@ -22,17 +24,37 @@ import io.zhc1.realworld.api.request.UpdateUserRequest;
 import io.zhc1.realworld.api.response.UsersResponse;
 import io.zhc1.realworld.config.AuthToken;
 import io.zhc1.realworld.config.AuthTokenProvider;
+import io.zhc1.realworld.mixin.AuthenticationAwareMixin;
 import io.zhc1.realworld.model.User;
 import io.zhc1.realworld.model.UserRegistry;
 import io.zhc1.realworld.service.UserService;
 
 @RestController
-@RequiredArgsConstructor
-class UserController {
+class UserController implements AuthenticationAwareMixin {
     private static final String LOGIN_URL = "/api/users/login";
 
     private final UserService userService;
     private final AuthTokenProvider bearerTokenProvider;
+    private final View signedUpView;
+    private final boolean issueTokenOnSignup;
+
+    /**
+     * @param issueTokenOnSignup whether signup answers like login does, with the user and their token, rather than
+     *     redirecting the client to login. It saves a request, a user lookup and a BCrypt check per signup.
+     */
+    UserController(
+            UserService userService,
+            AuthTokenProvider bearerTokenProvider,
+            ObjectMapper objectMapper,
+            @Value("${realworld.signup.issue-token:false}") boolean issueTokenOnSignup) {
+        var jsonView = new MappingJackson2JsonView(objectMapper);
+        jsonView.setExtractValueFromSingleKeyModel(true);
+
+        this.userService = userService;
+        this.bearerTokenProvider = bearerTokenProvider;
+        this.signedUpView = jsonView;
+        this.issueTokenOnSignup = issueTokenOnSignup;
+    }
 
     @PostMapping("/api/users")
     public ModelAndView signup(HttpServletRequest httpServletRequest, @RequestBody SignupRequest request) {
@@ -41,7 +63,14 @@ class UserController {
                 request.user().username(),
                 request.user().password());
 
-        userService.signup(userRegistry);
+        var user = userService.signup(userRegistry);
+
+        if (issueTokenOnSignup) {
+            var signedUp = new ModelAndView(
+                    signedUpView, "user", UsersResponse.from(user, bearerTokenProvider.createAuthToken(user)));
+            signedUp.setStatus(HttpStatus.CREATED);
+            return signedUp;
+        }
 
         // Redirect to login API to automatically login when signup is complete
         var loginRequest =
@@ -65,13 +94,18 @@ class UserController {
 
     @GetMapping("/api/user")
     public UsersResponse getUser(AuthToken actorsToken) {
-        var actor = userService.getUser(actorsToken.userId());
+        var actor = this.actor(actorsToken, userService);
 
         return UsersResponse.from(actor, actorsToken.tokenValue());
     }
 
     @PutMapping("/api/user")
     public UsersResponse updateUser(AuthToken actorsToken, @RequestBody UpdateUserRequest request) {
+        // Reject a self-contained token issued before the profile last changed, before changing it again.
+        if (actorsToken.isSelfContained()) {
+            this.actor(actorsToken, userService);
+        }
+
         User actor = userService.updateUserDetails(
                 actorsToken.userId(),
                 request.user().email(),
@@ -80,6 +114,10 @@ class UserController {
                 request.user().bio(),
                 request.user().image());
 
-        return UsersResponse.from(actor, actorsToken.tokenValue());
+        // A self-contained token names the profile it was issued for, so the changed profile needs a new one.
+        var authToken = actorsToken.isSelfContained()
+                ? bearerTokenProvider.createAuthToken(actor)
+                : actorsToken.tokenValue();
+        return UsersResponse.from(actor, authToken);
     }
 }
@@ -5,6 +5,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,22 +22,33 @@ class UserRelationshipController implements AuthenticationAwareMixin {
     private final UserRelationshipService userRelationshipService;
 
     @GetMapping("/api/profiles/{username}")
-    ProfilesResponse getUserProfile(AuthToken profileViewersToken, @PathVariable("username") String targetUsername) {
+    ProfilesResponse getUserProfile(
+            AuthToken profileViewersToken,
+            @PathVariable("username") String targetUsername,
+            ServletWebRequest request) {
         var targetUser = userService.getUser(targetUsername);
 
         if (this.isAnonymousUser(profileViewersToken)) {
+            if (ConditionalRequests.notModified(request, targetUser.getId(), targetUser.profileVersion())) {
+                return null;
+            }
             return ProfilesResponse.from(targetUser);
         }
 
-        var viewer = userService.getUser(profileViewersToken.userId());
+        var viewer = this.reader(profileViewersToken, userService);
         var isFollowing = userRelationshipService.isFollowing(viewer, targetUser);
 
+        // The following flag is all that differs between viewers, so it stands in for who is looking.
+        if (ConditionalRequests.notModified(request, targetUser.getId(), targetUser.profileVersion(), isFollowing)) {
+            return null;
+        }
+
         return ProfilesResponse.from(targetUser, isFollowing);
     }
 
     @PostMapping("/api/profiles/{username}/follow")
     ProfilesResponse follow(AuthToken followersToken, @PathVariable("username") String targetUsername) {
-        var follower = userService.getUser(followersToken.userId());
+        var follower = this.actor(followersToken, userService);
         var following = userService.getUser(targetUsername);
 
         userRelationshipService.follow(follower, following);
@@ -46,7 +58,7 @@ class UserRelationshipController implements AuthenticationAwareMixin {
 
     @DeleteMapping("/api/profiles/{username}/follow")
     ProfilesResponse unfollow(AuthToken followersToken, @PathVariable("username") String targetUsername) {
-        var follower = userService.getUser(followersToken.userId());
+        var follower = this.actor(followersToken, userService);
         var following = userService.getUser(targetUsername);
 
         userRelationshipService.unfollow(follower, following);
@@ -3,11 +3,14 @@ package io.zhc1.realworld.api.response;
 import java.time.LocalDateTime;
 import java.util.Collection;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import io.zhc1.realworld.model.Article;
 import io.zhc1.realworld.model.ArticleDetails;
 import io.zhc1.realworld.model.ArticleTag;
 import io.zhc1.realworld.model.Tag;
 
+@JsonSerialize(using = ArticleResponseSerializer.class)
 public record ArticleResponse(
         String slug,
         String title,
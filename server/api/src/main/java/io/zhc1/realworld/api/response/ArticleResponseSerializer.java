@@ -0,0 +1,133 @@
+package io.zhc1.realworld.api.response;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Writes articles from fragments serialized once per version of the article and its author, instead of serializing
+ * every field of every article in every response.
+ *
+ * <p>An article is written as the bytes of its own fields up to {@code updatedAt}, the per-viewer {@code favorited} and
+ * {@code favoritesCount}, the bytes of its author's profile and the per-viewer {@code following}, in the order the
+ * fields are declared in.
+ *
+ * <p>Fragments are found by the slug, {@code updatedAt} and the author's profile. Editing the title, description or
+ * body moves {@code updatedAt} and editing the profile changes it, so both are missed rather than invalidated, and the
+ * outdated fragments age out. Fragments are serialized with the generator's codec and serializers, so they come out as
+ * the mapper writing the response would write them.
+ */
+final class ArticleResponseSerializer extends StdSerializer<ArticleResponse> {
+    // Bodies vary from a few bytes to megabytes, so the cache is bounded by the bytes it holds rather than by count.
+    private static final long MAXIMUM_FRAGMENT_BYTES = 32L * 1024 * 1024;
+
+    // Each mapper creates a serializer of its own, so fragments are only reused by the mapper they were made with.
+    private final Cache<Version, Fragments> fragments = Caffeine.newBuilder()
+            .maximumWeight(MAXIMUM_FRAGMENT_BYTES)
+            .weigher((Version version, Fragments rendered) -> rendered.byteLength())
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    ArticleResponseSerializer() {
+        super(ArticleResponse.class);
+    }
+
+    @Override
+    public void serialize(ArticleResponse article, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (gen instanceof TokenBuffer) {
+            // Token buffers, as used by convertValue, cannot take raw JSON.
+            gen.writeStartObject();
+            writeArticleFields(article, gen, provider);
+            gen.writeBooleanField("favorited", article.favorited());
+            gen.writeNumberField("favoritesCount", article.favoritesCount());
+            gen.writeObjectFieldStart("author");
+            writeAuthorFields(article.author(), gen);
+            gen.writeBooleanField("following", article.author().following());
+            gen.writeEndObject();
+            gen.writeEndObject();
+            return;
+        }
+
+        Fragments rendered;
+        try {
+            rendered = fragments.get(Version.of(article), version -> render(article, gen, provider));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        gen.writeRawValue(rendered.article());
+        gen.writeRaw(",\"favorited\":" + article.favorited() + ",\"favoritesCount\":" + article.favoritesCount()
+                + ",\"author\":");
+        gen.writeRaw(rendered.author());
+        gen.writeRaw(",\"following\":" + article.author().following() + "}}");
+    }
+
+    private static Fragments render(ArticleResponse article, JsonGenerator gen, SerializerProvider provider) {
+        JsonFactory factory = gen.getCodec() != null ? gen.getCodec().getFactory() : new JsonFactory();
+        ByteArrayBuilder articleBytes = new ByteArrayBuilder();
+        ByteArrayBuilder authorBytes = new ByteArrayBuilder();
+
+        // The objects are left open, for the per-viewer fields to follow.
+        try (JsonGenerator fragment = open(factory, articleBytes)) {
+            writeArticleFields(article, fragment, provider);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try (JsonGenerator fragment = open(factory, authorBytes)) {
+            writeAuthorFields(article.author(), fragment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Fragments(new RawJson(articleBytes.toByteArray()), new RawJson(authorBytes.toByteArray()));
+    }
+
+    private static void writeArticleFields(ArticleResponse article, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStringField("slug", article.slug());
+        gen.writeStringField("title", article.title());
+        gen.writeStringField("description", article.description());
+        gen.writeStringField("body", article.body());
+        gen.writeFieldName("tagList");
+        gen.writeArray(article.tagList(), 0, article.tagList().length);
+        provider.defaultSerializeField("createdAt", article.createdAt(), gen);
+        provider.defaultSerializeField("updatedAt", article.updatedAt(), gen);
+    }
+
+    private static void writeAuthorFields(ProfileResponse author, JsonGenerator gen) throws IOException {
+        gen.writeStringField("username", author.username());
+        gen.writeStringField("bio", author.bio());
+        gen.writeStringField("image", author.image());
+    }
+
+    private static JsonGenerator open(JsonFactory factory, ByteArrayBuilder bytes) throws IOException {
+        JsonGenerator fragment = factory.createGenerator(bytes);
+        fragment.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        fragment.writeStartObject();
+        return fragment;
+    }
+
+    private record Version(String slug, LocalDateTime updatedAt, String username, String bio, String image) {
+        static Version of(ArticleResponse article) {
+            ProfileResponse author = article.author();
+            return new Version(article.slug(), article.updatedAt(), author.username(), author.bio(), author.image());
+        }
+    }
+
+    private record Fragments(RawJson article, RawJson author) {
+        int byteLength() {
+            return article.byteLength() + author.byteLength();
+        }
+    }
+}
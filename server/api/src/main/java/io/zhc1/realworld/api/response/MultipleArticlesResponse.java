@@ -2,12 +2,15 @@ package io.zhc1.realworld.api.response;
 
 import java.util.List;
 
-public record MultipleArticlesResponse(List<ArticleResponse> articles, int articlesCount) {
-    public MultipleArticlesResponse {
-        articlesCount = articles.size();
-    }
-
+/**
+ * A page of articles.
+ *
+ * @param articles the articles of the page
+ * @param articlesCount the number of articles on all pages, which may be slightly out of date
+ * @param nextCursor the cursor of the next page, or {@code null} on the last one
+ */
+public record MultipleArticlesResponse(List<ArticleResponse> articles, long articlesCount, String nextCursor) {
     public MultipleArticlesResponse(List<ArticleResponse> articles) {
-        this(articles, articles.size());
+        this(articles, articles.size(), null);
     }
 }
@@ -7,11 +7,17 @@ import java.util.UUID;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.Transient;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
 import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
+import io.zhc1.realworld.model.User;
+
 @Transient
 public final class AuthToken extends AbstractOAuth2TokenAuthenticationToken<Jwt> {
+    static final String USERNAME_CLAIM = "username";
+    static final String PROFILE_VERSION_CLAIM = "ver";
+
     private final JwtAuthenticationToken delegate;
 
     public AuthToken(Jwt jwt, JwtAuthenticationToken delegate) {
@@ -86,4 +92,67 @@ public final class AuthToken extends AbstractOAuth2TokenAuthenticationToken<Jwt>
     public UUID userId() {
         return UUID.fromString(delegate.getName());
     }
+
+    /**
+     * Checks if the token carries the username and profile version of the user besides their ID, so that requests which
+     * only need to know who is asking can do without reading the user.
+     *
+     * @return true if the token is self-contained
+     */
+    public boolean isSelfContained() {
+        return delegate.getToken().hasClaim(USERNAME_CLAIM)
+                && delegate.getToken().hasClaim(PROFILE_VERSION_CLAIM);
+    }
+
+    /**
+     * Extract the username from a self-contained JWT. It is the username at the time the token was issued.
+     *
+     * @return the username, or null if the token is not self-contained
+     */
+    public String username() {
+        return delegate.getToken().getClaimAsString(USERNAME_CLAIM);
+    }
+
+    /**
+     * Extract the profile version from a self-contained JWT.
+     *
+     * @return the profile version, or null if the token is not self-contained
+     * @see User#profileVersion()
+     */
+    public Long profileVersion() {
+        return delegate.getToken().getClaim(PROFILE_VERSION_CLAIM) instanceof Number version
+                ? version.longValue()
+                : null;
+    }
+
+    /**
+     * Returns a stand-in for the user of a self-contained JWT, built from its claims without reading the user.
+     *
+     * @return the stand-in
+     * @see User#reference(UUID, String)
+     */
+    public User reference() {
+        if (!isSelfContained()) {
+            throw new IllegalStateException("only a self-contained token can reference its user.");
+        }
+
+        return User.reference(userId(), username());
+    }
+
+    /**
+     * Checks that the profile of the user has not changed since a self-contained JWT was issued. Tokens that are not
+     * self-contained carry no version and always pass.
+     *
+     * @param user the user of this token, as read just now
+     * @return the given user
+     * @throws InvalidBearerTokenException if the profile has changed since
+     */
+    public User verify(User user) {
+        Long profileVersion = profileVersion();
+        if (profileVersion != null && profileVersion != user.profileVersion()) {
+            throw new InvalidBearerTokenException("the profile has changed since the token was issued.");
+        }
+
+        return user;
+    }
 }
@@ -2,19 +2,29 @@ package io.zhc1.realworld.config;
 
 import java.time.Instant;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Component;
 
-import lombok.RequiredArgsConstructor;
-
 import io.zhc1.realworld.model.User;
 
 @Component
-@RequiredArgsConstructor
 public final class AuthTokenProvider {
     private final JwtEncoder jwtEncoder;
+    private final boolean selfContained;
+
+    /**
+     * @param jwtEncoder encoder signing the tokens
+     * @param selfContained whether tokens carry the username and profile version besides the user ID, so that read
+     *     endpoints can skip reading the user. See {@link AuthToken#isSelfContained()}.
+     */
+    public AuthTokenProvider(
+            JwtEncoder jwtEncoder, @Value("${security.token.self-contained:false}") boolean selfContained) {
+        this.jwtEncoder = jwtEncoder;
+        this.selfContained = selfContained;
+    }
 
     public String createAuthToken(User user) {
         if (user == null || user.getId() == null) {
@@ -22,13 +32,17 @@ public final class AuthTokenProvider {
         }
 
         var now = Instant.now();
-        return jwtEncoder
-                .encode(JwtEncoderParameters.from(JwtClaimsSet.builder()
-                        .issuer("https://realworld.io")
-                        .issuedAt(now)
-                        .expiresAt(now.plusSeconds(300))
-                        .subject(user.getId().toString())
-                        .build()))
-                .getTokenValue();
+        var claims = JwtClaimsSet.builder()
+                .issuer("https://realworld.io")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .subject(user.getId().toString());
+
+        if (selfContained) {
+            claims.claim(AuthToken.USERNAME_CLAIM, user.getUsername())
+                    .claim(AuthToken.PROFILE_VERSION_CLAIM, user.profileVersion());
+        }
+
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims.build())).getTokenValue();
     }
 }
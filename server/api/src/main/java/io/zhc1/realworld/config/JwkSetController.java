@@ -0,0 +1,22 @@
+package io.zhc1.realworld.config;
+
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+/** Publishes the public keys auth tokens are verified with, so that other services can verify them too. */
+@RestController
+@RequiredArgsConstructor
+class JwkSetController {
+    static final String JWK_SET_URL = "/.well-known/jwks.json";
+
+    private final SigningKeys signingKeys;
+
+    @GetMapping(JWK_SET_URL)
+    Map<String, Object> getJwkSet() {
+        return signingKeys.publicKeys().toJSONObject();
+    }
+}
@@ -0,0 +1,23 @@
+package io.zhc1.realworld.config;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.ErrorResponseException;
+
+/**
+ * Thrown when too many passwords are waiting to be hashed already. It answers with 503 and a {@code Retry-After} header
+ * through the {@link ErrorResponseException} handling of {@link ApplicationExceptionHandler}.
+ */
+class PasswordHashingRejectedException extends ErrorResponseException {
+    PasswordHashingRejectedException(Duration retryAfter) {
+        super(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ProblemDetail.forStatusAndDetail(
+                        HttpStatus.SERVICE_UNAVAILABLE, "too many passwords are being checked, please retry later."),
+                null);
+        getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+    }
+}
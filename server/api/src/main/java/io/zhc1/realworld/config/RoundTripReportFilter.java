@@ -0,0 +1,117 @@
+package io.zhc1.realworld.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import io.zhc1.realworld.diagnostics.RoundTripCounter;
+
+/**
+ * Reports how many database round trips each request made, to catch N+1 query patterns during development.
+ *
+ * <p>The counts go to the {@value #HEADER} response header and to a log line. The header is set when the body
+ * starts to be written, so round trips made while streaming the body are only logged. A body written on an async
+ * thread, such as a {@code StreamingResponseBody}, is counted when it {@link RoundTripCounter#join joins} the scope of
+ * its request, and the request is logged once the async processing completed. Enabled by
+ * {@code realworld.round-trips.report}, which the {@code dev} profile turns on and which should stay off in production.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "realworld.round-trips.report", havingValue = "true")
+class RoundTripReportFilter extends OncePerRequestFilter {
+    static final String HEADER = "X-Database-Round-Trips";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (RoundTripCounter.Scope scope = RoundTripCounter.open()) {
+            ReportingResponse reportingResponse = new ReportingResponse(response, scope);
+            try {
+                filterChain.doFilter(request, reportingResponse);
+            } finally {
+                reportingResponse.report();
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new LoggingAsyncListener(request, scope));
+                } else {
+                    log(request, scope);
+                }
+            }
+        }
+    }
+
+    private static void log(HttpServletRequest request, RoundTripCounter.Scope scope) {
+        log.info(
+                "{} {} made {} database round trips ({})",
+                request.getMethod(),
+                request.getRequestURI(),
+                scope.total(),
+                scope);
+    }
+
+    private record LoggingAsyncListener(HttpServletRequest request, RoundTripCounter.Scope scope)
+            implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log(request, scope);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {}
+
+        @Override
+        public void onError(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+    }
+
+    private static final class ReportingResponse extends HttpServletResponseWrapper {
+        private final RoundTripCounter.Scope scope;
+
+        ReportingResponse(HttpServletResponse response, RoundTripCounter.Scope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            report();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            report();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            report();
+            super.flushBuffer();
+        }
+
+        void report() {
+            if (!isCommitted()) {
+                setHeader(HEADER, scope.toString());
+            }
+        }
+    }
+}
@@ -2,13 +2,19 @@ package io.zhc1.realworld.config;
 
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -16,8 +22,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
@@ -25,9 +29,14 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableMethodSecurity
@@ -47,7 +56,8 @@ class SecurityConfiguration {
                                         "/api/articles/{slug}",
                                         "/api/articles",
                                         "/api/profiles/{username}",
-                                        "/api/tags")
+                                        "/api/tags",
+                                        JwkSetController.JWK_SET_URL)
                                 .permitAll()
                                 .anyRequest()
                                 .authenticated())
@@ -81,17 +91,60 @@ class SecurityConfiguration {
         return source;
     }
 
+    /* Note: Verifying the signature dominates the cost of authenticating a request, and clients send the same token for
+     *       up to 300 seconds, so verified tokens are remembered until they expire.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(
+            SigningKeys signingKeys,
+            @Value("${security.token.cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        var jwtDecoder = new CachingJwtDecoder(signingKeys.decoder(), maximumSize);
+        jwtDecoder.bindTo(meterRegistry);
+        return jwtDecoder;
+    }
+
     @Bean
-    public JwtDecoder jwtDecoder(@Value("${security.key.public}") RSAPublicKey rsaPublicKey) {
-        return NimbusJwtDecoder.withPublicKey(rsaPublicKey).build();
+    public JwtEncoder jwtEncoder(SigningKeys signingKeys) {
+        return signingKeys.encoder();
     }
 
+    /* Note: RS256 starts out with the configured key pair, ES256 and EdDSA with their key in the configured JWK set, so
+     *       that instances sharing them verify each other's tokens. Without a JWK set, ES256 and EdDSA start out with a
+     *       generated key, which only this instance trusts and which is lost on restart.
+     */
     @Bean
-    public JwtEncoder jwtEncoder(
+    public SigningKeys signingKeys(
+            @Value("${security.signing.algorithm:RS256}") SigningAlgorithm algorithm,
+            @Value("${security.signing.retention:PT10M}") Duration retention,
             @Value("${security.key.public}") RSAPublicKey rsaPublicKey,
-            @Value("${security.key.private}") RSAPrivateKey rsaPrivateKey) {
-        var jwk = new RSAKey.Builder(rsaPublicKey).privateKey(rsaPrivateKey).build();
-        var jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwks);
+            @Value("${security.key.private}") RSAPrivateKey rsaPrivateKey,
+            @Value("${security.signing.jwk-set:#{null}}") Resource jwkSet) {
+        var initial = switch (algorithm) {
+            case RS256 -> configuredKey(rsaPublicKey, rsaPrivateKey);
+            case ES256, EDDSA -> jwkSet != null ? algorithm.select(load(jwkSet)) : algorithm.generate();
+        };
+        return new SigningKeys(algorithm, initial, retention, Clock.systemUTC());
+    }
+
+    private static JWKSet load(Resource jwkSet) {
+        try (InputStream inputStream = jwkSet.getInputStream()) {
+            return JWKSet.load(inputStream);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("failed to read the signing keys from %s.".formatted(jwkSet), e);
+        }
+    }
+
+    private static JWK configuredKey(RSAPublicKey rsaPublicKey, RSAPrivateKey rsaPrivateKey) {
+        try {
+            return new RSAKey.Builder(rsaPublicKey)
+                    .privateKey(rsaPrivateKey)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .keyIDFromThumbprint()
+                    .build();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("failed to identify the configured key.", e);
+        }
     }
 }
@@ -1,26 +1,129 @@
 package io.zhc1.realworld.config;
 
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import io.zhc1.realworld.model.PasswordEncoder;
 
-/* Note: Connects the PasswordEncoder of 'core' module and 'Spring Security'  */
+/**
+ * Connects the PasswordEncoder of 'core' module and 'Spring Security'.
+ *
+ * <p>Hashes and checks passwords on a pool of its own, so that a burst of logins or signups spends at most the threads
+ * of the pool on BCrypt, about 100 ms of CPU each, while the rest of the cores keep serving other requests.
+ *
+ * <p>Callers wait for their turn in a bounded queue. Once it is full, further calls are refused at once with a 503 and
+ * a {@code Retry-After} header instead of queueing up behind work that would outlast their clients. The queue depth,
+ * the time spent waiting in it and the refusals are published as {@code password.hashing.*} meters.
+ */
 @Component
-class SecurityPasswordEncoderAdapter implements PasswordEncoder {
+class SecurityPasswordEncoderAdapter implements PasswordEncoder, DisposableBean {
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    /**
+     * @param threads the number of passwords hashed at once, which is the number of cores BCrypt may use
+     * @param queueCapacity the number of callers that may wait for a thread before others are refused
+     * @param retryAfter how long refused clients are asked to wait before trying again
+     * @param meterRegistry the registry the meters are published to
+     */
+    @Autowired
+    SecurityPasswordEncoderAdapter(
+            @Value("${realworld.password-hashing.threads:0}") int threads,
+            @Value("${realworld.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${realworld.password-hashing.retry-after:PT1S}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(), threads, queueCapacity, retryAfter, meterRegistry);
+    }
+
+    /** A {@code threads} of 0 or less uses half of the available cores, and at least one. */
+    SecurityPasswordEncoderAdapter(
+            org.springframework.security.crypto.password.PasswordEncoder passwordEncoder,
+            int threads,
+            int queueCapacity,
+            Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory());
 
-    SecurityPasswordEncoderAdapter() {
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        Gauge.builder("password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashing calls waiting for a thread")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time password hashing calls waited for a thread")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("password.hashing.rejected")
+                .description("Password hashing calls refused because the queue was full")
+                .register(meterRegistry);
     }
 
     @Override
     public boolean matches(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return hash(() -> passwordEncoder.matches(rawPassword, encodedPassword));
     }
 
     @Override
     public String encode(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return hash(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T hash(Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return work.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new PasswordHashingRejectedException(retryAfter);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the password to be hashed.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
     }
 }
@@ -0,0 +1,121 @@
+package io.zhc1.realworld.config;
+
+import java.util.UUID;
+
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+/**
+ * The algorithms auth tokens can be signed with. Signing with RS256 costs far more than verifying, which makes logins
+ * the expensive part; ES256 and EdDSA sign much faster with much smaller keys.
+ */
+enum SigningAlgorithm {
+    RS256(JWSAlgorithm.RS256, SignatureAlgorithm.RS256),
+    ES256(JWSAlgorithm.ES256, SignatureAlgorithm.ES256),
+    /* Note: Spring Security has no constant for EdDSA, but hands the name to Nimbus, which signs with Ed25519. */
+    EDDSA(JWSAlgorithm.EdDSA, () -> JWSAlgorithm.EdDSA.getName());
+
+    private final JWSAlgorithm jwsAlgorithm;
+    private final JwsAlgorithm headerAlgorithm;
+
+    SigningAlgorithm(JWSAlgorithm jwsAlgorithm, JwsAlgorithm headerAlgorithm) {
+        this.jwsAlgorithm = jwsAlgorithm;
+        this.headerAlgorithm = headerAlgorithm;
+    }
+
+    JWSAlgorithm jwsAlgorithm() {
+        return jwsAlgorithm;
+    }
+
+    JwsAlgorithm headerAlgorithm() {
+        return headerAlgorithm;
+    }
+
+    /**
+     * Generates a new key pair for this algorithm, identified by a random key ID.
+     *
+     * @return Returns the private key, which includes the public one
+     */
+    JWK generate() {
+        JWKGenerator<? extends JWK> generator =
+                switch (this) {
+                    case RS256 -> new RSAKeyGenerator(2048);
+                    case ES256 -> new ECKeyGenerator(Curve.P_256);
+                    case EDDSA -> new OctetKeyPairGenerator(Curve.Ed25519);
+                };
+
+        try {
+            return generator
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(jwsAlgorithm)
+                    .keyID(UUID.randomUUID().toString())
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("failed to generate a %s key.".formatted(this), e);
+        }
+    }
+
+    /**
+     * Picks the key pair for this algorithm out of a configured JWK set, so that instances sharing the set verify each
+     * other's tokens. A key without an ID is identified by its thumbprint.
+     *
+     * @param keys the JWK set, holding private keys
+     * @return Returns the first private key of the set this algorithm signs with
+     * @throws IllegalArgumentException if the set holds no such key
+     */
+    JWK select(JWKSet keys) {
+        JWK key = keys.getKeys().stream()
+                .filter(JWK::isPrivate)
+                .filter(candidate -> candidate.getAlgorithm() == null || jwsAlgorithm.equals(candidate.getAlgorithm()))
+                .filter(this::fits)
+                .findFirst()
+                .orElseThrow(
+                        () -> new IllegalArgumentException("the JWK set holds no private %s key.".formatted(this)));
+
+        try {
+            String keyId = key.getKeyID() != null ? key.getKeyID() : key.computeThumbprint().toString();
+            return switch (key) {
+                case RSAKey rsaKey -> new RSAKey.Builder(rsaKey)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .algorithm(jwsAlgorithm)
+                        .keyID(keyId)
+                        .build();
+                case ECKey ecKey -> new ECKey.Builder(ecKey)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .algorithm(jwsAlgorithm)
+                        .keyID(keyId)
+                        .build();
+                case OctetKeyPair octetKeyPair -> new OctetKeyPair.Builder(octetKeyPair)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .algorithm(jwsAlgorithm)
+                        .keyID(keyId)
+                        .build();
+                default -> throw new IllegalArgumentException("unsupported key type %s.".formatted(key.getKeyType()));
+            };
+        } catch (JOSEException e) {
+            throw new IllegalStateException("failed to identify the configured %s key.".formatted(this), e);
+        }
+    }
+
+    private boolean fits(JWK key) {
+        return switch (this) {
+            case RS256 -> key instanceof RSAKey;
+            case ES256 -> key instanceof ECKey ecKey && Curve.P_256.equals(ecKey.getCurve());
+            case EDDSA -> key instanceof OctetKeyPair octetKeyPair && Curve.Ed25519.equals(octetKeyPair.getCurve());
+        };
+    }
+}
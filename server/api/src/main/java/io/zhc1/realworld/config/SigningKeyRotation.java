@@ -0,0 +1,24 @@
+package io.zhc1.realworld.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.RequiredArgsConstructor;
+
+/** Rotates the signing key every {@code security.signing.rotation}, an ISO-8601 duration such as {@code PT12H}. */
+@Configuration
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty("security.signing.rotation")
+class SigningKeyRotation {
+    private final SigningKeys signingKeys;
+
+    @Scheduled(
+            initialDelayString = "${security.signing.rotation}",
+            fixedRateString = "${security.signing.rotation}")
+    void rotate() {
+        signingKeys.rotate();
+    }
+}
@@ -0,0 +1,147 @@
+package io.zhc1.realworld.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The keys auth tokens are signed and verified with.
+ *
+ * <p>One key signs at a time. Rotating puts a newly generated key in its place and retires the old one, which is still
+ * trusted for verification until every token it signed has expired. Each token names the key that signed it in its
+ * {@code kid} header, and the public halves of all trusted keys are published as a JWK set.
+ *
+ * <p>Generated keys live in memory only, so instances that rotate cannot verify each other's tokens. Deployments with
+ * several instances should leave rotation off and share a configured key instead.
+ */
+@Slf4j
+final class SigningKeys {
+    private final SigningAlgorithm algorithm;
+    private final Duration retention;
+    private final Clock clock;
+
+    private volatile JWK current;
+    private volatile List<RetiredKey> retired = List.of();
+
+    /**
+     * @param algorithm the algorithm new keys are generated for
+     * @param initial the key to sign with until the first rotation
+     * @param retention how long a retired key is still trusted, at least as long as tokens live
+     * @param clock the clock retirement is measured with
+     */
+    SigningKeys(SigningAlgorithm algorithm, JWK initial, Duration retention, Clock clock) {
+        if (!algorithm.jwsAlgorithm().equals(initial.getAlgorithm())) {
+            throw new IllegalArgumentException("the initial key must be a %s key.".formatted(algorithm));
+        }
+
+        this.algorithm = algorithm;
+        this.current = initial;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    SigningAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /** Signs with a newly generated key from now on and stops trusting keys retired longer than the retention ago. */
+    synchronized void rotate() {
+        Instant now = clock.instant();
+        JWK next = algorithm.generate();
+
+        List<RetiredKey> stillTrusted = new ArrayList<>();
+        stillTrusted.add(new RetiredKey(current, now));
+        retired.stream()
+                .filter(key -> key.retiredAt().plus(retention).isAfter(now))
+                .forEach(stillTrusted::add);
+
+        retired = List.copyOf(stillTrusted);
+        current = next;
+        log.info(
+                "Rotated the {} signing key to {}, {} retired keys still trusted",
+                algorithm,
+                next.getKeyID(),
+                retired.size());
+    }
+
+    /**
+     * Returns the public halves of the signing key and of the retired keys still trusted, to be published.
+     *
+     * @return Returns the public JWK set
+     */
+    JWKSet publicKeys() {
+        return trusted().toPublicJWKSet();
+    }
+
+    /**
+     * Returns an encoder signing with whichever key is current at the time, naming it in the {@code kid} header.
+     *
+     * @return Returns the encoder
+     */
+    JwtEncoder encoder() {
+        // The header names the key, which stays trusted while a rotation in between makes another one current.
+        JWKSource<SecurityContext> trustedKeys = (selector, context) -> selector.select(trusted());
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(trustedKeys);
+
+        return parameters -> {
+            JWK key = current;
+            JwsHeader header = JwsHeader.with(algorithm.headerAlgorithm())
+                    .keyId(key.getKeyID())
+                    .build();
+            return encoder.encode(JwtEncoderParameters.from(header, parameters.getClaims()));
+        };
+    }
+
+    /**
+     * Returns a decoder verifying tokens with the trusted key named by their {@code kid} header. Tokens signed with
+     * any supported algorithm are accepted, so that keys retired before switching algorithms stay trusted.
+     *
+     * @return Returns the decoder
+     */
+    JwtDecoder decoder() {
+        Set<JWSAlgorithm> algorithms = Set.of(
+                SigningAlgorithm.RS256.jwsAlgorithm(),
+                SigningAlgorithm.ES256.jwsAlgorithm(),
+                SigningAlgorithm.EDDSA.jwsAlgorithm());
+        JWKSource<SecurityContext> trustedKeys = (selector, context) -> selector.select(trusted());
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, trustedKeys));
+        // Claims are validated by NimbusJwtDecoder, like the decoders built by NimbusJwtDecoder.withPublicKey do.
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    private JWKSet trusted() {
+        Instant now = clock.instant();
+        return new JWKSet(Stream.concat(
+                        Stream.of(current),
+                        retired.stream()
+                                .filter(key -> key.retiredAt().plus(retention).isAfter(now))
+                                .map(RetiredKey::key))
+                .toList());
+    }
+
+    private record RetiredKey(JWK key, Instant retiredAt) {}
+}
@@ -1,13 +1,15 @@
 package io.zhc1.realworld.mixin;
 
 import io.zhc1.realworld.config.AuthToken;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.service.UserService;
 
 /**
  * A mixin interface that provides authentication-related capabilities. It can be implemented by classes requiring the
  * ability to determine the authentication status of a user.
  *
  * <p>This interface contains a utility method to check whether a given authentication token corresponds to an anonymous
- * (unauthenticated) user.
+ * (unauthenticated) user, and methods to resolve the user behind a token.
  */
 public interface AuthenticationAwareMixin {
     /**
@@ -20,4 +22,28 @@ public interface AuthenticationAwareMixin {
     default boolean isAnonymousUser(AuthToken token) {
         return token == null || !token.isAuthenticated();
     }
+
+    /**
+     * Resolves the user reading something. A self-contained token already says who that is, so the user is not read;
+     * the result is then only fit for reads that look the user up by ID.
+     *
+     * @param token the authentication token of the reader
+     * @param userService the service to read the user with otherwise
+     * @return the reader
+     */
+    default User reader(AuthToken token, UserService userService) {
+        return token.isSelfContained() ? token.reference() : userService.getUser(token.userId());
+    }
+
+    /**
+     * Resolves the user changing something. The user is always read, and a self-contained token issued before their
+     * profile last changed is rejected.
+     *
+     * @param token the authentication token of the actor
+     * @param userService the service to read the user with
+     * @return the actor
+     */
+    default User actor(AuthToken token, UserService userService) {
+        return token.verify(userService.getUser(token.userId()));
+    }
 }
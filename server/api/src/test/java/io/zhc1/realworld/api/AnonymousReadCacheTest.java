@@ -0,0 +1,217 @@
+package io.zhc1.realworld.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import io.zhc1.realworld.api.response.ArticleResponse;
+import io.zhc1.realworld.api.response.MultipleArticlesResponse;
+import io.zhc1.realworld.api.response.ProfileResponse;
+import io.zhc1.realworld.api.response.SingleArticleResponse;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleEvent;
+import io.zhc1.realworld.model.ArticleFacets;
+import io.zhc1.realworld.model.ArticleTag;
+import io.zhc1.realworld.model.ProfileEvent;
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserRegistry;
+
+@DisplayName("Anonymous Read Cache - Shared Responses, Invalidation and Single Loads")
+class AnonymousReadCacheTest {
+    AnonymousReadCache sut;
+    AtomicInteger loads;
+    User author;
+    User reader;
+
+    @BeforeEach
+    void setUp() {
+        sut = new AnonymousReadCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+        author = new User(new UserRegistry("author@realworld.io", "author", "password"));
+        reader = new User(new UserRegistry("reader@realworld.io", "reader", "password"));
+    }
+
+    @Test
+    @DisplayName("When facets differ only by blank filters, then they should share one entry")
+    void whenFacetsNormalizeAlike_thenShouldLoadOnce() {
+        // when
+        sut.getArticles(new ArticleFacets(null, null, null, 0, 20), () -> list("a"));
+        sut.getArticles(new ArticleFacets("", " ", null, 0, 20), () -> list("a"));
+
+        // then
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("When an entry is missed concurrently, then it should be loaded once")
+    void whenMissedConcurrently_thenShouldLoadOnce() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> readers = new ArrayList<>();
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                readers.add(executor.submit(() -> sut.getArticles(new ArticleFacets(0, 20), () -> {
+                    awaitUninterruptibly(release);
+                    return list("a");
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> pending : readers) {
+                pending.get();
+            }
+        }
+
+        // then
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("When an article is favorited, then its detail, lists showing it and the favoriter's lists reload")
+    void whenArticleIsFavorited_thenShouldDropWhatShowsIt() {
+        // given
+        Article article = article("Title", "java");
+        ArticleFacets showing = new ArticleFacets(0, 20);
+        ArticleFacets favorites = new ArticleFacets(null, null, "reader", 0, 20);
+        ArticleFacets other = new ArticleFacets("kotlin", null, null, 0, 20);
+        load(showing, "title");
+        load(favorites);
+        load(other, "other");
+        sut.getArticle("title", () -> cached("title"));
+
+        // when
+        sut.on(new ArticleEvent(ArticleEvent.Kind.FAVORITED, article, reader));
+
+        // then
+        int before = loads.get();
+        load(showing, "title");
+        load(favorites, "title");
+        load(other, "other");
+        sut.getArticle("title", () -> cached("title"));
+        assertEquals(3, loads.get() - before);
+    }
+
+    @Test
+    @DisplayName("When an article is written, then only the lists it may enter should reload")
+    void whenArticleIsWritten_thenShouldDropListsItMayEnter() {
+        // given
+        Article article = article("Title", "java");
+        ArticleFacets all = new ArticleFacets(20, 20);
+        ArticleFacets byTag = new ArticleFacets("java", null, null, 0, 20);
+        ArticleFacets byOtherAuthor = new ArticleFacets(null, "someone", null, 0, 20);
+        ArticleFacets favorites = new ArticleFacets(null, null, "reader", 0, 20);
+        load(all, "older");
+        load(byTag, "older");
+        load(byOtherAuthor, "older");
+        load(favorites, "older");
+
+        // when
+        sut.on(new ArticleEvent(ArticleEvent.Kind.WRITTEN, article, author));
+
+        // then
+        int before = loads.get();
+        load(all, "title", "older");
+        load(byTag, "title", "older");
+        load(byOtherAuthor, "older");
+        load(favorites, "older");
+        assertEquals(2, loads.get() - before);
+    }
+
+    @Test
+    @DisplayName("When a title is edited, then the entry under the previous slug should reload")
+    void whenTitleIsEdited_thenShouldDropPreviousSlug() {
+        // given
+        Article article = article("New Title", "java");
+        sut.getArticle("title", () -> cached("title"));
+
+        // when
+        sut.on(new ArticleEvent(ArticleEvent.Kind.EDITED, article, "title", author));
+
+        // then
+        int before = loads.get();
+        sut.getArticle("title", () -> cached("title"));
+        assertEquals(1, loads.get() - before);
+    }
+
+    @Test
+    @DisplayName("When an author's profile is edited, then the entries showing their articles should reload")
+    void whenAuthorProfileIsEdited_thenShouldDropWhatShowsThem() {
+        // given
+        ArticleFacets showing = new ArticleFacets(0, 20);
+        ArticleFacets byAuthor = new ArticleFacets(null, "author", null, 0, 20);
+        ArticleFacets byTag = new ArticleFacets("kotlin", null, null, 0, 20);
+        load(showing, "title");
+        load(byAuthor);
+        load(byTag);
+        sut.getArticle("title", () -> cached("title"));
+
+        // when
+        author.setBio("edited");
+        sut.on(new ProfileEvent(author, "author"));
+
+        // then
+        int before = loads.get();
+        load(showing, "title");
+        load(byAuthor);
+        load(byTag);
+        sut.getArticle("title", () -> cached("title"));
+        assertEquals(3, loads.get() - before);
+    }
+
+    private Article article(String title, String tag) {
+        Article article = new Article(author, title, "description", "content") {
+            @Override
+            public Integer getId() {
+                return 1;
+            }
+        };
+        article.addTag(new ArticleTag(article, new Tag(tag)));
+        return article;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void load(ArticleFacets facets, String... slugs) {
+        sut.getArticles(facets, () -> list(slugs));
+    }
+
+    private MultipleArticlesResponse list(String... slugs) {
+        loads.incrementAndGet();
+        return new MultipleArticlesResponse(List.of(slugs).stream().map(this::response).toList());
+    }
+
+    private AnonymousReadCache.CachedArticle cached(String slug) {
+        loads.incrementAndGet();
+        return new AnonymousReadCache.CachedArticle(new SingleArticleResponse(response(slug)), "\"" + slug + "\"");
+    }
+
+    private ArticleResponse response(String slug) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ArticleResponse(
+                slug, slug, "description", "content", new String[0], now, now, false, 0, ProfileResponse.from(author));
+    }
+}
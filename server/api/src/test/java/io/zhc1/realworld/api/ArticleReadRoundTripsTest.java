@@ -0,0 +1,135 @@
+package io.zhc1.realworld.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import io.zhc1.realworld.config.AuthTokenProvider;
+import io.zhc1.realworld.diagnostics.RoundTripBudget;
+import io.zhc1.realworld.model.Article;
+import io.zhc1.realworld.model.ArticleComment;
+import io.zhc1.realworld.model.Tag;
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserRegistry;
+import io.zhc1.realworld.service.ArticleCommentService;
+import io.zhc1.realworld.service.ArticleService;
+import io.zhc1.realworld.service.UserRelationshipService;
+import io.zhc1.realworld.service.UserService;
+
+/**
+ * Holds the read endpoints to a number of round trips that does not grow with the articles or comments they return.
+ * More articles and comments are read than any budget allows, so a query per row goes over it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Article Read Endpoints - Database Round Trip Budgets")
+class ArticleReadRoundTripsTest {
+    private static final int ARTICLES = 30;
+    private static final int COMMENTS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String token;
+    private String slug;
+
+    @BeforeAll
+    void setUp(
+            @Autowired UserService userService,
+            @Autowired UserRelationshipService userRelationshipService,
+            @Autowired ArticleService articleService,
+            @Autowired ArticleCommentService articleCommentService,
+            @Autowired AuthTokenProvider authTokenProvider) {
+        User reader = userService.signup(new UserRegistry("reader@realworld.io", "reader", "password"));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            User user = userService.signup(
+                    new UserRegistry("user%d@realworld.io".formatted(i), "user" + i, "password"));
+            userRelationshipService.follow(reader, user);
+            users.add(user);
+        }
+
+        Article first = null;
+        for (int i = 0; i < ARTICLES; i++) {
+            Article article = articleService.write(
+                    new Article(users.get(i % 3), "title " + i, "description " + i, "content " + i),
+                    Set.of(new Tag("java"), new Tag("tag" + i % 5)));
+            first = first == null ? article : first;
+        }
+        for (int i = 0; i < COMMENTS; i++) {
+            articleCommentService.write(new ArticleComment(first, users.get(i % users.size()), "comment " + i));
+        }
+
+        token = authTokenProvider.createAuthToken(reader);
+        slug = first.getSlug();
+    }
+
+    @Test
+    @RoundTripBudget(10)
+    @DisplayName("Listing a page of articles stays within its round trip budget")
+    void whenGetArticles_thenShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(authenticated(get("/api/articles")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles.length()").value(20))
+                .andExpect(jsonPath("$.articlesCount").value(ARTICLES));
+    }
+
+    @Test
+    @RoundTripBudget(10)
+    @DisplayName("Reading a page of the feed stays within its round trip budget")
+    void whenGetFeed_thenShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(authenticated(get("/api/articles/feed")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles.length()").value(20))
+                .andExpect(jsonPath("$.articlesCount").value(ARTICLES));
+    }
+
+    @Test
+    @RoundTripBudget(8)
+    @DisplayName("Reading an article stays within its round trip budget")
+    void whenGetArticle_thenShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(authenticated(get("/api/articles/{slug}", slug)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.article.slug").value(slug));
+    }
+
+    @Test
+    @RoundTripBudget(12)
+    @DisplayName("Listing the comments of an article, streamed on an async thread, stays within its round trip budget")
+    void whenGetComments_thenShouldStayWithinBudget() throws Exception {
+        // when
+        MvcResult started = mockMvc.perform(authenticated(get("/api/articles/{slug}/comments", slug)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(COMMENTS));
+    }
+
+    private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Token " + token);
+    }
+}
@@ -0,0 +1,68 @@
+package io.zhc1.realworld.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+@DisplayName("Conditional Requests - Strong ETags and 304 Not Modified")
+class ConditionalRequestsTest {
+    private final LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private final UUID readerId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("When the client sends the current ETag, then should answer 304 without a body")
+    void whenClientIsCurrent_thenShouldBeNotModified() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles/title");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ConditionalRequests.entityTag(1, updatedAt, 3L, readerId));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        boolean notModified =
+                ConditionalRequests.notModified(new ServletWebRequest(request, response), 1, updatedAt, 3L, readerId);
+
+        // then
+        assertTrue(notModified);
+        assertEquals(304, response.getStatus());
+        assertEquals("private, no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    @DisplayName("When a version has moved on, then should answer with the new ETag")
+    void whenVersionHasMovedOn_thenShouldSetNewEntityTag() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles/title");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ConditionalRequests.entityTag(1, updatedAt, 3L, readerId));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        boolean notModified =
+                ConditionalRequests.notModified(new ServletWebRequest(request, response), 1, updatedAt, 4L, readerId);
+
+        // then
+        assertFalse(notModified);
+        assertEquals(200, response.getStatus());
+        assertEquals(ConditionalRequests.entityTag(1, updatedAt, 4L, readerId), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("When the same versions are read by someone else, then the ETag should differ")
+    void whenReaderDiffers_thenEntityTagShouldDiffer() {
+        String anonymous = ConditionalRequests.entityTag(1, updatedAt, 3L, null);
+        String reader = ConditionalRequests.entityTag(1, updatedAt, 3L, readerId);
+
+        assertNotEquals(anonymous, reader);
+        assertTrue(reader.startsWith("\"") && reader.endsWith("\""));
+    }
+}
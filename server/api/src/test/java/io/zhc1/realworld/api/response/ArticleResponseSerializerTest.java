@@ -0,0 +1,88 @@
+package io.zhc1.realworld.api.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("Article Response Serializer - Cached Fragments and Per-Viewer Fields")
+class ArticleResponseSerializerTest {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 9, 30);
+
+    @Test
+    @DisplayName("When a list is written from fragments, then it should read as if written field by field")
+    void whenListIsWritten_thenShouldMatchFieldByFieldOutput() throws Exception {
+        // given
+        MultipleArticlesResponse response = new MultipleArticlesResponse(
+                List.of(
+                        article("first", "Ünïcode \"quoted\" body", createdAt, true, 3, true),
+                        article("second", "body", createdAt, false, 0, false)),
+                2,
+                "cursor");
+
+        // when
+        objectMapper.writeValueAsString(response); // renders the fragments
+        String written = objectMapper.writeValueAsString(response);
+
+        // then
+        JsonNode fieldByField = objectMapper.valueToTree(response);
+        assertThat(written).isEqualTo(objectMapper.writeValueAsString(fieldByField));
+        assertThat(objectMapper.readTree(written).at("/articles/0/author/following").booleanValue()).isTrue();
+    }
+
+    @Test
+    @DisplayName("When the same article is written for different viewers, then only their fields should differ")
+    void whenWrittenForDifferentViewers_thenShouldSpliceTheirFields() throws Exception {
+        // when
+        JsonNode favoritedBy = tree(article("slug", "body", createdAt, true, 5, true));
+        JsonNode notFavoritedBy = tree(article("slug", "body", createdAt, false, 4, false));
+
+        // then
+        assertThat(favoritedBy.get("favorited").booleanValue()).isTrue();
+        assertThat(favoritedBy.get("favoritesCount").intValue()).isEqualTo(5);
+        assertThat(favoritedBy.at("/author/following").booleanValue()).isTrue();
+        assertThat(notFavoritedBy.get("favorited").booleanValue()).isFalse();
+        assertThat(notFavoritedBy.get("favoritesCount").intValue()).isEqualTo(4);
+        assertThat(notFavoritedBy.at("/author/following").booleanValue()).isFalse();
+    }
+
+    @Test
+    @DisplayName("When an article is edited, then the edited body should be written")
+    void whenArticleIsEdited_thenShouldWriteNewFragment() throws Exception {
+        // given
+        tree(article("slug", "before", createdAt, false, 0, false));
+
+        // when
+        JsonNode edited = tree(article("slug", "after", createdAt.plusMinutes(1), false, 0, false));
+
+        // then
+        assertThat(edited.get("body").textValue()).isEqualTo("after");
+    }
+
+    private JsonNode tree(ArticleResponse article) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsBytes(new SingleArticleResponse(article))).get("article");
+    }
+
+    private ArticleResponse article(
+            String slug, String body, LocalDateTime updatedAt, boolean favorited, int count, boolean following) {
+        return new ArticleResponse(
+                slug,
+                "title of " + slug,
+                "description",
+                body,
+                new String[] {"java", "spring"},
+                createdAt,
+                updatedAt,
+                favorited,
+                count,
+                new ProfileResponse("author", null, "https://realworld.io/author.png", following));
+    }
+}
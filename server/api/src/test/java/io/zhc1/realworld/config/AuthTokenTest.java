@@ -0,0 +1,99 @@
+package io.zhc1.realworld.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import io.zhc1.realworld.model.User;
+import io.zhc1.realworld.model.UserRegistry;
+
+@DisplayName("Auth Token - Self-Contained Claims and Profile Versions")
+class AuthTokenTest {
+    JwtEncoder jwtEncoder;
+    JwtDecoder jwtDecoder;
+    User user;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        SecurityConfiguration securityConfiguration = new SecurityConfiguration();
+        SigningKeys signingKeys = securityConfiguration.signingKeys(
+                SigningAlgorithm.RS256,
+                Duration.ofMinutes(10),
+                (RSAPublicKey) keyPair.getPublic(),
+                (RSAPrivateKey) keyPair.getPrivate());
+        jwtEncoder = securityConfiguration.jwtEncoder(signingKeys);
+        jwtDecoder = securityConfiguration.jwtDecoder(signingKeys, 0, new SimpleMeterRegistry());
+        user = new User(new UserRegistry("alice@realworld.io", "alice", "password"));
+    }
+
+    @Test
+    @DisplayName("When the token is not self-contained, then it should carry the user ID only")
+    void whenTokenIsNotSelfContained_thenShouldCarryUserIdOnly() {
+        // when
+        AuthToken sut = issue(false);
+
+        // then
+        assertFalse(sut.isSelfContained());
+        assertEquals(user.getId(), sut.userId());
+        assertNull(sut.username());
+        assertNull(sut.profileVersion());
+        assertThrows(IllegalStateException.class, sut::reference);
+        assertSame(user, sut.verify(user));
+    }
+
+    @Test
+    @DisplayName("When the token is self-contained, then it should reference its user without reading them")
+    void whenTokenIsSelfContained_thenShouldReferenceItsUser() {
+        // when
+        AuthToken sut = issue(true);
+
+        // then
+        assertTrue(sut.isSelfContained());
+        assertEquals("alice", sut.username());
+        assertEquals(user.profileVersion(), sut.profileVersion());
+        assertEquals(user, sut.reference());
+        assertEquals("alice", sut.reference().getUsername());
+        assertSame(user, sut.verify(user));
+    }
+
+    @Test
+    @DisplayName("When the profile changes after a self-contained token was issued, then the token should be rejected")
+    void whenProfileChangesAfterIssue_thenShouldRejectToken() {
+        // given
+        AuthToken sut = issue(true);
+
+        // when
+        user.setUsername("alice2");
+
+        // then
+        assertThrows(InvalidBearerTokenException.class, () -> sut.verify(user));
+    }
+
+    private AuthToken issue(boolean selfContained) {
+        String token = new AuthTokenProvider(jwtEncoder, selfContained).createAuthToken(user);
+        return new AuthTokenConverter().convert(jwtDecoder.decode(token));
+    }
+}
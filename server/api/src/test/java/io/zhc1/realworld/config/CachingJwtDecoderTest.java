@@ -0,0 +1,101 @@
+package io.zhc1.realworld.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Caching JWT Decoder - Remembering Verified Tokens")
+class CachingJwtDecoderTest {
+    JwtDecoder delegate;
+    MeterRegistry meterRegistry;
+    CachingJwtDecoder sut;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JwtDecoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        sut = new CachingJwtDecoder(delegate, 100);
+        sut.bindTo(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("When the same token is decoded twice, then it should be verified once and counted as a hit")
+    void whenSameTokenIsDecodedTwice_thenShouldVerifyOnce() {
+        // given
+        Jwt jwt = jwt("token", Instant.now().plusSeconds(300));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        // when
+        sut.decode("token");
+        Jwt actual = sut.decode("token");
+
+        // then
+        assertSame(jwt, actual);
+        verify(delegate, times(1)).decode("token");
+        assertEquals(1, gets("hit"));
+        assertEquals(1, gets("miss"));
+    }
+
+    @Test
+    @DisplayName("When a token fails to decode, then it should be verified again next time")
+    void whenTokenFailsToDecode_thenShouldNotRememberIt() {
+        // given
+        when(delegate.decode("forged")).thenThrow(new BadJwtException("invalid signature"));
+
+        // when & then
+        assertThrows(BadJwtException.class, () -> sut.decode("forged"));
+        assertThrows(BadJwtException.class, () -> sut.decode("forged"));
+        verify(delegate, times(2)).decode("forged");
+    }
+
+    @Test
+    @DisplayName("When a token has already expired or has no expiry, then it should not be remembered")
+    void whenTokenHasNoTimeLeft_thenShouldNotRememberIt() {
+        // given
+        when(delegate.decode("expired")).thenReturn(jwt("expired", Instant.now().minusSeconds(1)));
+        when(delegate.decode("endless")).thenReturn(jwt("endless", null));
+
+        // when
+        sut.decode("expired");
+        sut.decode("expired");
+        sut.decode("endless");
+        sut.decode("endless");
+
+        // then
+        verify(delegate, times(2)).decode("expired");
+        verify(delegate, times(2)).decode("endless");
+    }
+
+    private Jwt jwt(String token, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(Instant.now().minusSeconds(1));
+        return (expiresAt == null ? builder : builder.expiresAt(expiresAt)).build();
+    }
+
+    private double gets(String result) {
+        return meterRegistry
+                .get("cache.gets")
+                .tag("cache", CachingJwtDecoder.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,61 @@
+package io.zhc1.realworld.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.zhc1.realworld.diagnostics.RoundTripCounter;
+
+@DisplayName("Round Trip Report Filter - Per-Request Database Round Trips")
+class RoundTripReportFilterTest {
+    private final RoundTripReportFilter sut = new RoundTripReportFilter();
+
+    @Test
+    @DisplayName("Round trips made before the body is written are reported in a response header")
+    void whenRequestMakesRoundTrips_thenShouldReportThemInHeader() throws ServletException, IOException {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                RoundTripCounter.recordCommand();
+                RoundTripCounter.recordCommand();
+                RoundTripCounter.recordStatement();
+                resp.getWriter().write("{}");
+                resp.flushBuffer();
+            }
+        });
+
+        // when
+        sut.doFilter(request, response, chain);
+
+        // then
+        assertEquals("statements=1, commands=2", response.getHeader(RoundTripReportFilter.HEADER));
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Requests without a body still get the header")
+    void whenResponseHasNoBody_thenShouldReportAfterChain() throws ServletException, IOException {
+        // given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        sut.doFilter(new MockHttpServletRequest("DELETE", "/api/articles/slug"), response, new MockFilterChain());
+
+        // then
+        assertEquals("statements=0, commands=0", response.getHeader(RoundTripReportFilter.HEADER));
+    }
+}
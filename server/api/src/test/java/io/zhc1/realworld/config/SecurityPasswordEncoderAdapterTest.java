@@ -1,11 +1,21 @@
 package io.zhc1.realworld.config;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import io.zhc1.realworld.model.PasswordEncoder;
 
@@ -15,7 +25,7 @@ class SecurityPasswordEncoderAdapterTest {
 
     @BeforeEach
     void setUp() {
-        sut = new SecurityPasswordEncoderAdapter();
+        sut = new SecurityPasswordEncoderAdapter(1, 1, Duration.ofSeconds(1), new SimpleMeterRegistry());
     }
 
     @Test
@@ -44,4 +54,56 @@ class SecurityPasswordEncoderAdapterTest {
         // then
         assertFalse(result);
     }
+
+    @Test
+    @DisplayName("When every thread and queue slot is taken, then should refuse at once with 503 and Retry-After")
+    void whenQueueIsFull_thenShouldRefuseWithServiceUnavailable() throws InterruptedException {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        var blocking = new SecurityPasswordEncoderAdapter(
+                new org.springframework.security.crypto.password.PasswordEncoder() {
+                    @Override
+                    public String encode(CharSequence rawPassword) {
+                        return rawPassword.toString();
+                    }
+
+                    @Override
+                    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                        started.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return true;
+                    }
+                },
+                1,
+                1,
+                Duration.ofSeconds(2),
+                meterRegistry);
+        Thread running = Thread.ofVirtual().start(() -> blocking.matches("password", "password"));
+        started.await();
+        Thread queued = Thread.ofVirtual().start(() -> blocking.matches("password", "password"));
+        while (meterRegistry.get("password.hashing.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        var rejected = assertThrows(
+                PasswordHashingRejectedException.class, () -> blocking.matches("password", "password"));
+
+        // then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("2", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        running.join();
+        queued.join();
+        assertEquals(2, meterRegistry.get("password.hashing.wait").timer().count());
+        blocking.destroy();
+    }
 }
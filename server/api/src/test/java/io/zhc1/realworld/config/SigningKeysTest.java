@@ -0,0 +1,161 @@
+package io.zhc1.realworld.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+
+@DisplayName("Signing Keys - Algorithms, Rotation and Published Keys")
+class SigningKeysTest {
+    private final MutableClock clock = new MutableClock();
+
+    @ParameterizedTest
+    @EnumSource(SigningAlgorithm.class)
+    @DisplayName("When a token is signed, then it should name its key and verify with the same algorithm")
+    void whenTokenIsSigned_thenShouldVerify(SigningAlgorithm algorithm) {
+        // given
+        SigningKeys sut = signingKeys(algorithm);
+
+        // when
+        Jwt signed = sut.encoder().encode(claims());
+        Jwt verified = sut.decoder().decode(signed.getTokenValue());
+
+        // then
+        assertEquals(algorithm.jwsAlgorithm().getName(), verified.getHeaders().get("alg"));
+        assertEquals(sut.publicKeys().getKeys().getFirst().getKeyID(), verified.getHeaders().get("kid"));
+        assertEquals("user", verified.getSubject());
+    }
+
+    @Test
+    @DisplayName("When keys rotate, then tokens of the retired key should verify until the retention has passed")
+    void whenKeysRotate_thenShouldTrustRetiredKeyForRetention() {
+        // given
+        SigningKeys sut = signingKeys(SigningAlgorithm.ES256);
+        String before = sut.encoder().encode(claims()).getTokenValue();
+
+        // when
+        sut.rotate();
+        String after = sut.encoder().encode(claims()).getTokenValue();
+
+        // then
+        assertEquals(2, sut.publicKeys().size());
+        sut.decoder().decode(before);
+        sut.decoder().decode(after);
+
+        clock.advance(Duration.ofMinutes(11));
+        assertEquals(1, sut.publicKeys().size());
+        assertThrows(JwtException.class, () -> sut.decoder().decode(before));
+        sut.decoder().decode(after);
+    }
+
+    @Test
+    @DisplayName("When keys are published, then only their public halves should be")
+    void whenKeysArePublished_thenShouldOmitPrivateHalves() {
+        // given
+        SigningKeys sut = signingKeys(SigningAlgorithm.EDDSA);
+        sut.rotate();
+
+        // when
+        JWKSet published = sut.publicKeys();
+
+        // then
+        assertEquals(2, published.size());
+        for (JWK key : published.getKeys()) {
+            assertFalse(key.isPrivate());
+            assertTrue(key.getKeyID() != null && !key.getKeyID().isBlank());
+        }
+    }
+
+    @Test
+    @DisplayName("When the initial key does not fit the algorithm, then should throw IllegalArgumentException")
+    void whenInitialKeyDoesNotFit_thenShouldThrow() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new SigningKeys(
+                        SigningAlgorithm.ES256, SigningAlgorithm.RS256.generate(), Duration.ofMinutes(10), clock));
+    }
+
+    @ParameterizedTest
+    @EnumSource(SigningAlgorithm.class)
+    @DisplayName("When two instances share a JWK set, then each should verify the tokens of the other")
+    void whenInstancesShareJwkSet_thenShouldVerifyEachOther(SigningAlgorithm algorithm) throws Exception {
+        // given
+        List<JWK> configured = List.of(SigningAlgorithm.RS256.generate(), algorithm.generate());
+        JWKSet jwkSet = JWKSet.parse(new JWKSet(configured).toString(false));
+        SigningKeys one = new SigningKeys(algorithm, algorithm.select(jwkSet), Duration.ofMinutes(10), clock);
+        SigningKeys other = new SigningKeys(algorithm, algorithm.select(jwkSet), Duration.ofMinutes(10), clock);
+
+        // when
+        Jwt verified = other.decoder().decode(one.encoder().encode(claims()).getTokenValue());
+
+        // then
+        assertEquals(algorithm.jwsAlgorithm().getName(), verified.getHeaders().get("alg"));
+        assertEquals("user", verified.getSubject());
+    }
+
+    @Test
+    @DisplayName("When the JWK set holds no key for the algorithm, then should throw IllegalArgumentException")
+    void whenJwkSetHoldsNoKeyForAlgorithm_thenShouldThrow() {
+        // given
+        JWKSet jwkSet = new JWKSet(List.of(SigningAlgorithm.RS256.generate(), SigningAlgorithm.ES256.generate()));
+
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> SigningAlgorithm.EDDSA.select(jwkSet));
+        assertThrows(IllegalArgumentException.class, () -> SigningAlgorithm.ES256.select(jwkSet.toPublicJWKSet()));
+    }
+
+    private SigningKeys signingKeys(SigningAlgorithm algorithm) {
+        return new SigningKeys(algorithm, algorithm.generate(), Duration.ofMinutes(10), clock);
+    }
+
+    private JwtEncoderParameters claims() {
+        Instant now = Instant.now();
+        return JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .subject("user")
+                .build());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+dependencies {
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+    implementation(libs.hdrhistogram)
+}
+
+// Usage: ./gradlew loadtest:loadTest -Pargs="--profile=h2 --rate=200 --duration=2m"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Drives the Conduit API of a running server and writes a latency report."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("io.zhc1.realworld.loadtest.LoadTestApplication")
+    args("--report-dir=${layout.buildDirectory.dir("reports/loadtest").get().asFile}")
+    args((findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() })
+}
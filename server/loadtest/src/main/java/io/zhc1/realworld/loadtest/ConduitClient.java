@@ -0,0 +1,97 @@
+package io.zhc1.realworld.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zhc1.realworld.loadtest.LatencyRecorder.Outcome;
+
+/** Sends requests to the Conduit API and records their latency and outcome. */
+final class ConduitClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder recorder;
+
+    ConduitClient(URI baseUrl, ObjectMapper objectMapper, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        // Signup answers with a 307 to the login endpoint, which a browser would follow too.
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Sends one request of a scenario.
+     *
+     * @param run arrival the request belongs to
+     * @param endpoint name the latency is recorded under
+     * @param method HTTP method
+     * @param path path and query, relative to the base URL
+     * @param token auth token of the user, or {@code null} to send the request anonymously
+     * @param body request body, serialized as JSON, or {@code null}
+     * @return Returns the response body of a successful request
+     */
+    Optional<JsonNode> send(ScenarioRun run, String endpoint, String method, String path, String token, Object body) {
+        HttpRequest request = request(method, path, token, body);
+        long startNanos = run.nextStartNanos();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            Outcome outcome = outcome(response.statusCode());
+            if (run.measured()) {
+                recorder.record(endpoint, System.nanoTime() - startNanos, outcome);
+            }
+            return outcome == Outcome.SUCCEEDED && response.body().length > 0
+                    ? Optional.of(objectMapper.readTree(response.body()))
+                    : Optional.empty();
+        } catch (IOException e) {
+            if (run.measured()) {
+                recorder.record(endpoint, System.nanoTime() - startNanos, Outcome.FAILED);
+            }
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private HttpRequest request(String method, String path, String token, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Token " + token);
+        }
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("request body cannot be serialized.", e);
+        }
+    }
+
+    private static Outcome outcome(int statusCode) {
+        if (statusCode >= 500) {
+            return Outcome.FAILED;
+        }
+        return statusCode >= 400 ? Outcome.REJECTED : Outcome.SUCCEEDED;
+    }
+}
@@ -0,0 +1,94 @@
+package io.zhc1.realworld.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/** Latency histograms and outcome counts per endpoint, recorded from many threads at once. */
+final class LatencyRecorder {
+    /** Latencies up to a minute are recorded with 3 significant digits, longer ones are clamped to it. */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Records one request.
+     *
+     * @param endpoint endpoint the request was sent to, with path variables left as placeholders
+     * @param elapsedNanos latency of the request
+     * @param outcome how the request ended
+     */
+    void record(String endpoint, long elapsedNanos, Outcome outcome) {
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).record(elapsedNanos, outcome);
+    }
+
+    /** Counts an arrival that was not started because too many scenarios were already in flight. */
+    void drop() {
+        dropped.increment();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @param seconds length of the measured period, to compute throughputs
+     * @return Returns the statistics of every endpoint, ordered by endpoint
+     */
+    List<LoadReport.EndpointStats> snapshot(double seconds) {
+        return endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getValue().snapshot(entry.getKey(), seconds))
+                .toList();
+    }
+
+    enum Outcome {
+        /** A 2xx or 3xx response. */
+        SUCCEEDED,
+        /** A 4xx response, such as favoriting an article another arrival had just favorited. */
+        REJECTED,
+        /** A 5xx response, a timeout or a connection failure. */
+        FAILED
+    }
+
+    private static final class Endpoint {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        void record(long elapsedNanos, Outcome outcome) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+            switch (outcome) {
+                case REJECTED -> rejected.increment();
+                case FAILED -> failed.increment();
+                case SUCCEEDED -> {}
+            }
+        }
+
+        LoadReport.EndpointStats snapshot(String endpoint, double seconds) {
+            Histogram copy = latencies.copy();
+            return new LoadReport.EndpointStats(
+                    endpoint,
+                    copy.getTotalCount(),
+                    rejected.sum(),
+                    failed.sum(),
+                    copy.getTotalCount() / seconds,
+                    millis(copy.getMean()),
+                    millis(copy.getValueAtPercentile(50)),
+                    millis(copy.getValueAtPercentile(90)),
+                    millis(copy.getValueAtPercentile(99)),
+                    millis(copy.getValueAtPercentile(99.9)),
+                    millis(copy.getMaxValue()));
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1_000.0;
+        }
+    }
+}
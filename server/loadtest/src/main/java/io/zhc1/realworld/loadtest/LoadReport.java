@@ -0,0 +1,99 @@
+package io.zhc1.realworld.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Result of one run, written as JSON so that runs against different profiles or releases can be diffed.
+ *
+ * @param profile The persistence profile of the server.
+ * @param baseUrl The URL of the server.
+ * @param startedAt The local time the measured period started.
+ * @param targetRate The scenarios per second the run aimed at.
+ * @param achievedRate The scenarios per second actually started during the measured period.
+ * @param durationSeconds The length of the measured period.
+ * @param concurrency The maximum number of scenarios in flight.
+ * @param dropped The arrivals not started because {@code concurrency} scenarios were already in flight.
+ * @param mix The relative weight of each scenario.
+ * @param endpoints The statistics of every endpoint.
+ */
+record LoadReport(
+        String profile,
+        String baseUrl,
+        LocalDateTime startedAt,
+        double targetRate,
+        double achievedRate,
+        double durationSeconds,
+        int concurrency,
+        long dropped,
+        Map<String, Integer> mix,
+        List<EndpointStats> endpoints) {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Latency statistics of one endpoint over the measured period. Latencies are in milliseconds.
+     *
+     * @param endpoint The method and path of the endpoint.
+     * @param count The requests sent, whatever their outcome.
+     * @param rejected The requests answered with a 4xx status.
+     * @param failed The requests answered with a 5xx status, or that timed out or could not connect.
+     * @param throughput The requests per second.
+     */
+    record EndpointStats(
+            String endpoint,
+            long count,
+            long rejected,
+            long failed,
+            double throughput,
+            double meanMillis,
+            double p50Millis,
+            double p90Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis) {}
+
+    /**
+     * Writes the report to a file named after the profile and the start of the run.
+     *
+     * @param objectMapper mapper to write the JSON with
+     * @param directory directory to write the file to, created if missing
+     * @return Returns the written file
+     */
+    Path write(ObjectMapper objectMapper, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("loadtest-%s-%s.json".formatted(profile, startedAt.format(FILE_TIMESTAMP)));
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        return file;
+    }
+
+    /** Prints the report as a table. */
+    void print(PrintStream out) {
+        out.printf(
+                "%nprofile=%s rate=%.1f/s (target %.1f/s) duration=%.0fs concurrency=%d dropped=%d%n%n",
+                profile, achievedRate, targetRate, durationSeconds, concurrency, dropped);
+        out.printf(
+                "%-40s %8s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "4xx", "failed", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats stats : endpoints) {
+            out.printf(
+                    "%-40s %8d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.endpoint(),
+                    stats.count(),
+                    stats.rejected(),
+                    stats.failed(),
+                    stats.throughput(),
+                    stats.p50Millis(),
+                    stats.p99Millis(),
+                    stats.p999Millis(),
+                    stats.maxMillis());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.zhc1.realworld.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Replays a mix of Conduit scenarios against a running server and reports the latencies per endpoint.
+ *
+ * <p>Scenarios arrive at a fixed mean rate whatever the server's response times, each on its own virtual thread, as
+ * independent users would (open model). A closed loop of workers would instead slow down with the server and hide
+ * its queueing delays. Start the server with the profile to measure, then pass the same profile here so it is
+ * recorded in the report.
+ */
+public final class LoadTestApplication {
+    private LoadTestApplication() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated!");
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        LatencyRecorder recorder = new LatencyRecorder();
+        ConduitClient client = new ConduitClient(options.baseUrl(), objectMapper, recorder);
+
+        System.out.printf("Seeding %d users against %s...%n", options.users(), options.baseUrl());
+        SeedData data = SeedData.create(client, options);
+
+        System.out.printf(
+                "Running %.1f scenarios/s for %ss after a %ss warmup...%n",
+                options.rate(), options.duration().toSeconds(), options.warmup().toSeconds());
+        LoadReport report = run(options, client, data, recorder);
+
+        report.print(System.out);
+        Path file = report.write(objectMapper, options.reportDir());
+        System.out.printf("%nReport written to %s%n", file.toAbsolutePath());
+    }
+
+    static LoadReport run(LoadTestOptions options, ConduitClient client, SeedData data, LatencyRecorder recorder)
+            throws InterruptedException {
+        ScenarioMix mix = new ScenarioMix(options.mix());
+        Semaphore inFlight = new Semaphore(options.concurrency());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long startNanos = System.nanoTime();
+        long measuredFromNanos = startNanos + options.warmup().toNanos();
+        long endNanos = measuredFromNanos + options.duration().toNanos();
+        LocalDateTime startedAt = LocalDateTime.now().plus(options.warmup());
+        long measuredArrivals = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long scheduledNanos = startNanos;
+            for (long sequence = 0; ; sequence++) {
+                // Exponential gaps between arrivals make a Poisson process of the given mean rate.
+                scheduledNanos += (long) (-Math.log(1 - random.nextDouble()) / options.rate() * 1_000_000_000L);
+                if (scheduledNanos >= endNanos) {
+                    break;
+                }
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                boolean measured = scheduledNanos >= measuredFromNanos;
+                if (measured) {
+                    measuredArrivals++;
+                }
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        recorder.drop();
+                    }
+                    continue;
+                }
+
+                Scenario scenario = mix.next(random);
+                ScenarioRun run = new ScenarioRun(sequence, scheduledNanos, measured);
+                executor.execute(() -> {
+                    try {
+                        scenario.run(client, data, run);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        double seconds = options.duration().toNanos() / 1_000_000_000.0;
+        Map<String, Integer> weights = new TreeMap<>();
+        options.mix().forEach((scenario, weight) -> weights.put(scenario.toString(), weight));
+        return new LoadReport(
+                options.profile(),
+                options.baseUrl().toString(),
+                startedAt,
+                options.rate(),
+                (measuredArrivals - recorder.dropped()) / seconds,
+                seconds,
+                options.concurrency(),
+                recorder.dropped(),
+                weights,
+                recorder.snapshot(seconds));
+    }
+}
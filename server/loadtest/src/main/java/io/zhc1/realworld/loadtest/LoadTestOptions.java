@@ -0,0 +1,132 @@
+package io.zhc1.realworld.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of a load test run, given on the command line as {@code --name=value}.
+ *
+ * @param baseUrl The URL the server under test listens on.
+ * @param profile The persistence profile the server runs with. It is only recorded in the report, so that runs against
+ *     {@code h2}, {@code mongodb} or {@code memory} can be told apart and compared.
+ * @param rate The mean number of scenarios started per second. Arrivals follow a Poisson process and do not wait for
+ *     earlier scenarios to finish (open model).
+ * @param warmup The time scenarios run before latencies are recorded.
+ * @param duration The time latencies are recorded for, after the warmup.
+ * @param concurrency The maximum number of scenarios in flight. Arrivals past it are dropped and counted.
+ * @param users The number of users signed up before the run, who write, follow and favorite during it.
+ * @param articlesPerUser The number of articles each of those users writes before the run.
+ * @param mix The relative weight of each scenario.
+ * @param reportDir The directory the report of the run is written to.
+ */
+record LoadTestOptions(
+        URI baseUrl,
+        String profile,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int concurrency,
+        int users,
+        int articlesPerUser,
+        Map<Scenario, Integer> mix,
+        Path reportDir) {
+    static final String DEFAULT_MIX = "list=40,article=25,feed=15,favorite=7,comment=5,login=5,signup=3";
+
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+            "base-url",
+            "profile",
+            "rate",
+            "warmup",
+            "duration",
+            "concurrency",
+            "users",
+            "articles-per-user",
+            "mix",
+            "report-dir");
+
+    LoadTestOptions {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be greater than 0.");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be greater than 0.");
+        }
+        if (users < 2) {
+            throw new IllegalArgumentException("users must be at least 2.");
+        }
+        if (articlesPerUser < 1) {
+            throw new IllegalArgumentException("articles-per-user must be at least 1.");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix must give at least one scenario a positive weight.");
+        }
+        mix = Map.copyOf(mix);
+    }
+
+    /**
+     * Parses the command line, with defaults for every option not given.
+     *
+     * @param args arguments of the form {@code --name=value}
+     * @return Returns the options
+     */
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("argument must be of the form --name=value: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        try {
+            LoadTestOptions options = new LoadTestOptions(
+                    URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                    values.getOrDefault("profile", "mongodb"),
+                    Double.parseDouble(values.getOrDefault("rate", "50")),
+                    duration(values.getOrDefault("warmup", "10s")),
+                    duration(values.getOrDefault("duration", "60s")),
+                    Integer.parseInt(values.getOrDefault("concurrency", "256")),
+                    Integer.parseInt(values.getOrDefault("users", "50")),
+                    Integer.parseInt(values.getOrDefault("articles-per-user", "3")),
+                    mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                    Path.of(values.getOrDefault("report-dir", "build/reports/loadtest")));
+            values.keySet().removeAll(KNOWN_OPTIONS);
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("unknown options: " + values.keySet());
+            }
+            return options;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("durations must look like 30s, 2m or 1h.");
+        }
+    }
+
+    /** Parses {@code 30s}, {@code 2m} or {@code 1h}, as well as ISO-8601 durations. */
+    private static Duration duration(String value) {
+        return Duration.parse(value.startsWith("P") ? value : "PT" + value.toUpperCase());
+    }
+
+    /** Parses {@code list=40,feed=15}; scenarios left out get no weight. */
+    private static Map<Scenario, Integer> mix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] weight = entry.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("mix entries must be of the form scenario=weight: " + entry);
+            }
+
+            int parsed = Integer.parseInt(weight[1].trim());
+            if (parsed < 0) {
+                throw new IllegalArgumentException("mix weights must not be negative: " + entry);
+            }
+            mix.put(Scenario.named(weight[0].trim()), parsed);
+        }
+        return mix;
+    }
+}
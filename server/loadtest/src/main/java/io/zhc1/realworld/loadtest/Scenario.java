@@ -0,0 +1,128 @@
+package io.zhc1.realworld.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** A user action of the mix, made of one or more requests, each recorded under its endpoint. */
+enum Scenario {
+    SIGNUP {
+        @Override
+        void run(ConduitClient client, SeedData data, ScenarioRun run) {
+            String username = data.nextUsername();
+            client.send(
+                    run,
+                    "POST /api/users",
+                    "POST",
+                    "/api/users",
+                    null,
+                    Map.of(
+                            "user",
+                            Map.of(
+                                    "email",
+                                    username + "@realworld.io",
+                                    "username",
+                                    username,
+                                    "password",
+                                    SeedData.PASSWORD)));
+        }
+    },
+
+    LOGIN {
+        @Override
+        void run(ConduitClient client, SeedData data, ScenarioRun run) {
+            SeedData.SeededUser user = data.randomUser();
+            client.send(
+                    run,
+                    "POST /api/users/login",
+                    "POST",
+                    "/api/users/login",
+                    null,
+                    Map.of("user", Map.of("email", user.email(), "password", SeedData.PASSWORD)));
+        }
+    },
+
+    /** The home page: the global list, filtered by a tag a third of the time, read anonymously half of the time. */
+    LIST {
+        @Override
+        void run(ConduitClient client, SeedData data, ScenarioRun run) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String path = random.nextInt(3) == 0
+                    ? "/api/articles?limit=20&tag=" + data.randomTag()
+                    : "/api/articles?limit=20";
+            String token = random.nextBoolean() ? data.randomUser().token() : null;
+            client.send(run, "GET /api/articles", "GET", path, token, null);
+        }
+    },
+
+    FEED {
+        @Override
+        void run(ConduitClient client, SeedData data, ScenarioRun run) {
+            client.send(
+                    run,
+                    "GET /api/articles/feed",
+                    "GET",
+                    "/api/articles/feed?limit=20",
+                    data.randomUser().token(),
+                    null);
+        }
+    },
+
+    ARTICLE {
+        @Override
+        void run(ConduitClient client, SeedData data, ScenarioRun run) {
+            String slug = data.randomSlug();
+            client.send(
+                    run,
+                    "GET /api/articles/{slug}",
+                    "GET",
+                    "/api/articles/" + slug,
+                    data.randomUser().token(),
+                    null);
+            client.send(
+                    run, "GET /api/articles/{slug}/comments", "GET", "/api/articles/" + slug + "/comments", null, null);
+        }
+    },
+
+    /** Favorites an article and takes the favorite back, so that the data set does not drift during the run. */
+    FAVORITE {
+        @Override
+        void run(ConduitClient client, SeedData data, ScenarioRun run) {
+            String token = data.randomUser().token();
+            String path = "/api/articles/" + data.randomSlug() + "/favorite";
+            client.send(run, "POST /api/articles/{slug}/favorite", "POST", path, token, null);
+            client.send(run, "DELETE /api/articles/{slug}/favorite", "DELETE", path, token, null);
+        }
+    },
+
+    COMMENT {
+        @Override
+        void run(ConduitClient client, SeedData data, ScenarioRun run) {
+            client.send(
+                    run,
+                    "POST /api/articles/{slug}/comments",
+                    "POST",
+                    "/api/articles/" + data.randomSlug() + "/comments",
+                    data.randomUser().token(),
+                    Map.of("comment", Map.of("body", "Load test comment " + run.sequence())));
+        }
+    };
+
+    /** Runs the scenario, recording every request it makes. */
+    abstract void run(ConduitClient client, SeedData data, ScenarioRun run);
+
+    static Scenario named(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown scenario '%s', expected one of %s"
+                    .formatted(name, Arrays.stream(values()).map(Scenario::toString).toList()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,38 @@
+package io.zhc1.realworld.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/** Picks scenarios at random in proportion to their weights. */
+final class ScenarioMix {
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private final int totalWeight;
+
+    ScenarioMix(Map<Scenario, Integer> weights) {
+        int total = 0;
+        for (Scenario scenario : Scenario.values()) {
+            int weight = weights.getOrDefault(scenario, 0);
+            if (weight > 0) {
+                total += weight;
+                scenarios.add(scenario);
+                cumulativeWeights.add(total);
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("mix must give at least one scenario a positive weight.");
+        }
+        this.totalWeight = total;
+    }
+
+    Scenario next(RandomGenerator random) {
+        int pick = random.nextInt(totalWeight);
+        int i = 0;
+        while (pick >= cumulativeWeights.get(i)) {
+            i++;
+        }
+        return scenarios.get(i);
+    }
+}
@@ -0,0 +1,43 @@
+package io.zhc1.realworld.loadtest;
+
+/**
+ * One arrival of a scenario.
+ *
+ * <p>The first request of the scenario is timed from the moment the arrival was scheduled rather than from the moment
+ * it was sent, so time spent waiting for the load generator itself counts as latency instead of being silently lost
+ * (coordinated omission). The requests that follow are timed from when they are sent.
+ */
+final class ScenarioRun {
+    private final long sequence;
+    private final long scheduledNanos;
+    private final boolean measured;
+    private boolean started;
+
+    /**
+     * @param sequence number of the arrival in the run
+     * @param scheduledNanos {@link System#nanoTime()} the arrival was scheduled at
+     * @param measured whether the arrival falls after the warmup, so that its latencies are recorded
+     */
+    ScenarioRun(long sequence, long scheduledNanos, boolean measured) {
+        this.sequence = sequence;
+        this.scheduledNanos = scheduledNanos;
+        this.measured = measured;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    boolean measured() {
+        return measured;
+    }
+
+    /** Returns the time the next request of the scenario is timed from. */
+    long nextStartNanos() {
+        if (started) {
+            return System.nanoTime();
+        }
+        started = true;
+        return scheduledNanos;
+    }
+}
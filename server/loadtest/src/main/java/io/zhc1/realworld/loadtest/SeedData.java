@@ -0,0 +1,163 @@
+package io.zhc1.realworld.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Users and articles created before the run for the scenarios to act on.
+ *
+ * <p>Names carry a per-run prefix, so that runs against a database that outlives the server do not collide. Auth
+ * tokens expire after five minutes, so users log in again, unmeasured, once their token gets close to that age.
+ */
+final class SeedData {
+    static final String PASSWORD = "load-test-password";
+
+    private static final List<String> TAGS = List.of("java", "spring", "mongodb", "jpa", "performance", "testing");
+    private static final Duration TOKEN_REFRESH_AGE = Duration.ofMinutes(4);
+    private static final int FOLLOWS_PER_USER = 10;
+
+    private final ConduitClient client;
+    private final String runId;
+    private final AtomicReferenceArray<SeededUser> users;
+    private final List<String> slugs;
+    private final AtomicLong signups = new AtomicLong();
+
+    private SeedData(ConduitClient client, String runId, List<SeededUser> users, List<String> slugs) {
+        this.client = client;
+        this.runId = runId;
+        this.users = new AtomicReferenceArray<>(users.toArray(SeededUser[]::new));
+        this.slugs = List.copyOf(slugs);
+    }
+
+    /**
+     * Signs up the users, has each write articles and follow some of the others.
+     *
+     * @param client client to send the requests with, unmeasured
+     * @param options options of the run
+     * @return Returns the seeded data
+     */
+    static SeedData create(ConduitClient client, LoadTestOptions options) {
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        List<SeededUser> users = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            String username = "lt%s-%d".formatted(runId, i);
+            users.add(signup(client, username));
+        }
+
+        List<String> slugs = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            for (int j = 0; j < options.articlesPerUser(); j++) {
+                String title = "Load test %s %d %d".formatted(runId, i, j);
+                client.send(
+                        unmeasured(),
+                        "POST /api/articles",
+                        "POST",
+                        "/api/articles",
+                        users.get(i).token(),
+                        Map.of(
+                                "article",
+                                Map.of(
+                                        "title", title,
+                                        "description", "Written by the load generator",
+                                        "body", "Lorem ipsum dolor sit amet. ".repeat(20),
+                                        "tagList", List.of(TAGS.get(random.nextInt(TAGS.size()))))))
+                        .map(response -> response.path("article").path("slug").asText())
+                        .ifPresent(slugs::add);
+            }
+        }
+        if (slugs.isEmpty()) {
+            throw new IllegalStateException("no article could be written, is the server running?");
+        }
+
+        for (SeededUser follower : users) {
+            for (int i = 0; i < Math.min(FOLLOWS_PER_USER, users.size() - 1); i++) {
+                SeededUser following = users.get(random.nextInt(users.size()));
+                if (!following.equals(follower)) {
+                    client.send(
+                            unmeasured(),
+                            "POST /api/profiles/{username}/follow",
+                            "POST",
+                            "/api/profiles/" + following.username() + "/follow",
+                            follower.token(),
+                            null);
+                }
+            }
+        }
+
+        return new SeedData(client, runId, users, slugs);
+    }
+
+    /** Returns a random seeded user, with a token that is still valid. */
+    SeededUser randomUser() {
+        int index = ThreadLocalRandom.current().nextInt(users.length());
+        SeededUser user = users.get(index);
+        if (user.tokenAge().compareTo(TOKEN_REFRESH_AGE) < 0) {
+            return user;
+        }
+
+        SeededUser refreshed = login(client, user.email(), user.username());
+        users.compareAndSet(index, user, refreshed);
+        return refreshed;
+    }
+
+    String randomSlug() {
+        return slugs.get(ThreadLocalRandom.current().nextInt(slugs.size()));
+    }
+
+    String randomTag() {
+        return TAGS.get(ThreadLocalRandom.current().nextInt(TAGS.size()));
+    }
+
+    /** Returns a username nobody signed up with yet, for the signup scenario. */
+    String nextUsername() {
+        return "lt%s-s%d".formatted(runId, signups.incrementAndGet());
+    }
+
+    private static SeededUser signup(ConduitClient client, String username) {
+        String email = username + "@realworld.io";
+        return client.send(
+                        unmeasured(),
+                        "POST /api/users",
+                        "POST",
+                        "/api/users",
+                        null,
+                        Map.of("user", Map.of("email", email, "username", username, "password", PASSWORD)))
+                .map(response -> SeededUser.of(email, username, response))
+                .orElseThrow(() -> new IllegalStateException("user " + username + " could not sign up."));
+    }
+
+    private static SeededUser login(ConduitClient client, String email, String username) {
+        return client.send(
+                        unmeasured(),
+                        "POST /api/users/login",
+                        "POST",
+                        "/api/users/login",
+                        null,
+                        Map.of("user", Map.of("email", email, "password", PASSWORD)))
+                .map(response -> SeededUser.of(email, username, response))
+                .orElseThrow(() -> new IllegalStateException("user " + username + " could not log in."));
+    }
+
+    private static ScenarioRun unmeasured() {
+        return new ScenarioRun(-1, System.nanoTime(), false);
+    }
+
+    record SeededUser(String email, String username, String token, long issuedAtNanos) {
+        static SeededUser of(String email, String username, JsonNode response) {
+            return new SeededUser(email, username, response.path("user").path("token").asText(), System.nanoTime());
+        }
+
+        Duration tokenAge() {
+            return Duration.ofNanos(System.nanoTime() - issuedAtNanos);
+        }
+    }
+}
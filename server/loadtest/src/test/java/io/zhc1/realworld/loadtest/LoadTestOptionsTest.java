@@ -0,0 +1,56 @@
+package io.zhc1.realworld.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Load Test Options - Command Line and Scenario Mix")
+class LoadTestOptionsTest {
+    @Test
+    @DisplayName("Given options override the defaults and short durations are understood")
+    void whenParsingArguments_thenShouldOverrideDefaults() {
+        // when
+        LoadTestOptions options =
+                LoadTestOptions.parse("--profile=memory", "--rate=200", "--duration=2m", "--mix=feed=3,list=1");
+
+        // then
+        assertEquals("memory", options.profile());
+        assertEquals(200, options.rate());
+        assertEquals(Duration.ofMinutes(2), options.duration());
+        assertEquals(Duration.ofSeconds(10), options.warmup());
+        assertEquals(Map.of(Scenario.FEED, 3, Scenario.LIST, 1), options.mix());
+    }
+
+    @Test
+    @DisplayName("Unknown options and scenarios are refused")
+    void whenArgumentsAreUnknown_thenShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--users=10", "--speed=fast"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=browse=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--rate=0"));
+    }
+
+    @Test
+    @DisplayName("Scenarios are picked in proportion to their weights")
+    void whenPickingScenarios_thenShouldFollowWeights() {
+        // given
+        ScenarioMix sut = new ScenarioMix(Map.of(Scenario.LIST, 3, Scenario.FEED, 1, Scenario.LOGIN, 0));
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Scenario, Integer> picks = new EnumMap<>(Scenario.class);
+
+        // when
+        for (int i = 0; i < 40_000; i++) {
+            picks.merge(sut.next(random), 1, Integer::sum);
+        }
+
+        // then
+        assertEquals(2, picks.size());
+        assertEquals(3.0, (double) picks.get(Scenario.LIST) / picks.get(Scenario.FEED), 0.15);
+    }
+}
@@ -6,3 +6,7 @@ include(":module:core", ":module:persistence")
 // Include the server module
 include(":realworld")
 project(":realworld").projectDir = file("server/api")
+
+// Include the load generator, which drives a running server over HTTP
+include(":loadtest")
+project(":loadtest").projectDir = file("server/loadtest")